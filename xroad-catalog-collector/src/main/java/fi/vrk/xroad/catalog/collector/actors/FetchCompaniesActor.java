@@ -12,19 +12,22 @@
  */
 package fi.vrk.xroad.catalog.collector.actors;
 
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.util.OrganizationUtil;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadClientIdentifierType;
-import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.CompanyService;
 import fi.vrk.xroad.catalog.persistence.entity.*;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestOperations;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,7 +40,14 @@ public class FetchCompaniesActor extends XRoadCatalogActor {
     private String fetchCompaniesUrl;
 
     @Autowired
-    protected CatalogService catalogService;
+    protected ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
+    @Autowired
+    @Qualifier("organizationsRestOperations")
+    private RestOperations restOperations;
 
     @Autowired
     protected CompanyService companyService;
@@ -50,13 +60,21 @@ public class FetchCompaniesActor extends XRoadCatalogActor {
     @Override
     protected boolean handleMessage(Object message) {
         if (message instanceof ClientType) {
-            ClientType clientType = (ClientType) message;
-            XRoadClientIdentifierType client = clientType.getId();
-            log.info("Fetching data for company with businessCode {}", client.getMemberCode());
-            String businessCode = clientType.getId().getMemberCode();
-            JSONObject companyJson = OrganizationUtil.getCompany(clientType, fetchCompaniesUrl, businessCode, catalogService);
-            saveData(companyJson.optJSONArray("results"));
-            log.info("Successfully saved data for company with businessCode {}", businessCode);
+            long runId = currentRunId();
+            boolean success = false;
+            try {
+                ClientType clientType = (ClientType) message;
+                XRoadClientIdentifierType client = clientType.getId();
+                log.info("Fetching data for company with businessCode {}", client.getMemberCode());
+                String businessCode = clientType.getId().getMemberCode();
+                JSONObject companyJson = OrganizationUtil.getCompany(clientType, fetchCompaniesUrl, businessCode,
+                        restOperations, errorLogWriter);
+                saveData(companyJson.optJSONArray("results"));
+                log.info("Successfully saved data for company with businessCode {}", businessCode);
+                success = true;
+            } finally {
+                collectionRunCoordinator.workCompleted(runId, success);
+            }
             return true;
         } else {
             return false;
@@ -65,129 +83,130 @@ public class FetchCompaniesActor extends XRoadCatalogActor {
 
     private void saveData(JSONArray data) {
         for (int i = 0; i < data.length(); i++) {
-            Company savedCompany = companyService.saveCompany(OrganizationUtil.createCompany(data.optJSONObject(i)));
-            saveBusinessAddresses(data.optJSONObject(i).optJSONArray("addresses"), savedCompany);
-            saveBusinessAuxiliaryNames(data.optJSONObject(i).optJSONArray("auxiliaryNames"), savedCompany);
-            saveBusinessIdChanges(data.optJSONObject(i).optJSONArray("businessIdChanges"), savedCompany);
-            saveBusinessLines(data.optJSONObject(i).optJSONArray("businessLines"), savedCompany);
-            saveBusinessNames(data.optJSONObject(i).optJSONArray("businessNames"), savedCompany);
-            saveCompanyForms(data.optJSONObject(i).optJSONArray("companyForms"), savedCompany);
-            saveContactDetails(data.optJSONObject(i).optJSONArray("contactDetails"), savedCompany);
-            saveLanguages(data.optJSONObject(i).optJSONArray("languages"), savedCompany);
-            saveLiquidations(data.optJSONObject(i).optJSONArray("liquidations"), savedCompany);
-            saveRegisteredEntries(data.optJSONObject(i).optJSONArray("registeredEntries"), savedCompany);
-            saveRegisteredOffices(data.optJSONObject(i).optJSONArray("registeredOffices"), savedCompany);
+            JSONObject companyJson = data.optJSONObject(i);
+            Company company = OrganizationUtil.createCompany(companyJson);
+            addBusinessAddresses(companyJson.optJSONArray("addresses"), company);
+            addBusinessAuxiliaryNames(companyJson.optJSONArray("auxiliaryNames"), company);
+            addBusinessIdChanges(companyJson.optJSONArray("businessIdChanges"), company);
+            addBusinessLines(companyJson.optJSONArray("businessLines"), company);
+            addBusinessNames(companyJson.optJSONArray("businessNames"), company);
+            addCompanyForms(companyJson.optJSONArray("companyForms"), company);
+            addContactDetails(companyJson.optJSONArray("contactDetails"), company);
+            addLanguages(companyJson.optJSONArray("languages"), company);
+            addLiquidations(companyJson.optJSONArray("liquidations"), company);
+            addRegisteredEntries(companyJson.optJSONArray("registeredEntries"), company);
+            addRegisteredOffices(companyJson.optJSONArray("registeredOffices"), company);
+            companyService.saveCompanyGraph(company);
         }
     }
 
-    private void saveBusinessAddresses(JSONArray businessAddressesJson, Company savedCompany) {
+    private void addBusinessAddresses(JSONArray businessAddressesJson, Company company) {
         List<BusinessAddress> businessAddresses = businessAddressesJson != null
                 ? OrganizationUtil.createBusinessAddresses(businessAddressesJson)
                 : new ArrayList<>();
-
         businessAddresses.forEach(businessAddress -> {
-            businessAddress.setCompany(savedCompany);
-            companyService.saveBusinessAddress(businessAddress);
+            businessAddress.setCompany(company);
+            company.getAllBusinessAddresses().add(businessAddress);
         });
     }
 
-    private void saveBusinessAuxiliaryNames(JSONArray businessAuxiliaryNamesJson, Company savedCompany) {
+    private void addBusinessAuxiliaryNames(JSONArray businessAuxiliaryNamesJson, Company company) {
         List<BusinessAuxiliaryName> businessAuxiliaryNames = businessAuxiliaryNamesJson != null
                 ? OrganizationUtil.createBusinessAuxiliaryNames(businessAuxiliaryNamesJson)
                 : new ArrayList<>();
         businessAuxiliaryNames.forEach(businessAuxiliaryName -> {
-            businessAuxiliaryName.setCompany(savedCompany);
-            companyService.saveBusinessAuxiliaryName(businessAuxiliaryName);
+            businessAuxiliaryName.setCompany(company);
+            company.getAllBusinessAuxiliaryNames().add(businessAuxiliaryName);
         });
     }
 
-    private void saveBusinessIdChanges(JSONArray businessIdChangesJson, Company savedCompany) {
+    private void addBusinessIdChanges(JSONArray businessIdChangesJson, Company company) {
         List<BusinessIdChange> businessIdChanges = businessIdChangesJson != null
                 ? OrganizationUtil.createBusinessIdChanges(businessIdChangesJson)
                 : new ArrayList<>();
         businessIdChanges.forEach(businessIdChange -> {
-            businessIdChange.setCompany(savedCompany);
-            companyService.saveBusinessIdChange(businessIdChange);
+            businessIdChange.setCompany(company);
+            company.getAllBusinessIdChanges().add(businessIdChange);
         });
     }
 
-    private void saveBusinessLines(JSONArray businessLinesJson, Company savedCompany) {
+    private void addBusinessLines(JSONArray businessLinesJson, Company company) {
         List<BusinessLine> businessLines = businessLinesJson != null
                 ? OrganizationUtil.createBusinessLines(businessLinesJson)
                 : new ArrayList<>();
         businessLines.forEach(businessLine -> {
-            businessLine.setCompany(savedCompany);
-            companyService.saveBusinessLine(businessLine);
+            businessLine.setCompany(company);
+            company.getAllBusinessLines().add(businessLine);
         });
     }
 
-    private void saveBusinessNames(JSONArray businessNamesJson, Company savedCompany) {
+    private void addBusinessNames(JSONArray businessNamesJson, Company company) {
         List<BusinessName> businessNames = businessNamesJson != null
                 ? OrganizationUtil.createBusinessNames(businessNamesJson)
                 : new ArrayList<>();
         businessNames.forEach(businessName -> {
-            businessName.setCompany(savedCompany);
-            companyService.saveBusinessName(businessName);
+            businessName.setCompany(company);
+            company.getAllBusinessNames().add(businessName);
         });
     }
 
-    private void saveCompanyForms(JSONArray companyFormsJson, Company savedCompany) {
+    private void addCompanyForms(JSONArray companyFormsJson, Company company) {
         List<CompanyForm> companyForms = companyFormsJson != null
                 ? OrganizationUtil.createCompanyForms(companyFormsJson)
                 : new ArrayList<>();
         companyForms.forEach(companyForm -> {
-            companyForm.setCompany(savedCompany);
-            companyService.saveCompanyForm(companyForm);
+            companyForm.setCompany(company);
+            company.getAllCompanyForms().add(companyForm);
         });
     }
 
-    private void saveContactDetails(JSONArray contactDetailsJson, Company savedCompany) {
+    private void addContactDetails(JSONArray contactDetailsJson, Company company) {
         List<ContactDetail> contactDetails = contactDetailsJson != null
                 ? OrganizationUtil.createContactDetails(contactDetailsJson)
                 : new ArrayList<>();
         contactDetails.forEach(contactDetail -> {
-            contactDetail.setCompany(savedCompany);
-            companyService.saveContactDetail(contactDetail);
+            contactDetail.setCompany(company);
+            company.getAllContactDetails().add(contactDetail);
         });
     }
 
-    private void saveLanguages(JSONArray languagesJson, Company savedCompany) {
+    private void addLanguages(JSONArray languagesJson, Company company) {
         List<Language> languages = languagesJson != null
                 ? OrganizationUtil.createLanguages(languagesJson)
                 : new ArrayList<>();
         languages.forEach(language -> {
-            language.setCompany(savedCompany);
-            companyService.saveLanguage(language);
+            language.setCompany(company);
+            company.getAllLanguages().add(language);
         });
     }
 
-    private void saveLiquidations(JSONArray liquidationsJson, Company savedCompany) {
+    private void addLiquidations(JSONArray liquidationsJson, Company company) {
         List<Liquidation> liquidations = liquidationsJson != null
                 ? OrganizationUtil.createLiquidations(liquidationsJson)
                 : new ArrayList<>();
         liquidations.forEach(liquidation -> {
-            liquidation.setCompany(savedCompany);
-            companyService.saveLiquidation(liquidation);
+            liquidation.setCompany(company);
+            company.getAllLiquidations().add(liquidation);
         });
     }
 
-    private void saveRegisteredEntries(JSONArray registeredEntriesJson, Company savedCompany) {
+    private void addRegisteredEntries(JSONArray registeredEntriesJson, Company company) {
         List<RegisteredEntry> registeredEntries = registeredEntriesJson != null
                 ? OrganizationUtil.createRegisteredEntries(registeredEntriesJson)
                 : new ArrayList<>();
         registeredEntries.forEach(registeredEntry -> {
-            registeredEntry.setCompany(savedCompany);
-            companyService.saveRegisteredEntry(registeredEntry);
+            registeredEntry.setCompany(company);
+            company.getAllRegisteredEntries().add(registeredEntry);
         });
     }
 
-    private void saveRegisteredOffices(JSONArray registeredOfficesJson, Company savedCompany) {
+    private void addRegisteredOffices(JSONArray registeredOfficesJson, Company company) {
         List<RegisteredOffice> registeredOffices = registeredOfficesJson != null
                 ? OrganizationUtil.createRegisteredOffices(registeredOfficesJson)
                 : new ArrayList<>();
         registeredOffices.forEach(registeredOffice -> {
-            registeredOffice.setCompany(savedCompany);
-            companyService.saveRegisteredOffice(registeredOffice);
+            registeredOffice.setCompany(company);
+            company.getAllRegisteredOffices().add(registeredOffice);
         });
     }
 }
@@ -13,8 +13,13 @@
 package fi.vrk.xroad.catalog.collector.actors;
 
 import fi.vrk.xroad.catalog.collector.util.ClientTypeUtil;
+import fi.vrk.xroad.catalog.collector.util.CollectionDigestRegistry;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
 import fi.vrk.xroad.catalog.collector.util.Endpoint;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.util.MethodListUtil;
+import fi.vrk.xroad.catalog.collector.util.TargetConcurrencyLimiter;
 import fi.vrk.xroad.catalog.collector.util.XRoadClient;
 import fi.vrk.xroad.catalog.collector.util.XRoadRestServiceIdentifierType;
 import fi.vrk.xroad.catalog.persistence.CatalogService;
@@ -22,11 +27,14 @@ import fi.vrk.xroad.catalog.persistence.entity.ServiceId;
 import fi.vrk.xroad.catalog.persistence.entity.SubsystemId;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestOperations;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
@@ -57,6 +65,22 @@ public class FetchOpenApiActor extends XRoadCatalogActor {
     @Autowired
     protected CatalogService catalogService;
 
+    @Autowired
+    protected ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    @Qualifier("xroadRestOperations")
+    private RestOperations restOperations;
+
+    @Autowired
+    protected CollectionDigestRegistry collectionDigestRegistry;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
+    @Autowired
+    protected TargetConcurrencyLimiter targetConcurrencyLimiter;
+
     private XRoadClient xroadClient;
 
     @Override
@@ -69,19 +93,50 @@ public class FetchOpenApiActor extends XRoadCatalogActor {
     @Override
     protected boolean handleMessage(Object message) {
         if (message instanceof XRoadRestServiceIdentifierType) {
+            long runId = currentRunId();
             XRoadRestServiceIdentifierType service = (XRoadRestServiceIdentifierType) message;
             log.info("Fetching openApi [{}] {}", openApiCounter.addAndGet(1), ClientTypeUtil.toString(service));
-            String openApi = xroadClient.getOpenApi(service, xroadSecurityServerHost, xroadInstance, memberClass, memberCode, subsystemCode, catalogService);
-            catalogService.saveOpenApi(createSubsystemId(service), createServiceId(service), openApi);
+            measureOnCompletion(targetConcurrencyLimiter.submit(TargetConcurrencyLimiter.targetKey(service),
+                            () -> xroadClient.getOpenApi(service, xroadSecurityServerHost, xroadInstance, memberClass,
+                                    memberCode, subsystemCode, restOperations, errorLogWriter),
+                            // an empty result means fetching failed
+                            openApi -> !openApi.isEmpty(), httpExecutor())
+                    .thenAcceptAsync(openApi -> saveOpenApi(service, openApi), blockingIoExecutor()))
+                    .whenComplete((result, t) -> {
+                        if (t != null) {
+                            collectionDigestRegistry.invalidate(CollectionDigestRegistry.subsystemKey(service));
+                            log.error("Fetching openApi failed for {}", ClientTypeUtil.toString(service), t);
+                        }
+                        collectionRunCoordinator.workCompleted(runId, t == null);
+                    });
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void saveOpenApi(XRoadRestServiceIdentifierType service, String openApi) {
+        String digestKey = ClientTypeUtil.toString(service);
+        String digest = CollectionDigestRegistry.digest(openApi);
+        if (digest == null) {
+            // nothing was fetched, the descriptors of the subsystem are fetched again in the next run
+            collectionDigestRegistry.invalidate(CollectionDigestRegistry.subsystemKey(service));
+        }
+        if (collectionDigestRegistry.isUnchanged(digestKey, digest)) {
+            log.info("OpenApi unchanged, skipping");
+        } else {
+            CollectorMetrics.timeWrite("saveOpenApi",
+                    () -> catalogService.saveOpenApi(createSubsystemId(service), createServiceId(service), openApi));
             List<Endpoint> endpointList = MethodListUtil.getEndpointList(service);
-            catalogService.prepareEndpoints(createSubsystemId(service), createServiceId(service));
+            CollectorMetrics.timeWrite("prepareEndpoints",
+                    () -> catalogService.prepareEndpoints(createSubsystemId(service), createServiceId(service)));
             for (Endpoint endpoint: endpointList) {
-                catalogService.saveEndpoint(createSubsystemId(service), createServiceId(service), endpoint.getMethod(), endpoint.getPath());
+                CollectorMetrics.timeWrite("saveEndpoint",
+                        () -> catalogService.saveEndpoint(createSubsystemId(service), createServiceId(service),
+                            endpoint.getMethod(), endpoint.getPath()));
             }
+            collectionDigestRegistry.update(digestKey, digest);
             log.info("Saved openApi successfully");
-            return true;
-        } else {
-            return false;
         }
     }
 
@@ -12,24 +12,30 @@
  */
 package fi.vrk.xroad.catalog.collector.actors;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.util.OrganizationUtil;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
 import fi.vrk.xroad.catalog.persistence.OrganizationService;
 import fi.vrk.xroad.catalog.persistence.entity.*;
-import fi.vrk.xroad.catalog.persistence.CatalogService;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestOperations;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
 @Component
 @Scope("prototype")
@@ -45,8 +51,21 @@ public class FetchOrganizationsActor extends XRoadCatalogActor {
     @Value("${xroad-catalog.fetch-organizations-limit}")
     private Integer fetchOrganizationsLimit;
 
+    @Value("${xroad-catalog.fetch-organizations-concurrency}")
+    private Integer fetchOrganizationsConcurrency;
+
+    @Value("${xroad-catalog.fetch-organizations-requests-per-second}")
+    private Double fetchOrganizationsRequestsPerSecond;
+
+    @Autowired
+    protected ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
     @Autowired
-    protected CatalogService catalogService;
+    @Qualifier("organizationsRestOperations")
+    private RestOperations restOperations;
 
     @Autowired
     protected OrganizationService organizationService;
@@ -59,240 +78,261 @@ public class FetchOrganizationsActor extends XRoadCatalogActor {
     @Override
     protected boolean handleMessage(Object message) throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
         if (message instanceof ClientType) {
-            List<String> organizationIds = OrganizationUtil.getOrganizationIdsList((ClientType)message, fetchOrganizationsUrl,
-                    fetchOrganizationsLimit, catalogService);
-            int numberOfOrganizations = organizationIds.size();
-            log.info("Fetched {} organization GUIDs from {}", numberOfOrganizations, fetchOrganizationsUrl);
-
-            AtomicInteger elementCount = new AtomicInteger();
-            AtomicInteger batchCount = new AtomicInteger();
-            List<String> guidsList = new ArrayList<>();
-            organizationIds.forEach(id -> {
-                guidsList.add(id);
-                elementCount.getAndIncrement();
-                if (elementCount.get() % maxOrganizationsPerRequest == 0) {
-                    batchCount.getAndIncrement();
-                    saveBatch(OrganizationUtil.getDataByIds((ClientType) message, guidsList, fetchOrganizationsUrl, catalogService));
-                    guidsList.clear();
-                }
-                if (elementCount.get() == organizationIds.size()) {
-                    batchCount.getAndIncrement();
-                    saveBatch(OrganizationUtil.getDataByIds((ClientType) message, guidsList, fetchOrganizationsUrl, catalogService));
-                }
-            });
-            log.info("Saved data of {} organizations successfully", numberOfOrganizations);
-
+            long runId = currentRunId();
+            boolean success = false;
+            try {
+                ClientType clientType = (ClientType) message;
+                List<String> organizationIds = OrganizationUtil.getOrganizationIdsList(clientType, fetchOrganizationsUrl,
+                        fetchOrganizationsLimit, restOperations, errorLogWriter);
+                int numberOfOrganizations = organizationIds.size();
+                log.info("Fetched {} organization GUIDs from {}", numberOfOrganizations, fetchOrganizationsUrl);
+                fetchAndSaveBatches(clientType, Lists.partition(organizationIds, maxOrganizationsPerRequest));
+                log.info("Saved data of {} organizations successfully", numberOfOrganizations);
+                success = true;
+            } finally {
+                collectionRunCoordinator.workCompleted(runId, success);
+            }
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Fetches the organization batches with at most fetchOrganizationsConcurrency requests in flight, optionally
+     * throttled to fetchOrganizationsRequestsPerSecond. Batches are saved one at a time in fetch order, so
+     * saving a batch overlaps with downloading the following ones. A permit is held until the batch is saved,
+     * which also bounds the number of downloaded batches waiting to be saved. A concurrency below one is
+     * handled as one, as no batch could be fetched otherwise.
+     */
+    private void fetchAndSaveBatches(ClientType clientType, List<List<String>> batches) {
+        Semaphore permits = new Semaphore(Math.max(1, fetchOrganizationsConcurrency));
+        RateLimiter rateLimiter = fetchOrganizationsRequestsPerSecond > 0
+                ? RateLimiter.create(fetchOrganizationsRequestsPerSecond)
+                : null;
+        CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
+        for (List<String> batch : batches) {
+            permits.acquireUninterruptibly();
+            if (saved.isCompletedExceptionally()) {
+                permits.release();
+                break;
+            }
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            CompletableFuture<JSONArray> fetched = CompletableFuture.supplyAsync(() -> OrganizationUtil.getDataByIds(
+                    clientType, batch, fetchOrganizationsUrl, restOperations, errorLogWriter), httpExecutor());
+            saved = saved.thenCombineAsync(fetched, (previous, data) -> {
+                saveBatch(data);
+                return previous;
+            }, blockingIoExecutor());
+            saved.whenComplete((result, t) -> permits.release());
+        }
+        saved.join();
+    }
+
     private void saveBatch(JSONArray data) {
+        List<Organization> organizations = new ArrayList<>();
         for (int i = 0; i < data.length(); i++) {
-            Organization organization = OrganizationUtil.createOrganization(data.optJSONObject(i));
             JSONObject dataJson = data.optJSONObject(i);
-            Organization savedOrganization = organizationService.saveOrganization(organization);
-            saveOrganizationNames(dataJson, savedOrganization);
-            saveOrganizationDescriptions(dataJson, savedOrganization);
-            saveEmails(dataJson, savedOrganization);
-            savePhoneNumbers(dataJson, savedOrganization);
-            saveWebPages(dataJson, savedOrganization);
-            saveAddresses(dataJson, savedOrganization);
+            Organization organization = OrganizationUtil.createOrganization(dataJson);
+            addOrganizationNames(dataJson, organization);
+            addOrganizationDescriptions(dataJson, organization);
+            addEmails(dataJson, organization);
+            addPhoneNumbers(dataJson, organization);
+            addWebPages(dataJson, organization);
+            addAddresses(dataJson, organization);
+            organizations.add(organization);
+        }
+        if (!organizations.isEmpty()) {
+            organizationService.saveOrganizations(organizations);
         }
     }
 
-    private void saveOrganizationNames(JSONObject data, Organization savedOrganization) {
+    private void addOrganizationNames(JSONObject data, Organization organization) {
         List<OrganizationName> organizationNames = OrganizationUtil.createNames(data
                 .optJSONArray("organizationNames"));
         organizationNames.forEach(organizationName -> {
-            organizationName.setOrganization(savedOrganization);
-            organizationService.saveOrganizationName(organizationName);
+            organizationName.setOrganization(organization);
+            organization.getAllOrganizationNames().add(organizationName);
         });
     }
 
-    private void saveOrganizationDescriptions(JSONObject data, Organization savedOrganization) {
+    private void addOrganizationDescriptions(JSONObject data, Organization organization) {
         List<OrganizationDescription> organizationDescriptions = OrganizationUtil.createDescriptions(data
                 .optJSONArray("organizationDescriptions"));
         organizationDescriptions.forEach(organizationDescription -> {
-            organizationDescription.setOrganization(savedOrganization);
-            organizationService.saveOrganizationDescription(organizationDescription);
+            organizationDescription.setOrganization(organization);
+            organization.getAllOrganizationDescriptions().add(organizationDescription);
         });
     }
 
-    private void saveEmails(JSONObject data, Organization savedOrganization) {
+    private void addEmails(JSONObject data, Organization organization) {
         List<Email> emails = OrganizationUtil.createEmails(data.optJSONArray("emails"));
         emails.forEach(email -> {
-            email.setOrganization(savedOrganization);
-            organizationService.saveEmail(email);
+            email.setOrganization(organization);
+            organization.getAllEmails().add(email);
         });
     }
 
-    private void savePhoneNumbers(JSONObject data, Organization savedOrganization) {
+    private void addPhoneNumbers(JSONObject data, Organization organization) {
         List<PhoneNumber> phoneNumbers = OrganizationUtil.createPhoneNumbers(data.optJSONArray("phoneNumbers"));
         phoneNumbers.forEach(phone -> {
-            phone.setOrganization(savedOrganization);
-            organizationService.savePhoneNumber(phone);
+            phone.setOrganization(organization);
+            organization.getAllPhoneNumbers().add(phone);
         });
     }
 
-    private void saveWebPages(JSONObject data, Organization savedOrganization) {
+    private void addWebPages(JSONObject data, Organization organization) {
         List<WebPage> webPages = OrganizationUtil.createWebPages(data.optJSONArray("webPages"));
         webPages.forEach(webPage -> {
-            webPage.setOrganization(savedOrganization);
-            organizationService.saveWebPage(webPage);
+            webPage.setOrganization(organization);
+            organization.getAllWebPages().add(webPage);
         });
     }
 
-    private void saveAddresses(JSONObject data, Organization savedOrganization) {
-        List<Address> addresses = OrganizationUtil.createAddresses(data.optJSONArray("addresses"));
+    private void addAddresses(JSONObject data, Organization organization) {
         JSONArray addressesListJson = data.optJSONArray("addresses");
-        addresses.forEach(address -> {
-            address.setOrganization(savedOrganization);
-            Address savedAddress = organizationService.saveAddress(address);
-            saveAddressDetails(addressesListJson, savedAddress);
-        });
+        List<Address> addresses = OrganizationUtil.createAddresses(addressesListJson);
+        for (int j = 0; j < addresses.size(); j++) {
+            Address address = addresses.get(j);
+            address.setOrganization(organization);
+            addAddressDetails(addressesListJson.optJSONObject(j), address);
+            organization.getAllAddresses().add(address);
+        }
     }
 
-    private void saveAddressDetails(JSONArray addressesListJson, Address savedAddress) {
-        for (int j = 0; j < addressesListJson.length(); j++) {
-            if (addressesListJson.optJSONObject(j).optJSONObject("streetAddress") != null) {
-                JSONObject streetAddressJson = addressesListJson.optJSONObject(j).optJSONObject("streetAddress");
-                saveStreetAddress(streetAddressJson, savedAddress);
-            }
-
-            if (addressesListJson.optJSONObject(j).optJSONObject("postOfficeBoxStreetAddress") != null) {
-                JSONObject postOfficeBoxAddressJson = addressesListJson.optJSONObject(j)
-                        .optJSONObject("postOfficeBoxStreetAddress");
-                savePostOfficeBoxAddress(postOfficeBoxAddressJson, savedAddress);
-            }
+    private void addAddressDetails(JSONObject addressJson, Address address) {
+        if (addressJson.optJSONObject("streetAddress") != null) {
+            addStreetAddress(addressJson.optJSONObject("streetAddress"), address);
+        }
+        if (addressJson.optJSONObject("postOfficeBoxStreetAddress") != null) {
+            addPostOfficeBoxAddress(addressJson.optJSONObject("postOfficeBoxStreetAddress"), address);
         }
     }
 
-    private void saveStreetAddress(JSONObject streetAddressJson, Address savedAddress) {
+    private void addStreetAddress(JSONObject streetAddressJson, Address address) {
         StreetAddress streetAddress = OrganizationUtil.createStreetAddress(streetAddressJson);
-        streetAddress.setAddress(savedAddress);
-        StreetAddress savedStreetAddress = organizationService.saveStreetAddress(streetAddress);
-        saveStreetAddressMunicipality(streetAddressJson.optJSONObject("municipality"), savedStreetAddress);
-        saveStreetAddressAdditionalInformation(streetAddressJson.optJSONArray("additionalInformation"), savedStreetAddress);
-        saveStreetAddressPostOffice(streetAddressJson.optJSONArray("postOffice"), savedStreetAddress);
-        saveStreetAddressStreet(streetAddressJson.optJSONArray("street"), savedStreetAddress);
+        streetAddress.setAddress(address);
+        addStreetAddressMunicipality(streetAddressJson.optJSONObject("municipality"), streetAddress);
+        addStreetAddressAdditionalInformation(streetAddressJson.optJSONArray("additionalInformation"), streetAddress);
+        addStreetAddressPostOffice(streetAddressJson.optJSONArray("postOffice"), streetAddress);
+        addStreetAddressStreet(streetAddressJson.optJSONArray("street"), streetAddress);
+        address.getAllStreetAddresses().add(streetAddress);
     }
 
-    private void saveStreetAddressMunicipality(JSONObject municipalityJson, StreetAddress savedStreetAddress) {
+    private void addStreetAddressMunicipality(JSONObject municipalityJson, StreetAddress streetAddress) {
         if (municipalityJson != null) {
             StreetAddressMunicipality streetAddressMunicipality = OrganizationUtil
                     .createStreetAddressMunicipality(municipalityJson);
-            streetAddressMunicipality.setStreetAddress(savedStreetAddress);
-            StreetAddressMunicipality savedStreetAddressMunicipality = organizationService
-                    .saveStreetAddressMunicipality(streetAddressMunicipality);
+            streetAddressMunicipality.setStreetAddress(streetAddress);
 
             if (municipalityJson.optJSONArray("name") != null) {
                 JSONArray streetAddressMunicipalityNamesJson = municipalityJson.optJSONArray("name");
                 List<StreetAddressMunicipalityName> streetAddressMunicipalityNames = OrganizationUtil
                         .createStreetAddressMunicipalityNames(streetAddressMunicipalityNamesJson);
                 streetAddressMunicipalityNames.forEach(municipalityName -> {
-                    municipalityName.setStreetAddressMunicipality(savedStreetAddressMunicipality);
-                    organizationService.saveStreetAddressMunicipalityName(municipalityName);
+                    municipalityName.setStreetAddressMunicipality(streetAddressMunicipality);
+                    streetAddressMunicipality.getAllMunicipalityNames().add(municipalityName);
                 });
             }
+            streetAddress.getAllMunicipalities().add(streetAddressMunicipality);
         }
     }
 
-    private void saveStreetAddressAdditionalInformation(JSONArray additionalInformationJson, StreetAddress savedStreetAddress) {
+    private void addStreetAddressAdditionalInformation(JSONArray additionalInformationJson, StreetAddress streetAddress) {
         if (additionalInformationJson != null) {
             List<StreetAddressAdditionalInformation> streetAddressAdditionalInformationList = OrganizationUtil
                     .createStreetAddressAdditionalInformation(additionalInformationJson);
             streetAddressAdditionalInformationList.forEach(additionalInfo -> {
-                additionalInfo.setStreetAddress(savedStreetAddress);
-                organizationService.saveStreetAddressAdditionalInformation(additionalInfo);
+                additionalInfo.setStreetAddress(streetAddress);
+                streetAddress.getAllAdditionalInformation().add(additionalInfo);
             });
         }
     }
 
-    private void saveStreetAddressPostOffice(JSONArray postOfficeJson, StreetAddress savedStreetAddress) {
-        if (postOfficeJson!= null) {
+    private void addStreetAddressPostOffice(JSONArray postOfficeJson, StreetAddress streetAddress) {
+        if (postOfficeJson != null) {
             List<StreetAddressPostOffice> streetAddressPostOfficeList = OrganizationUtil
                     .createStreetAddressPostOffices(postOfficeJson);
             streetAddressPostOfficeList.forEach(postOffice -> {
-                postOffice.setStreetAddress(savedStreetAddress);
-                organizationService.saveStreetAddressPostOffice(postOffice);
+                postOffice.setStreetAddress(streetAddress);
+                streetAddress.getAllPostOffices().add(postOffice);
             });
         }
     }
 
-    private void saveStreetAddressStreet(JSONArray streetJson, StreetAddress savedStreetAddress) {
+    private void addStreetAddressStreet(JSONArray streetJson, StreetAddress streetAddress) {
         if (streetJson != null) {
             List<Street> streetList = OrganizationUtil.createStreets(streetJson);
             streetList.forEach(street -> {
-                street.setStreetAddress(savedStreetAddress);
-                organizationService.saveStreet(street);
+                street.setStreetAddress(streetAddress);
+                streetAddress.getAllStreets().add(street);
             });
         }
     }
 
-    private void savePostOfficeBoxAddress(JSONObject postOfficeBoxAddressJson, Address savedAddress) {
+    private void addPostOfficeBoxAddress(JSONObject postOfficeBoxAddressJson, Address address) {
         PostOfficeBoxAddress postOfficeBoxAddress = OrganizationUtil.createPostOfficeBoxAddress(postOfficeBoxAddressJson);
-        postOfficeBoxAddress.setAddress(savedAddress);
-        PostOfficeBoxAddress savedPostOfficeBoxAddress = organizationService.savePostOfficeBoxAddress(postOfficeBoxAddress);
-
-        savePostOfficeBoxAddressAdditionalInformation(postOfficeBoxAddressJson.optJSONArray("additionalInformation"),
-                savedPostOfficeBoxAddress);
-        savePostOffice(postOfficeBoxAddressJson.optJSONArray("postOffice"), savedPostOfficeBoxAddress);
-        savePostOfficeBoxAddressMunicipality(postOfficeBoxAddressJson.optJSONObject("municipality"), savedPostOfficeBoxAddress);
-        savePostOfficeBox(postOfficeBoxAddressJson.optJSONArray("postOfficeBox"), savedPostOfficeBoxAddress);
+        postOfficeBoxAddress.setAddress(address);
+
+        addPostOfficeBoxAddressAdditionalInformation(postOfficeBoxAddressJson.optJSONArray("additionalInformation"),
+                postOfficeBoxAddress);
+        addPostOffice(postOfficeBoxAddressJson.optJSONArray("postOffice"), postOfficeBoxAddress);
+        addPostOfficeBoxAddressMunicipality(postOfficeBoxAddressJson.optJSONObject("municipality"), postOfficeBoxAddress);
+        addPostOfficeBox(postOfficeBoxAddressJson.optJSONArray("postOfficeBox"), postOfficeBoxAddress);
+        address.getAllPostOfficeBoxAddresses().add(postOfficeBoxAddress);
     }
 
-    private void savePostOfficeBoxAddressAdditionalInformation(JSONArray additionalInformationJson,
-                                                               PostOfficeBoxAddress savedPostOfficeBoxAddress) {
+    private void addPostOfficeBoxAddressAdditionalInformation(JSONArray additionalInformationJson,
+                                                              PostOfficeBoxAddress postOfficeBoxAddress) {
         if (additionalInformationJson != null) {
             List<PostOfficeBoxAddressAdditionalInformation> postOfficeBoxAddressAdditionalInformationList
                     = OrganizationUtil.createPostOfficeBoxAddressAdditionalInformation(additionalInformationJson);
             postOfficeBoxAddressAdditionalInformationList.forEach(additionalInfo -> {
-                additionalInfo.setPostOfficeBoxAddress(savedPostOfficeBoxAddress);
-                organizationService.savePostOfficeBoxAddressAdditionalInformation(additionalInfo);
+                additionalInfo.setPostOfficeBoxAddress(postOfficeBoxAddress);
+                postOfficeBoxAddress.getAllAdditionalInformation().add(additionalInfo);
             });
         }
     }
 
-    private void savePostOffice(JSONArray postOfficeJson, PostOfficeBoxAddress savedPostOfficeBoxAddress) {
+    private void addPostOffice(JSONArray postOfficeJson, PostOfficeBoxAddress postOfficeBoxAddress) {
         if (postOfficeJson != null) {
             List<PostOffice> postOfficeList = OrganizationUtil.createPostOffice(postOfficeJson);
             postOfficeList.forEach(postOffice -> {
-                postOffice.setPostOfficeBoxAddress(savedPostOfficeBoxAddress);
-                organizationService.savePostOffice(postOffice);
+                postOffice.setPostOfficeBoxAddress(postOfficeBoxAddress);
+                postOfficeBoxAddress.getAllPostOffices().add(postOffice);
             });
         }
     }
 
-    private void savePostOfficeBoxAddressMunicipality(JSONObject municipalityJson,
-                                                      PostOfficeBoxAddress savedPostOfficeBoxAddress) {
-        if (municipalityJson!= null) {
+    private void addPostOfficeBoxAddressMunicipality(JSONObject municipalityJson,
+                                                     PostOfficeBoxAddress postOfficeBoxAddress) {
+        if (municipalityJson != null) {
             PostOfficeBoxAddressMunicipality postOfficeBoxAddressMunicipality = OrganizationUtil
                     .createPostOfficeBoxAddressMunicipality(municipalityJson);
-            postOfficeBoxAddressMunicipality.setPostOfficeBoxAddress(savedPostOfficeBoxAddress);
-            PostOfficeBoxAddressMunicipality savedPostOfficeBoxAddressMunicipality = organizationService
-                    .savePostOfficeBoxAddressMunicipality(postOfficeBoxAddressMunicipality);
+            postOfficeBoxAddressMunicipality.setPostOfficeBoxAddress(postOfficeBoxAddress);
 
             if (municipalityJson.optJSONArray("name") != null) {
                 JSONArray postOfficeBoxAddressMunicipalityNamesJson = municipalityJson.optJSONArray("name");
                 List<PostOfficeBoxAddressMunicipalityName> postOfficeBoxAddressMunicipalityNames = OrganizationUtil
                         .createPostOfficeBoxAddressMunicipalityNames(postOfficeBoxAddressMunicipalityNamesJson);
                 postOfficeBoxAddressMunicipalityNames.forEach(municipalityName -> {
-                    municipalityName.setPostOfficeBoxAddressMunicipality(savedPostOfficeBoxAddressMunicipality);
-                    organizationService.savePostOfficeBoxAddressMunicipalityName(municipalityName);
+                    municipalityName.setPostOfficeBoxAddressMunicipality(postOfficeBoxAddressMunicipality);
+                    postOfficeBoxAddressMunicipality.getAllMunicipalityNames().add(municipalityName);
                 });
             }
+            postOfficeBoxAddress.getAllMunicipalities().add(postOfficeBoxAddressMunicipality);
         }
     }
 
-    private void savePostOfficeBox(JSONArray postOfficeBoxJson, PostOfficeBoxAddress savedPostOfficeBoxAddress) {
+    private void addPostOfficeBox(JSONArray postOfficeBoxJson, PostOfficeBoxAddress postOfficeBoxAddress) {
         if (postOfficeBoxJson != null) {
             List<PostOfficeBox> postOfficeBoxList = OrganizationUtil
                     .createPostOfficeBoxes(postOfficeBoxJson);
             postOfficeBoxList.forEach(postOfficeBox -> {
-                postOfficeBox.setPostOfficeBoxAddress(savedPostOfficeBoxAddress);
-                organizationService.savePostOfficeBox(postOfficeBox);
+                postOfficeBox.setPostOfficeBoxAddress(postOfficeBoxAddress);
+                postOfficeBoxAddress.getAllPostOfficeBoxes().add(postOfficeBox);
             });
         }
     }
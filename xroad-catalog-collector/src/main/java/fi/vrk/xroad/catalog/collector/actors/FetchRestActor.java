@@ -13,6 +13,9 @@
 package fi.vrk.xroad.catalog.collector.actors;
 
 import fi.vrk.xroad.catalog.collector.util.ClientTypeUtil;
+import fi.vrk.xroad.catalog.collector.util.CollectionDigestRegistry;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
 import fi.vrk.xroad.catalog.collector.util.Endpoint;
 import fi.vrk.xroad.catalog.collector.util.MethodListUtil;
 import fi.vrk.xroad.catalog.collector.util.XRoadRestServiceIdentifierType;
@@ -27,6 +30,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
@@ -61,32 +65,54 @@ public class FetchRestActor extends XRoadCatalogActor {
     @Autowired
     protected CatalogService catalogService;
 
+    @Autowired
+    protected CollectionDigestRegistry collectionDigestRegistry;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
     @Override
     protected boolean handleMessage(Object message) {
         if (message instanceof XRoadRestServiceIdentifierType) {
+            long runId = currentRunId();
             XRoadRestServiceIdentifierType service = (XRoadRestServiceIdentifierType) message;
             log.info("Fetching rest [{}] {}", restCounter.addAndGet(1), ClientTypeUtil.toString(service));
-            List<fi.vrk.xroad.catalog.collector.util.Endpoint> endpointList = MethodListUtil.getEndpointList(service);
-            String endpointData = "{\"endpoint_data\":";
-            JSONArray endPointsJSONArray = new JSONArray();
-            JSONObject endpointJson;
-            catalogService.prepareEndpoints(createSubsystemId(service), createServiceId(service));
-            for (Endpoint endpoint: endpointList) {
-                endpointJson = new JSONObject();
-                endpointJson.put(METHOD, endpoint.getMethod());
-                endpointJson.put(PATH, endpoint.getPath());
-                endPointsJSONArray.put(endpointJson);
-                catalogService.saveEndpoint(createSubsystemId(service), createServiceId(service), endpoint.getMethod(), endpoint.getPath());
-            }
-            endpointData += endPointsJSONArray + "}";
-            catalogService.saveRest(createSubsystemId(service), createServiceId(service), endpointData);
-            log.info("Saved rest successfully");
+            measureOnCompletion(CompletableFuture.runAsync(() -> saveRest(service), blockingIoExecutor()))
+                    .whenComplete((result, t) -> {
+                        if (t != null) {
+                            collectionDigestRegistry.invalidate(CollectionDigestRegistry.subsystemKey(service));
+                            log.error("Saving rest failed for {}", ClientTypeUtil.toString(service), t);
+                        }
+                        collectionRunCoordinator.workCompleted(runId, t == null);
+                    });
             return true;
         } else {
             return false;
         }
     }
 
+    private void saveRest(XRoadRestServiceIdentifierType service) {
+        List<Endpoint> endpointList = MethodListUtil.getEndpointList(service);
+        String endpointData = "{\"endpoint_data\":";
+        JSONArray endPointsJSONArray = new JSONArray();
+        JSONObject endpointJson;
+        CollectorMetrics.timeWrite("prepareEndpoints",
+                () -> catalogService.prepareEndpoints(createSubsystemId(service), createServiceId(service)));
+        for (Endpoint endpoint: endpointList) {
+            endpointJson = new JSONObject();
+            endpointJson.put(METHOD, endpoint.getMethod());
+            endpointJson.put(PATH, endpoint.getPath());
+            endPointsJSONArray.put(endpointJson);
+            CollectorMetrics.timeWrite("saveEndpoint",
+                    () -> catalogService.saveEndpoint(createSubsystemId(service), createServiceId(service),
+                            endpoint.getMethod(), endpoint.getPath()));
+        }
+        String restData = endpointData + endPointsJSONArray + "}";
+        CollectorMetrics.timeWrite("saveRest",
+                () -> catalogService.saveRest(createSubsystemId(service), createServiceId(service), restData));
+        log.info("Saved rest successfully");
+    }
+
     private ServiceId createServiceId(XRoadRestServiceIdentifierType service) {
         return new ServiceId(service.getServiceCode(),
                 service.getServiceVersion());
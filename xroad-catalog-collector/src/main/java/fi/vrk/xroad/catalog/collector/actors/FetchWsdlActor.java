@@ -13,6 +13,11 @@
 package fi.vrk.xroad.catalog.collector.actors;
 
 import fi.vrk.xroad.catalog.collector.util.ClientTypeUtil;
+import fi.vrk.xroad.catalog.collector.util.CollectionDigestRegistry;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
+import fi.vrk.xroad.catalog.collector.util.TargetConcurrencyLimiter;
 import fi.vrk.xroad.catalog.collector.util.XRoadClient;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadServiceIdentifierType;
 import fi.vrk.xroad.catalog.persistence.CatalogService;
@@ -24,6 +29,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
@@ -51,6 +57,18 @@ public class FetchWsdlActor extends XRoadCatalogActor {
     @Autowired
     protected CatalogService catalogService;
 
+    @Autowired
+    protected ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    protected CollectionDigestRegistry collectionDigestRegistry;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
+    @Autowired
+    protected TargetConcurrencyLimiter targetConcurrencyLimiter;
+
     private XRoadClient xroadClient;
 
     @Override
@@ -63,17 +81,42 @@ public class FetchWsdlActor extends XRoadCatalogActor {
     @Override
     protected boolean handleMessage(Object message) {
         if (message instanceof XRoadServiceIdentifierType) {
+            long runId = currentRunId();
             XRoadServiceIdentifierType service = (XRoadServiceIdentifierType) message;
             log.info("Fetching wsdl [{}] {}", wsdlCounter.addAndGet(1), ClientTypeUtil.toString(service));
-            String wsdl = xroadClient.getWsdl(service, catalogService);
-            catalogService.saveWsdl(createSubsystemId(service), createServiceId(service), wsdl);
-            log.info("Saved wsdl successfully");
+            measureOnCompletion(targetConcurrencyLimiter.submit(TargetConcurrencyLimiter.targetKey(service),
+                            () -> xroadClient.getWsdl(service, errorLogWriter), httpExecutor())
+                    .thenAcceptAsync(wsdl -> saveWsdl(service, wsdl), blockingIoExecutor()))
+                    .whenComplete((result, t) -> {
+                        if (t != null) {
+                            collectionDigestRegistry.invalidate(CollectionDigestRegistry.subsystemKey(service));
+                            log.error("Fetching wsdl failed for {}", ClientTypeUtil.toString(service), t);
+                        }
+                        collectionRunCoordinator.workCompleted(runId, t == null);
+                    });
             return true;
         } else {
             return false;
         }
     }
 
+    private void saveWsdl(XRoadServiceIdentifierType service, String wsdl) {
+        String digestKey = ClientTypeUtil.toString(service);
+        String digest = CollectionDigestRegistry.digest(wsdl);
+        if (digest == null) {
+            // nothing was fetched, the descriptors of the subsystem are fetched again in the next run
+            collectionDigestRegistry.invalidate(CollectionDigestRegistry.subsystemKey(service));
+        }
+        if (collectionDigestRegistry.isUnchanged(digestKey, digest)) {
+            log.info("Wsdl unchanged, skipping");
+            return;
+        }
+        CollectorMetrics.timeWrite("saveWsdl",
+                () -> catalogService.saveWsdl(createSubsystemId(service), createServiceId(service), wsdl));
+        collectionDigestRegistry.update(digestKey, digest);
+        log.info("Saved wsdl successfully");
+    }
+
     private ServiceId createServiceId(XRoadServiceIdentifierType service) {
         return new ServiceId(service.getServiceCode(),
                 service.getServiceVersion());
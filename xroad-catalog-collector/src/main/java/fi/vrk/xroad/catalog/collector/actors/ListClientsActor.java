@@ -15,6 +15,11 @@ package fi.vrk.xroad.catalog.collector.actors;
 import akka.actor.ActorRef;
 import fi.vrk.xroad.catalog.collector.util.ClientTypeUtil;
 import fi.vrk.xroad.catalog.collector.util.ClientListUtil;
+import fi.vrk.xroad.catalog.collector.util.CollectionDigestRegistry;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectionWork;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientList;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadObjectType;
@@ -51,6 +56,15 @@ public class ListClientsActor extends XRoadCatalogActor {
     @Autowired
     protected CatalogService catalogService;
 
+    @Autowired
+    protected ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    protected CollectionDigestRegistry collectionDigestRegistry;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
     @Value("${xroad-catalog.list-clients-host}")
     private String host;
 
@@ -91,18 +105,31 @@ public class ListClientsActor extends XRoadCatalogActor {
     }
 
     private boolean fetchClients(){
-        String listClientsUrl = host + "/listClients";
-
-        log.info("Getting client list from {}", listClientsUrl);
-        ClientList clientList = ClientListUtil.clientListFromResponse(listClientsUrl, catalogService);
-        HashMap<MemberId, Member> m = populateMapWithMembers(clientList);
-        catalogService.saveAllMembersAndSubsystems(m.values());
-
-        for (ClientType clientType : clientList.getMember()) {
-            listMethodsPoolRef.tell(clientType, getSelf());
+        long runId = collectionRunCoordinator.tryStartRun();
+        if (runId == CollectionRunCoordinator.NO_RUN) {
+            return true;
         }
+        boolean success = false;
+        try {
+            String listClientsUrl = host + "/listClients";
+            collectionDigestRegistry.startCollection();
+
+            log.info("Getting client list from {}", listClientsUrl);
+            ClientList clientList = ClientListUtil.clientListFromResponse(listClientsUrl, restOperations, errorLogWriter);
+            HashMap<MemberId, Member> m = populateMapWithMembers(clientList);
+            CollectorMetrics.timeWrite("saveAllMembersAndSubsystems",
+                    () -> catalogService.saveAllMembersAndSubsystems(m.values()));
+
+            for (ClientType clientType : clientList.getMember()) {
+                listMethodsPoolRef.tell(new CollectionWork(collectionRunCoordinator.workScheduled(runId), clientType),
+                        getSelf());
+            }
 
-        log.info("all clients (" + (clientCounter.get() - 1) + ") sent to actor");
+            log.info("all clients (" + (clientCounter.get() - 1) + ") sent to actor");
+            success = true;
+        } finally {
+            collectionRunCoordinator.workCompleted(runId, success);
+        }
 
         return true;
     }
@@ -13,7 +13,13 @@
 package fi.vrk.xroad.catalog.collector.actors;
 
 import fi.vrk.xroad.catalog.collector.util.ClientTypeUtil;
+import fi.vrk.xroad.catalog.collector.util.CollectionDigestRegistry;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectionWork;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.util.MethodListUtil;
+import fi.vrk.xroad.catalog.collector.util.TargetConcurrencyLimiter;
 import fi.vrk.xroad.catalog.collector.util.XRoadClient;
 import fi.vrk.xroad.catalog.collector.util.XRoadRestServiceIdentifierType;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
@@ -26,12 +32,15 @@ import fi.vrk.xroad.catalog.persistence.entity.Subsystem;
 import akka.actor.ActorRef;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestOperations;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
@@ -84,6 +93,22 @@ public class OrganizationsActor extends XRoadCatalogActor {
     @Autowired
     protected CatalogService catalogService;
 
+    @Autowired
+    protected ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    @Qualifier("xroadRestOperations")
+    private RestOperations restOperations;
+
+    @Autowired
+    protected CollectionDigestRegistry collectionDigestRegistry;
+
+    @Autowired
+    protected CollectionRunCoordinator collectionRunCoordinator;
+
+    @Autowired
+    protected TargetConcurrencyLimiter targetConcurrencyLimiter;
+
     // supervisor-created pool of list methods actors
     private ActorRef fetchWsdlPoolRef;
     private ActorRef fetchOpenApiPoolRef;
@@ -117,11 +142,14 @@ public class OrganizationsActor extends XRoadCatalogActor {
         if (message instanceof ClientType) {
             log.info("{} onReceive {}", methodCounter.addAndGet(1), this.hashCode());
             ClientType clientType = (ClientType) message;
-            fetchOrganizations(clientType);
-            fetchCompanies(clientType);
+            long runId = currentRunId();
+            fetchOrganizations(clientType, runId);
+            fetchCompanies(clientType, runId);
             flushErrorLogs();
             if (XRoadObjectType.SUBSYSTEM.equals(clientType.getId().getObjectType())) {
-                saveSubsystemsAndServices(clientType);
+                fetchSubsystemsAndServices(clientType, runId);
+            } else {
+                collectionRunCoordinator.workCompleted(runId, true);
             }
             return true;
         } else {
@@ -129,38 +157,79 @@ public class OrganizationsActor extends XRoadCatalogActor {
         }
     }
 
-    private void fetchOrganizations(ClientType clientType) {
+    private void fetchOrganizations(ClientType clientType, long runId) {
         if (Boolean.FALSE.equals(organizationsFetched)) {
-            fetchOrganizationsPoolRef.tell(clientType, getSelf());
+            fetchOrganizationsPoolRef.tell(new CollectionWork(collectionRunCoordinator.workScheduled(runId), clientType),
+                    getSelf());
             organizationsFetched = true;
         }
     }
 
-    private void fetchCompanies(ClientType clientType) {
+    private void fetchCompanies(ClientType clientType, long runId) {
         if (MethodListUtil.shouldFetchCompanies(fetchCompaniesUnlimited, fetchCompaniesTimeAfterHour, fetchCompaniesTimeBeforeHour)) {
-            fetchCompaniesPoolRef.tell(clientType, getSelf());
+            fetchCompaniesPoolRef.tell(new CollectionWork(collectionRunCoordinator.workScheduled(runId), clientType),
+                    getSelf());
         }
     }
 
     private void flushErrorLogs() {
         if (MethodListUtil.shouldFlushLogEntries(flushLogTimeAfterHour, flushLogTimeBeforeHour)) {
-            catalogService.deleteOldErrorLogEntries(errorLogLengthInDays);
+            CompletableFuture.runAsync(() -> CollectorMetrics.timeWrite("deleteOldErrorLogEntries",
+                    () -> catalogService.deleteOldErrorLogEntries(errorLogLengthInDays)), blockingIoExecutor());
         }
     }
 
-    private void saveSubsystemsAndServices(ClientType clientType) {
+    private void fetchSubsystemsAndServices(ClientType clientType, long runId) {
+        final ActorRef sender = getSender();
+        final String targetKey = TargetConcurrencyLimiter.targetKey(clientType.getId());
+        CompletableFuture<List<XRoadRestServiceIdentifierType>> restServices = targetConcurrencyLimiter.submit(targetKey, () -> {
+            List<XRoadRestServiceIdentifierType> services = MethodListUtil.methodListFromResponse(clientType,
+                    xroadSecurityServerHost, xroadInstance, memberClass, memberCode, subsystemCode, restOperations,
+                    errorLogWriter);
+            log.info("Received all REST methods for client {} ", ClientTypeUtil.toString(clientType));
+            return services;
+        }, httpExecutor()).thenApply(OrganizationsActor::emptyIfFailed);
+        CompletableFuture<List<XRoadServiceIdentifierType>> soapServices = targetConcurrencyLimiter.submit(targetKey, () -> {
+            List<XRoadServiceIdentifierType> services = xroadClient.getMethods(clientType.getId(), errorLogWriter);
+            log.info("Received all SOAP methods for client {} ", ClientTypeUtil.toString(clientType));
+            return services;
+        }, httpExecutor()).thenApply(OrganizationsActor::emptyIfFailed);
+        measureOnCompletion(restServices.thenAcceptBothAsync(soapServices,
+                        (rest, soap) -> saveSubsystemsAndServices(clientType, rest, soap, sender, runId),
+                        blockingIoExecutor()))
+                .whenComplete((result, t) -> {
+                    if (t != null) {
+                        log.error("Fetching methods failed for client {}", ClientTypeUtil.toString(clientType), t);
+                    }
+                    collectionRunCoordinator.workCompleted(runId, t == null);
+                });
+    }
+
+    /**
+     * A method list that could not be fetched is null, so that the target limiter counts the call
+     * as a failure. It is handled as an empty list.
+     */
+    private static <T> List<T> emptyIfFailed(List<T> services) {
+        return services != null ? services : new ArrayList<>();
+    }
+
+    private void saveSubsystemsAndServices(ClientType clientType,
+                                           List<XRoadRestServiceIdentifierType> restServices,
+                                           List<XRoadServiceIdentifierType> soapServices,
+                                           ActorRef sender,
+                                           long runId) {
         Subsystem subsystem = new Subsystem(
                 new Member(clientType.getId().getXRoadInstance(), clientType.getId().getMemberClass(),
                         clientType.getId().getMemberCode(), clientType.getName()),
                 clientType.getId().getSubsystemCode());
         log.info("{} Handling subsystem {} ", methodCounter, subsystem);
 
-        List<XRoadRestServiceIdentifierType> restServices = MethodListUtil.methodListFromResponse(clientType,
-                xroadSecurityServerHost, xroadInstance, memberClass, memberCode, subsystemCode, catalogService);
-        log.info("Received all REST methods for client {} ", ClientTypeUtil.toString(clientType));
-
-        List<XRoadServiceIdentifierType> soapServices = xroadClient.getMethods(clientType.getId(), catalogService);
-        log.info("Received all SOAP methods for client {} ", ClientTypeUtil.toString(clientType));
+        String digestKey = CollectionDigestRegistry.subsystemKey(clientType.getId());
+        String digest = MethodListUtil.methodListDigest(restServices, soapServices);
+        if (collectionDigestRegistry.isUnchanged(digestKey, digest)) {
+            log.info("Methods of client {} unchanged, skipping", ClientTypeUtil.toString(clientType));
+            return;
+        }
 
         List<Service> services = new ArrayList<>();
         for (XRoadRestServiceIdentifierType service : restServices) {
@@ -170,17 +239,20 @@ public class OrganizationsActor extends XRoadCatalogActor {
             services.add(new Service(subsystem, service.getServiceCode(), service.getServiceVersion()));
         }
 
-        catalogService.saveServices(subsystem.createKey(), services);
+        CollectorMetrics.timeWrite("saveServices", () -> catalogService.saveServices(subsystem.createKey(), services));
+        // invalidated again by the fetch actors if fetching any of the descriptors fails
+        collectionDigestRegistry.update(digestKey, digest);
 
         for (XRoadServiceIdentifierType service : soapServices) {
-            fetchWsdlPoolRef.tell(service, getSender());
+            fetchWsdlPoolRef.tell(new CollectionWork(collectionRunCoordinator.workScheduled(runId), service), sender);
         }
 
         for (XRoadRestServiceIdentifierType service : restServices) {
+            CollectionWork work = new CollectionWork(collectionRunCoordinator.workScheduled(runId), service);
             if (service.getServiceType().equalsIgnoreCase(SERVICE_TYPE_REST)) {
-                fetchRestPoolRef.tell(service, getSender());
+                fetchRestPoolRef.tell(work, sender);
             } else {
-                fetchOpenApiPoolRef.tell(service, getSender());
+                fetchOpenApiPoolRef.tell(work, sender);
             }
         }
     }
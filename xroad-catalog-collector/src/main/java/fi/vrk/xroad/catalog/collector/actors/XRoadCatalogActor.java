@@ -14,28 +14,104 @@ package fi.vrk.xroad.catalog.collector.actors;
 
 import akka.actor.UntypedAbstractActor;
 import fi.vrk.xroad.catalog.collector.util.CatalogCollectorRuntimeException;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectionWork;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
 import akka.actor.Terminated;
 import lombok.extern.slf4j.Slf4j;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Slf4j
 public abstract class XRoadCatalogActor extends UntypedAbstractActor {
 
     public static final String START_COLLECTING = "StartCollecting";
 
+    public static final String HTTP_DISPATCHER = "xroad-catalog.http-dispatcher";
+
+    public static final String BLOCKING_IO_DISPATCHER = "xroad-catalog.blocking-io-dispatcher";
+
+    private long currentRunId = CollectionRunCoordinator.NO_RUN;
+
+    private long messageStartTime;
+
+    private boolean measuredOnCompletion;
+
     protected abstract boolean handleMessage(Object message) throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException;
 
+    /**
+     * @return id of the collection run the message being handled belongs to,
+     * {@link CollectionRunCoordinator#NO_RUN} if it was not sent as {@link CollectionWork}
+     */
+    protected long currentRunId() {
+        return currentRunId;
+    }
+
+    /**
+     * @return executor for outbound http and SOAP calls
+     */
+    protected Executor httpExecutor() {
+        return getContext().getSystem().dispatchers().lookup(HTTP_DISPATCHER);
+    }
+
+    /**
+     * @return executor for blocking database operations
+     */
+    protected Executor blockingIoExecutor() {
+        return getContext().getSystem().dispatchers().lookup(BLOCKING_IO_DISPATCHER);
+    }
+
+    /**
+     * Measures the message being handled when the given work completes instead of when
+     * {@link #handleMessage(Object)} returns, for actors that continue the work asynchronously
+     * @param work the asynchronous work started for the message
+     * @return future completed with the work after the message has been measured
+     */
+    protected <T> CompletableFuture<T> measureOnCompletion(CompletableFuture<T> work) {
+        measuredOnCompletion = true;
+        String actor = getClass().getSimpleName();
+        long start = messageStartTime;
+        return work.whenComplete((result, t) ->
+                CollectorMetrics.recordActorMessage(actor, System.nanoTime() - start, t == null));
+    }
+
+    private boolean handleMeasuredMessage(Object message) throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        messageStartTime = System.nanoTime();
+        measuredOnCompletion = false;
+        boolean success = false;
+        try {
+            boolean handled = handleMessage(message);
+            success = true;
+            return handled;
+        } finally {
+            if (!success || !measuredOnCompletion) {
+                CollectorMetrics.recordActorMessage(getClass().getSimpleName(), System.nanoTime() - messageStartTime, success);
+            }
+        }
+    }
+
     @Override
-    public void onReceive(Object message) throws Exception {
+    public void onReceive(Object received) throws Exception {
         log.info("{} handleXRoadCatalogMessage {}", this.hashCode());
-        if (handleMessage(message)) {
+        Object message = received;
+        if (received instanceof CollectionWork) {
+            CollectionWork work = (CollectionWork) received;
+            CollectorMetrics.recordActorQueueTime(getClass().getSimpleName(), System.nanoTime() - work.getEnqueuedNanos());
+            currentRunId = work.getRunId();
+            message = work.getItem();
+        } else {
+            currentRunId = CollectionRunCoordinator.NO_RUN;
+        }
+        if (handleMeasuredMessage(message)) {
             return;
         } else if (message instanceof Terminated) {
             throw new CatalogCollectorRuntimeException("Terminated: " + message);
         } else {
             log.error("Unable to handle message {}", message);
+            CollectorMetrics.countUnhandledMessage(getClass().getSimpleName());
             throw new CatalogCollectorRuntimeException("Unable to handle message");
         }
     }
@@ -17,6 +17,17 @@ import akka.actor.ActorSystem;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
@@ -26,15 +37,22 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.ImportResource;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
+import javax.net.ssl.SSLContext;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @Lazy
 @ComponentScan(basePackages = {
         "fi.vrk.xroad.catalog.collector.actors",
         "fi.vrk.xroad.catalog.collector.extension",
+        "fi.vrk.xroad.catalog.collector.util",
         "fi.vrk.xroad.catalog"
         + ".persistence" })
 @ImportResource({ "classpath:META-INF/cxf/cxf.xml" })
@@ -44,6 +62,21 @@ public class ApplicationConfiguration extends SpringBootServletInitializer {
     @Value("${xroad-catalog.collector-interval-min}")
     private Long collectorInterval;
 
+    @Value("${xroad-catalog.http-max-connections-total}")
+    private Integer httpMaxConnectionsTotal;
+
+    @Value("${xroad-catalog.http-max-connections-per-host}")
+    private Integer httpMaxConnectionsPerHost;
+
+    @Value("${xroad-catalog.http-connect-timeout-ms}")
+    private Integer httpConnectTimeout;
+
+    @Value("${xroad-catalog.http-read-timeout-ms}")
+    private Integer httpReadTimeout;
+
+    @Value("${xroad-catalog.http-keep-alive-ms}")
+    private Long httpKeepAlive;
+
 
     @Bean
     public ActorSystem actorSystem(ApplicationContext applicationContext,
@@ -66,7 +99,27 @@ public class ApplicationConfiguration extends SpringBootServletInitializer {
     @Bean
     @Qualifier("listClientsRestOperations")
     public RestOperations getRestOperations() {
-        return createTimeoutingRestTemplate();
+        return createPooledRestTemplate(SSLConnectionSocketFactory.getSocketFactory(), TIMEOUT);
+    }
+
+    /**
+     * Shared client for REST calls to the security server (listMethods, getOpenAPI)
+     */
+    @Bean
+    @Qualifier("xroadRestOperations")
+    public RestOperations getXRoadRestOperations() {
+        return createPooledRestTemplate(SSLConnectionSocketFactory.getSocketFactory(), httpReadTimeout);
+    }
+
+    /**
+     * Shared client for fetching organizations and companies, certificates of those APIs are not verified
+     */
+    @Bean
+    @Qualifier("organizationsRestOperations")
+    public RestOperations getOrganizationsRestOperations()
+            throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+        SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+        return createPooledRestTemplate(new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier()), httpReadTimeout);
     }
 
     @Bean
@@ -82,6 +135,35 @@ public class ApplicationConfiguration extends SpringBootServletInitializer {
     }
 
     private static final int TIMEOUT = 10 * 60 * 1000; // 10 minutes
+
+    /**
+     * Creates a RestTemplate backed by a pooled http client. Connections are kept alive and reused
+     * per host, which also avoids a new TLS handshake for every request.
+     */
+    private RestTemplate createPooledRestTemplate(SSLConnectionSocketFactory sslSocketFactory, int readTimeout) {
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(httpMaxConnectionsTotal);
+        connectionManager.setDefaultMaxPerRoute(httpMaxConnectionsPerHost);
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? Math.min(keepAlive, httpKeepAlive) : httpKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(httpKeepAlive, TimeUnit.MILLISECONDS)
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout(httpConnectTimeout);
+        requestFactory.setConnectionRequestTimeout(httpConnectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return new RestTemplate(requestFactory);
+    }
+
     private RestTemplate createTimeoutingRestTemplate() {
         RestTemplate rt = new RestTemplate();
         setTimeout(rt, TIMEOUT);
@@ -16,12 +16,11 @@ import fi.vrk.xroad.catalog.collector.wsimport.ClientList;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadClientIdentifierType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadObjectType;
-import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestOperations;
 
 public class ClientListUtil {
 
@@ -30,18 +29,17 @@ public class ClientListUtil {
         // Private empty constructor
     }
 
-    public static ClientList clientListFromResponse(String url, CatalogService catalogService) {
-        RestTemplate restTemplate = new RestTemplate();
+    public static ClientList clientListFromResponse(String url, RestOperations restOperations, ErrorLogWriter errorLogWriter) {
         JSONArray members = new JSONArray();
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = restOperations.getForEntity(url, String.class);
             JSONObject json = new JSONObject(response.getBody());
             members = json.getJSONArray("member");
         } catch (Exception e) {
             ErrorLog errorLog = MethodListUtil.createErrorLog(null,
                     "Error when fetching listClients(url: " + url + "): " + e.getMessage(),
                     "500");
-            catalogService.saveErrorLog(errorLog);
+            errorLogWriter.write(errorLog);
         }
 
         ClientList clientList = new ClientList();
@@ -0,0 +1,109 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import fi.vrk.xroad.catalog.collector.wsimport.XRoadIdentifierType;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of content digests of subsystem method lists and service descriptors
+ * between collection runs, so that unchanged content can be skipped in incremental mode.
+ * All digests are dropped when a full collection is due. The method list digest of a subsystem is
+ * invalidated when fetching one of its descriptors fails, so that the descriptors are fetched again
+ * in the next run even if the method list has not changed.
+ */
+@Component
+@Slf4j
+public class CollectionDigestRegistry {
+
+    @Value("${xroad-catalog.incremental-collection-enabled}")
+    private Boolean incrementalCollectionEnabled;
+
+    @Value("${xroad-catalog.full-collection-interval-hours}")
+    private Long fullCollectionIntervalHours;
+
+    private final Map<String, String> digests = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastFullCollection;
+
+    /**
+     * Called at the beginning of every collection run. Forgets all known digests
+     * if incremental mode is disabled or the full collection interval has elapsed.
+     */
+    public synchronized void startCollection() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!Boolean.TRUE.equals(incrementalCollectionEnabled) || lastFullCollection == null
+                || !now.isBefore(lastFullCollection.plusHours(fullCollectionIntervalHours))) {
+            digests.clear();
+            lastFullCollection = now;
+            log.info("Starting full collection");
+        } else {
+            log.info("Starting incremental collection, {} digests known", digests.size());
+        }
+    }
+
+    /**
+     * @param key identifier of the collected item
+     * @param digest digest of the current content
+     * @return true if incremental mode is enabled and the digest equals the one stored for the key
+     */
+    public boolean isUnchanged(String key, String digest) {
+        return Boolean.TRUE.equals(incrementalCollectionEnabled) && digest != null && digest.equals(digests.get(key));
+    }
+
+    /**
+     * Stores the digest of successfully processed content
+     * @param key identifier of the collected item
+     * @param digest digest of the content
+     */
+    public void update(String key, String digest) {
+        if (Boolean.TRUE.equals(incrementalCollectionEnabled) && digest != null) {
+            digests.put(key, digest);
+        }
+    }
+
+    /**
+     * Forgets the digest stored for the key, so that the item is processed again in the next run
+     * @param key identifier of the collected item
+     */
+    public void invalidate(String key) {
+        digests.remove(key);
+    }
+
+    /**
+     * @param id identifier of a subsystem or of one of its services
+     * @return key of the method list digest of the subsystem
+     */
+    public static String subsystemKey(XRoadIdentifierType id) {
+        return ClientTypeUtil.toString(ClientTypeUtil.toSubsystem(id.getXRoadInstance(), id.getMemberClass(),
+                id.getMemberCode(), id.getSubsystemCode()));
+    }
+
+    /**
+     * @param content collected content, may be null if fetching failed
+     * @return SHA-256 digest of the content as hex string, or null if there is no content
+     */
+    public static String digest(String content) {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import fi.vrk.xroad.catalog.collector.actors.XRoadCatalogActor;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import fi.vrk.xroad.catalog.persistence.entity.CollectionRun;
+import akka.actor.ActorSystem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks a single collection run from listing the clients until all list and fetch work
+ * spawned by it has been processed. Every unit of work is registered with {@link #workScheduled(long)}
+ * before it is sent to an actor and reported with {@link #workCompleted(long, boolean)} when it is done.
+ * When no work is outstanding any more the run is finished, its statistics are persisted and
+ * a snapshot of the daily catalog statistics is written. Both are written on the blocking IO dispatcher
+ * outside the lock, so that actors reporting work are not held up by the database.
+ * A new run can not be started while the previous one is in progress, unless it has exceeded
+ * the configured run timeout. Each run has its own id, so that work of a timed out run that completes
+ * late is not counted in the run that replaced it.
+ */
+@Component
+@Slf4j
+public class CollectionRunCoordinator {
+
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_TIMED_OUT = "TIMED_OUT";
+
+    /**
+     * Run id of work that does not belong to any run
+     */
+    public static final long NO_RUN = 0L;
+
+    @Value("${xroad-catalog.collection-run-timeout-hours}")
+    private Long collectionRunTimeoutHours;
+
+    @Autowired
+    protected CatalogService catalogService;
+
+    @Autowired
+    protected ActorSystem actorSystem;
+
+    private long runId = NO_RUN;
+    private LocalDateTime runStarted;
+    private long outstanding;
+    private long itemCount;
+    private long failureCount;
+
+    /**
+     * Starts a new run. The listing of clients counts as the first unit of work of the run
+     * and has to be reported with {@link #workCompleted(long, boolean)} as well.
+     * @return id of the new run, {@link #NO_RUN} if the previous run is still in progress
+     */
+    public long tryStartRun() {
+        CollectionRun timedOutRun = null;
+        long startedRunId;
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now();
+            if (runStarted != null) {
+                if (now.isBefore(runStarted.plusHours(collectionRunTimeoutHours))) {
+                    log.info("Collection run started at {} still in progress with {} outstanding items, skipping",
+                            runStarted, outstanding);
+                    return NO_RUN;
+                }
+                log.warn("Collection run started at {} timed out with {} outstanding items", runStarted, outstanding);
+                timedOutRun = finishRun(STATUS_TIMED_OUT);
+            }
+            runId++;
+            runStarted = now;
+            outstanding = 1;
+            itemCount = 0;
+            failureCount = 0;
+            startedRunId = runId;
+        }
+        if (timedOutRun != null) {
+            persist(timedOutRun);
+        }
+        return startedRunId;
+    }
+
+    /**
+     * Registers a unit of work spawned by work of the given run
+     * @param parentRunId id of the run the spawning work belongs to
+     * @return id of the run the new work belongs to, {@link #NO_RUN} if the given run is no longer in progress
+     */
+    public synchronized long workScheduled(long parentRunId) {
+        if (!isCurrent(parentRunId)) {
+            return NO_RUN;
+        }
+        outstanding++;
+        return runId;
+    }
+
+    /**
+     * Reports a unit of work done, finishing the run if it was the last one.
+     * Work of a run that is no longer in progress is ignored.
+     * @param workRunId id of the run the work belongs to
+     * @param success false if the work failed
+     */
+    public void workCompleted(long workRunId, boolean success) {
+        CollectionRun finishedRun;
+        synchronized (this) {
+            if (!isCurrent(workRunId) || outstanding <= 0) {
+                return;
+            }
+            itemCount++;
+            if (!success) {
+                failureCount++;
+            }
+            outstanding--;
+            if (outstanding > 0) {
+                return;
+            }
+            finishedRun = finishRun(STATUS_COMPLETED);
+        }
+        persist(finishedRun);
+    }
+
+    /**
+     * @return true if a collection run is in progress
+     */
+    public synchronized boolean isRunInProgress() {
+        return runStarted != null;
+    }
+
+    private boolean isCurrent(long workRunId) {
+        return workRunId != NO_RUN && workRunId == runId && runStarted != null;
+    }
+
+    /**
+     * Ends the current run, called while holding the lock
+     * @return statistics of the run to be persisted
+     */
+    private CollectionRun finishRun(String status) {
+        LocalDateTime finished = LocalDateTime.now();
+        CollectionRun collectionRun = CollectionRun.builder()
+                .started(runStarted)
+                .finished(finished)
+                .durationMs(Duration.between(runStarted, finished).toMillis())
+                .itemCount(itemCount)
+                .failureCount(failureCount)
+                .status(status)
+                .build();
+        log.info("Collection run finished: {}", collectionRun);
+        runStarted = null;
+        outstanding = 0;
+        return collectionRun;
+    }
+
+    private void persist(CollectionRun collectionRun) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                CollectorMetrics.timeWrite("saveCollectionRun", () -> catalogService.saveCollectionRun(collectionRun));
+            } catch (RuntimeException e) {
+                log.error("Saving collection run failed", e);
+            }
+            try {
+                CollectorMetrics.timeWrite("saveDailyStatistics",
+                        () -> catalogService.saveDailyStatistics(collectionRun.getFinished().toLocalDate()));
+            } catch (RuntimeException e) {
+                log.error("Saving daily statistics failed", e);
+            }
+        }, actorSystem.dispatchers().lookup(XRoadCatalogActor.BLOCKING_IO_DISPATCHER));
+    }
+}
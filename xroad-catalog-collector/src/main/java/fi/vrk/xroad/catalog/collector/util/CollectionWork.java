@@ -0,0 +1,35 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Message carrying an item of work to an actor together with the id of the collection run
+ * it belongs to, so that its completion is reported to that run.
+ * The time the work was created is used to measure how long it waited in the mailbox of the actor.
+ */
+@Getter
+@ToString
+public class CollectionWork {
+    private final long runId;
+    private final Object item;
+    private final long enqueuedNanos;
+
+    public CollectionWork(long runId, Object item) {
+        this.runId = runId;
+        this.item = item;
+        this.enqueuedNanos = System.nanoTime();
+    }
+}
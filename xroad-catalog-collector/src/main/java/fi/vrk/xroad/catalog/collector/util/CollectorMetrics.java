@@ -0,0 +1,135 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the collector. Meters are registered to the global registry,
+ * which Spring Boot connects to the application registry exposed by the prometheus endpoint.
+ */
+public class CollectorMetrics {
+
+    public static final String ACTOR_MESSAGES = "xroad.catalog.actor.messages";
+    public static final String ACTOR_UNHANDLED_MESSAGES = "xroad.catalog.actor.unhandled.messages";
+    public static final String OUTBOUND_CALLS = "xroad.catalog.outbound.calls";
+    public static final String QUEUE_TIME = "xroad.catalog.queue.time";
+    public static final String ACTOR_QUEUE_TIME = "xroad.catalog.actor.queue.time";
+    public static final String CATALOG_SERVICE_WRITES = "xroad.catalog.catalog.service.writes";
+    public static final String ERROR_LOG_DROPPED = "xroad.catalog.error.log.dropped";
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_FAILURE = "failure";
+
+    private CollectorMetrics() {
+        // Private empty constructor
+    }
+
+    /**
+     * Records processing time of a message handled by an actor
+     * @param actor name of the actor class
+     * @param nanos processing time
+     * @param success false if handling the message or the asynchronous work started for it failed
+     */
+    public static void recordActorMessage(String actor, long nanos, boolean success) {
+        timer(ACTOR_MESSAGES, "actor", actor, success).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a message an actor was not able to handle
+     * @param actor name of the actor class
+     */
+    public static void countUnhandledMessage(String actor) {
+        Metrics.counter(ACTOR_UNHANDLED_MESSAGES, "actor", actor).increment();
+    }
+
+    /**
+     * Records the time a message waited in the mailbox of an actor
+     * @param actor name of the actor class
+     * @param nanos waiting time
+     */
+    public static void recordActorQueueTime(String actor, long nanos) {
+        Metrics.timer(ACTOR_QUEUE_TIME, "actor", actor).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time a unit of work waited before it was started
+     * @param stage where the work was waiting
+     * @param nanos waiting time
+     */
+    public static void recordQueueTime(String stage, long nanos) {
+        Metrics.timer(QUEUE_TIME, "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times an outbound call, an exception thrown by the call is recorded as failure and rethrown
+     * @param call name of the call
+     * @param supplier the call
+     * @return result of the call
+     */
+    public static <T> T timeCall(String call, Supplier<T> supplier) {
+        return time(OUTBOUND_CALLS, "call", call, supplier);
+    }
+
+    /**
+     * Times an outbound call without a return value
+     * @param call name of the call
+     * @param runnable the call
+     */
+    public static void timeCall(String call, Runnable runnable) {
+        time(OUTBOUND_CALLS, "call", call, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times a CatalogService write, an exception thrown by the write is recorded as failure and rethrown
+     * @param method name of the CatalogService method
+     * @param runnable the write
+     */
+    public static void timeWrite(String method, Runnable runnable) {
+        time(CATALOG_SERVICE_WRITES, "method", method, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counts error log entries that were not persisted
+     * @param reason why the entries were dropped
+     * @param count number of dropped entries
+     */
+    public static void countDroppedErrorLogs(String reason, int count) {
+        Metrics.counter(ERROR_LOG_DROPPED, "reason", reason).increment(count);
+    }
+
+    private static <T> T time(String name, String tagKey, String tagValue, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = supplier.get();
+            success = true;
+            return result;
+        } finally {
+            timer(name, tagKey, tagValue, success).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(String name, String tagKey, String tagValue, boolean success) {
+        return Metrics.timer(name, tagKey, tagValue, "outcome", success ? OUTCOME_SUCCESS : OUTCOME_FAILURE);
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects error log entries in a bounded buffer and persists them in batches on a background thread,
+ * so that a failing call does not wait for a database round trip of its own.
+ * An entry identical to one already buffered (same message, code and identifiers) is merged into it by
+ * increasing its occurrences. The buffer is written when it reaches the batch size or when the flush
+ * interval elapses, and once more when the collector is shut down.
+ * When the buffer is full, further distinct entries are dropped. Dropped entries are counted by the
+ * {@link CollectorMetrics#ERROR_LOG_DROPPED} meter and summarized in the log on the next flush.
+ */
+@Component
+@Slf4j
+public class ErrorLogWriter {
+
+    public static final String DROPPED_BUFFER_FULL = "buffer_full";
+    public static final String DROPPED_WRITE_FAILED = "write_failed";
+
+    @Value("${xroad-catalog.error-log-buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${xroad-catalog.error-log-batch-size:50}")
+    private int batchSize;
+
+    @Value("${xroad-catalog.error-log-flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    protected CatalogService catalogService;
+
+    private final Map<List<Object>, ErrorLog> buffer = new LinkedHashMap<>();
+    private int droppedSinceFlush;
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "error-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Buffers an error log entry, never blocks on the database
+     * @param errorLog the entry
+     * @return false if the buffer was full and the entry was dropped
+     */
+    public boolean write(ErrorLog errorLog) {
+        boolean batchFull;
+        synchronized (buffer) {
+            ErrorLog pending = buffer.get(keyOf(errorLog));
+            if (pending != null) {
+                pending.setOccurrences(pending.getOccurrences() + errorLog.getOccurrences());
+                return true;
+            }
+            if (buffer.size() >= bufferSize) {
+                droppedSinceFlush++;
+                CollectorMetrics.countDroppedErrorLogs(DROPPED_BUFFER_FULL, 1);
+                return false;
+            }
+            buffer.put(keyOf(errorLog), errorLog);
+            batchFull = buffer.size() == batchSize;
+        }
+        if (batchFull && !flushExecutor.isShutdown()) {
+            flushExecutor.execute(this::flush);
+        }
+        return true;
+    }
+
+    /**
+     * Writes all buffered entries to the database
+     */
+    public void flush() {
+        List<ErrorLog> entries;
+        int dropped;
+        synchronized (buffer) {
+            entries = new ArrayList<>(buffer.values());
+            buffer.clear();
+            dropped = droppedSinceFlush;
+            droppedSinceFlush = 0;
+        }
+        if (dropped > 0) {
+            log.warn("Dropped {} error log entries because the buffer of {} entries was full", dropped, bufferSize);
+        }
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<ErrorLog> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            try {
+                CollectorMetrics.timeWrite("saveErrorLogs", () -> catalogService.saveErrorLogs(batch));
+            } catch (RuntimeException e) {
+                log.error("Saving {} error log entries failed, dropping them", batch.size(), e);
+                CollectorMetrics.countDroppedErrorLogs(DROPPED_WRITE_FAILED, batch.size());
+            }
+        }
+    }
+
+    private static List<Object> keyOf(ErrorLog errorLog) {
+        return Arrays.asList(errorLog.getMessage(), errorLog.getCode(), errorLog.getXRoadInstance(),
+                errorLog.getMemberClass(), errorLog.getMemberCode(), errorLog.getSubsystemCode(),
+                errorLog.getGroupCode(), errorLog.getServiceCode(), errorLog.getServiceVersion(),
+                errorLog.getSecurityCategoryCode(), errorLog.getServerCode());
+    }
+}
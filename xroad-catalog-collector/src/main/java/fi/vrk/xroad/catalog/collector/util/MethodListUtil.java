@@ -13,16 +13,16 @@
 package fi.vrk.xroad.catalog.collector.util;
 
 import fi.vrk.xroad.catalog.collector.wsimport.*;
-import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestOperations;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Slf4j
@@ -51,7 +51,8 @@ public class MethodListUtil {
                                                                               String memberClass,
                                                                               String memberCode,
                                                                               String subsystemCode,
-                                                                              CatalogService catalogService) {
+                                                                              RestOperations restOperations,
+                                                                              ErrorLogWriter errorLogWriter) {
         final String url = new StringBuilder().append(host).append("/r1/")
                 .append(clientType.getId().getXRoadInstance()).append("/")
                 .append(clientType.getId().getMemberClass()).append("/")
@@ -59,30 +60,32 @@ public class MethodListUtil {
                 .append(clientType.getId().getSubsystemCode()).append("/listMethods").toString();
 
         String xRoadClientHeader = createHeader(xRoadInstance, memberClass, memberCode, subsystemCode);
+        JSONObject json = MethodListUtil.getJSON(url, clientType, xRoadClientHeader, restOperations, errorLogWriter);
+        if (json == null) {
+            // fetching failed, the error has been logged
+            return null;
+        }
         List<XRoadRestServiceIdentifierType> restServices = new ArrayList<>();
-        JSONObject json = MethodListUtil.getJSON(url, clientType, xRoadClientHeader, catalogService);
-        if (json != null) {
-            JSONArray serviceList = json.getJSONArray("service");
-            for (int i = 0; i < serviceList.length(); i++) {
-                JSONObject service = serviceList.getJSONObject(i);
-                XRoadRestServiceIdentifierType xRoadRestServiceIdentifierType = new XRoadRestServiceIdentifierType();
-                xRoadRestServiceIdentifierType.setMemberCode(service.optString("member_code"));
-                xRoadRestServiceIdentifierType.setSubsystemCode(service.optString("subsystem_code"));
-                xRoadRestServiceIdentifierType.setMemberClass(service.optString("member_class"));
-                xRoadRestServiceIdentifierType.setServiceCode(service.optString("service_code"));
-                xRoadRestServiceIdentifierType.setServiceVersion(service.has("service_version") ? service.optString("service_version") : null);
-                xRoadRestServiceIdentifierType.setXRoadInstance(service.optString("xroad_instance"));
-                xRoadRestServiceIdentifierType.setObjectType(XRoadObjectType.fromValue(service.optString("object_type")));
-                xRoadRestServiceIdentifierType.setServiceType(service.has("service_type") ? service.optString("service_type") : null);
-                JSONArray endpointList = service.optJSONArray("endpoint_list");
-                List<Endpoint> endpoints = new ArrayList<>();
-                for (int j = 0; j < endpointList.length(); j++) {
-                    JSONObject endpoint = endpointList.getJSONObject(j);
-                    endpoints.add(Endpoint.builder().method(endpoint.optString("method")).path(endpoint.optString("path")).build());
-                }
-                xRoadRestServiceIdentifierType.setEndpoints(endpoints);
-                restServices.add(xRoadRestServiceIdentifierType);
+        JSONArray serviceList = json.getJSONArray("service");
+        for (int i = 0; i < serviceList.length(); i++) {
+            JSONObject service = serviceList.getJSONObject(i);
+            XRoadRestServiceIdentifierType xRoadRestServiceIdentifierType = new XRoadRestServiceIdentifierType();
+            xRoadRestServiceIdentifierType.setMemberCode(service.optString("member_code"));
+            xRoadRestServiceIdentifierType.setSubsystemCode(service.optString("subsystem_code"));
+            xRoadRestServiceIdentifierType.setMemberClass(service.optString("member_class"));
+            xRoadRestServiceIdentifierType.setServiceCode(service.optString("service_code"));
+            xRoadRestServiceIdentifierType.setServiceVersion(service.has("service_version") ? service.optString("service_version") : null);
+            xRoadRestServiceIdentifierType.setXRoadInstance(service.optString("xroad_instance"));
+            xRoadRestServiceIdentifierType.setObjectType(XRoadObjectType.fromValue(service.optString("object_type")));
+            xRoadRestServiceIdentifierType.setServiceType(service.has("service_type") ? service.optString("service_type") : null);
+            JSONArray endpointList = service.optJSONArray("endpoint_list");
+            List<Endpoint> endpoints = new ArrayList<>();
+            for (int j = 0; j < endpointList.length(); j++) {
+                JSONObject endpoint = endpointList.getJSONObject(j);
+                endpoints.add(Endpoint.builder().method(endpoint.optString("method")).path(endpoint.optString("path")).build());
             }
+            xRoadRestServiceIdentifierType.setEndpoints(endpoints);
+            restServices.add(xRoadRestServiceIdentifierType);
         }
 
         return restServices;
@@ -94,7 +97,8 @@ public class MethodListUtil {
                                              String memberClass,
                                              String memberCode,
                                              String subsystemCode,
-                                             CatalogService catalogService) {
+                                             RestOperations restOperations,
+                                             ErrorLogWriter errorLogWriter) {
         final String url = new StringBuilder().append(host).append("/r1/")
                 .append(clientType.getId().getXRoadInstance()).append("/")
                 .append(clientType.getId().getMemberClass()).append("/")
@@ -103,19 +107,43 @@ public class MethodListUtil {
                 .append(clientType.getId().getServiceCode()).toString();
 
         String xRoadClientHeader = createHeader(xRoadInstance, memberClass, memberCode, subsystemCode);
-        JSONObject json = MethodListUtil.getJSON(url, clientType, xRoadClientHeader, catalogService);
+        JSONObject json = MethodListUtil.getJSON(url, clientType, xRoadClientHeader, restOperations, errorLogWriter);
 
         return (json != null) ? json.toString() : "";
     }
 
-    public static List<fi.vrk.xroad.catalog.collector.util.Endpoint> getEndpointList(XRoadRestServiceIdentifierType service) {
-        List<fi.vrk.xroad.catalog.collector.util.Endpoint> endpointList = new ArrayList<>();
-        for (fi.vrk.xroad.catalog.collector.util.Endpoint endpoint : service.getEndpoints()) {
+    public static List<Endpoint> getEndpointList(XRoadRestServiceIdentifierType service) {
+        List<Endpoint> endpointList = new ArrayList<>();
+        for (Endpoint endpoint : service.getEndpoints()) {
             endpointList.add(Endpoint.builder().method(endpoint.getMethod()).path(endpoint.getPath()).build());
         }
         return endpointList;
     }
 
+    public static String methodListDigest(List<XRoadRestServiceIdentifierType> restServices,
+                                          List<XRoadServiceIdentifierType> soapServices) {
+        List<String> entries = new ArrayList<>();
+        for (XRoadRestServiceIdentifierType service : restServices) {
+            StringBuilder sb = new StringBuilder()
+                    .append(service.getServiceType()).append("/")
+                    .append(service.getServiceCode()).append("/")
+                    .append(service.getServiceVersion());
+            if (service.getEndpoints() != null) {
+                for (Endpoint endpoint : service.getEndpoints()) {
+                    sb.append("/").append(endpoint.getMethod()).append(" ").append(endpoint.getPath());
+                }
+            }
+            entries.add(sb.toString());
+        }
+        for (XRoadServiceIdentifierType service : soapServices) {
+            entries.add(new StringBuilder().append("SOAP/")
+                    .append(service.getServiceCode()).append("/")
+                    .append(service.getServiceVersion()).toString());
+        }
+        Collections.sort(entries);
+        return CollectionDigestRegistry.digest(String.join("\n", entries));
+    }
+
     public static ErrorLog createErrorLog(ClientType clientType, String message, String code) {
         if (clientType != null) {
             return ErrorLog.builder()
@@ -151,8 +179,8 @@ public class MethodListUtil {
                 .append(subsystemCode).toString();
     }
 
-    private static JSONObject getJSON(String url, ClientType clientType, String xRoadClientHeader, CatalogService catalogService) {
-        RestTemplate restTemplate = new RestTemplate();
+    private static JSONObject getJSON(String url, ClientType clientType, String xRoadClientHeader,
+                                      RestOperations restOperations, ErrorLogWriter errorLogWriter) {
         HttpHeaders headers = new HttpHeaders();
         List<MediaType> mediaTypes = new ArrayList<>();
         mediaTypes.add(MediaType.APPLICATION_JSON);
@@ -160,7 +188,8 @@ public class MethodListUtil {
         headers.set("X-Road-Client", xRoadClientHeader);
         final HttpEntity<String> entity = new HttpEntity<>(headers);
         try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+            ResponseEntity<String> response = CollectorMetrics.timeCall("getJSON",
+                    () -> restOperations.exchange(url, HttpMethod.GET, entity, String.class));
             return new JSONObject(response.getBody());
         } catch (Exception e) {
             SecurityServerMetadata newSecurityServerMetadata = SecurityServerMetadata.builder()
@@ -184,7 +213,7 @@ public class MethodListUtil {
                         .serviceVersion(clientType.getId().getServiceVersion())
                         .subsystemCode(clientType.getId().getSubsystemCode())
                         .build();
-                catalogService.saveErrorLog(errorLog);
+                errorLogWriter.write(errorLog);
                 securityServerMetadata = SecurityServerMetadata.builder()
                         .xRoadInstance(clientType.getId().getXRoadInstance())
                         .memberClass(clientType.getId().getMemberClass())
@@ -13,25 +13,12 @@
 package fi.vrk.xroad.catalog.collector.util;
 
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
-import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.entity.*;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustStrategy;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
-import javax.net.ssl.SSLContext;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import org.springframework.web.client.RestOperations;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -54,48 +41,30 @@ public class OrganizationUtil {
 
     }
 
-    public static JSONObject getCompany(ClientType clientType, String url, String businessCode, CatalogService catalogService) {
+    public static JSONObject getCompany(ClientType clientType, String url, String businessCode,
+                                        RestOperations restOperations, ErrorLogWriter errorLogWriter) {
         final String fetchCompaniesUrl = new StringBuilder().append(url)
                 .append("/").append(businessCode).toString();
         JSONObject jsonObject = new JSONObject();
         try {
-            String ret = getResponseBody(fetchCompaniesUrl);
+            String ret = getResponseBody(fetchCompaniesUrl, restOperations);
             jsonObject = new JSONObject(ret);
             return jsonObject;
-        } catch (KeyStoreException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "KeyStoreException occurred when fetching companies from url " + url + WITH_BUSINESS_CODE + businessCode,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("KeyStoreException occurred when fetching companies from url {} with businessCode {}", url, businessCode);
-        } catch (NoSuchAlgorithmException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "NoSuchAlgorithmException occurred when fetching companies from url " + url + WITH_BUSINESS_CODE + businessCode,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("NoSuchAlgorithmException occurred when fetching companies from url {} with businessCode {}", url, businessCode);
-        } catch (KeyManagementException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "KeyManagementException occurred when fetching companies from url " + url + WITH_BUSINESS_CODE + businessCode,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("KeyManagementException occurred when fetching companies from url {} with businessCode {}", url, businessCode);
-        }
-        catch (Exception e) {
+        } catch (Exception e) {
             ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
                     "Exception occurred when fetching companies from url " + url + WITH_BUSINESS_CODE + businessCode,
                     "500");
-            catalogService.saveErrorLog(errorLog);
+            errorLogWriter.write(errorLog);
             log.error("Exception occurred when fetching companies from url {} with businessCode {}", url, businessCode);
         }
         return jsonObject;
     }
 
-    public static List<String> getOrganizationIdsList(ClientType clientType, String url, Integer fetchOrganizationsLimit, CatalogService catalogService)
-            throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+    public static List<String> getOrganizationIdsList(ClientType clientType, String url, Integer fetchOrganizationsLimit,
+                                                      RestOperations restOperations, ErrorLogWriter errorLogWriter) {
         List<String> idsList = new ArrayList<>();
         try {
-            String response = getResponseBody(url);
+            String response = getResponseBody(url, restOperations);
             JSONObject json = new JSONObject(response);
             JSONArray itemList = json.optJSONArray("itemList");
             int totalFetchAmount = itemList.length() > fetchOrganizationsLimit ? fetchOrganizationsLimit : itemList.length();
@@ -104,24 +73,6 @@ public class OrganizationUtil {
                 idsList.add(id);
             }
             return idsList;
-        } catch (KeyStoreException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "KeyStoreException occurred when fetching organization ids with from url " + url,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("KeyStoreException occurred when fetching organization ids with from url {}", url);
-        } catch (NoSuchAlgorithmException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "NoSuchAlgorithmException occurred when fetching organization ids with from url " + url,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("NoSuchAlgorithmException occurred when fetching organization ids with from url {}", url);
-        } catch (KeyManagementException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "KeyManagementException occurred when fetching organization ids with from url " + url,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("KeyManagementException occurred when fetching organizations with from url {}", url);
         } catch (Exception e) {
             log.error("Exception occurred when fetching organization ids: " + e.getMessage());
             ErrorLog errorLog = ErrorLog.builder()
@@ -138,7 +89,7 @@ public class OrganizationUtil {
                     .serviceVersion(clientType.getId().getServiceVersion())
                     .subsystemCode(clientType.getId().getSubsystemCode())
                     .build();
-            catalogService.saveErrorLog(errorLog);
+            errorLogWriter.write(errorLog);
         }
         return idsList;
     }
@@ -526,42 +477,19 @@ public class OrganizationUtil {
         return null;
     }
 
-    public static JSONArray getDataByIds(ClientType clientType, List<String> guids, String url, CatalogService catalogService) {
-        String requestGuids = "";
-        for (int i = 0; i < guids.size(); i++) {
-            requestGuids += guids.get(i);
-            if (i < (guids.size() - 1)) {
-                requestGuids += ",";
-            }
-        }
+    public static JSONArray getDataByIds(ClientType clientType, List<String> guids, String url,
+                                         RestOperations restOperations, ErrorLogWriter errorLogWriter) {
+        String requestGuids = String.join(",", guids);
 
         final String listOrganizationsUrl = new StringBuilder().append(url)
                 .append("/list?guids=").append(requestGuids).toString();
 
         JSONArray itemList = new JSONArray();
         try {
-            String ret = getResponseBody(listOrganizationsUrl);
+            String ret = getResponseBody(listOrganizationsUrl, restOperations);
             JSONObject json = new JSONObject("{\"items\":" + ret + "}");
             itemList = json.optJSONArray("items");
             return itemList;
-        } catch (KeyStoreException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "KeyStoreException occurred when fetching organizations with from url " + url,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("KeyStoreException occurred when fetching organizations with from url {}", url);
-        } catch (NoSuchAlgorithmException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "NoSuchAlgorithmException occurred when fetching organizations with from url " + url,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("NoSuchAlgorithmException occurred when fetching organizations with from url {}", url);
-        } catch (KeyManagementException e) {
-            ErrorLog errorLog = MethodListUtil.createErrorLog(clientType,
-                    "KeyManagementException occurred when fetching organizations with from url " + url,
-                    "500");
-            catalogService.saveErrorLog(errorLog);
-            log.error("KeyManagementException occurred when fetching organizations with from url {}", url);
         } catch (Exception e) {
             log.error("Exception occurred when fetching organization data: " + e.getMessage());
             ErrorLog errorLog = ErrorLog.builder()
@@ -578,37 +506,20 @@ public class OrganizationUtil {
                     .serviceVersion(clientType.getId().getServiceVersion())
                     .subsystemCode(clientType.getId().getSubsystemCode())
                     .build();
-            catalogService.saveErrorLog(errorLog);
+            errorLogWriter.write(errorLog);
         }
         return itemList;
     }
 
-    public static String getResponseBody(String url) throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+    public static String getResponseBody(String url, RestOperations restOperations) {
         HttpHeaders headers = new HttpHeaders();
         List<MediaType> mediaTypes = new ArrayList<>();
         mediaTypes.add(MediaType.APPLICATION_JSON);
         headers.setAccept(mediaTypes);
         final HttpEntity<String> entity = new HttpEntity<>(headers);
-        RestTemplate restTemplate = createTemplate();
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+        ResponseEntity<String> response = CollectorMetrics.timeCall("getResponseBody",
+                () -> restOperations.exchange(url, HttpMethod.GET, entity, String.class));
 
         return response.getBody();
     }
-
-    private static RestTemplate createTemplate() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
-        TrustStrategy acceptingTrustStrategy = new TrustStrategy() {
-            @Override
-            public boolean isTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
-                return true;
-            }
-        };
-        SSLContext sslContext = org.apache.http.ssl.SSLContexts.custom().loadTrustMaterial(null, acceptingTrustStrategy).build();
-        SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-        CloseableHttpClient httpClient = HttpClients.custom().setSSLSocketFactory(csf).build();
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setHttpClient(httpClient);
-        RestTemplate restTemplate = new RestTemplate(requestFactory);
-
-        return restTemplate;
-    }
 }
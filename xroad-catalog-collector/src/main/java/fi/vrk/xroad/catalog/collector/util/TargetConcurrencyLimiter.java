@@ -0,0 +1,195 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import fi.vrk.xroad.catalog.collector.wsimport.XRoadIdentifierType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of concurrent outbound calls per target member, so that a single slow
+ * or failing provider can not occupy all http dispatcher threads.
+ * The limit of each target adapts to the observed behaviour: it grows additively while calls
+ * succeed within the latency threshold and is halved when a call fails or is too slow.
+ * Calls exceeding the current limit are queued and started when earlier calls complete.
+ */
+@Component
+@Slf4j
+public class TargetConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.5;
+
+    @Value("${xroad-catalog.target-concurrency-initial-limit}")
+    private Integer initialLimit;
+
+    @Value("${xroad-catalog.target-concurrency-min-limit}")
+    private Integer minLimit;
+
+    @Value("${xroad-catalog.target-concurrency-max-limit}")
+    private Integer maxLimit;
+
+    @Value("${xroad-catalog.target-latency-threshold-ms}")
+    private Long latencyThresholdMs;
+
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call on the given executor once the target has capacity for it
+     * @param targetKey key of the target the call goes to, see {@link #targetKey(XRoadIdentifierType)}
+     * @param call blocking call, a null result is counted as a failure
+     * @param executor executor running the call
+     * @return future completed with the result of the call
+     */
+    public <T> CompletableFuture<T> submit(String targetKey, Supplier<T> call, Executor executor) {
+        return submit(targetKey, call, Objects::nonNull, executor);
+    }
+
+    /**
+     * Runs the call on the given executor once the target has capacity for it
+     * @param targetKey key of the target the call goes to, see {@link #targetKey(XRoadIdentifierType)}
+     * @param call blocking call, a call that throws is counted as a failure
+     * @param success tells whether a returned result is a success, for calls that return a fallback
+     *                value instead of throwing when the target fails
+     * @param executor executor running the call
+     * @return future completed with the result of the call
+     */
+    public <T> CompletableFuture<T> submit(String targetKey, Supplier<T> call, Predicate<T> success,
+                                           Executor executor) {
+        Target target = targets.computeIfAbsent(targetKey, Target::new);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submitTime = System.nanoTime();
+        Runnable start = () -> {
+            try {
+                executor.execute(() -> {
+                    CollectorMetrics.recordQueueTime("target", System.nanoTime() - submitTime);
+                    run(target, call, success, result);
+                });
+            } catch (RuntimeException e) {
+                log.error("Unable to start call to {}", targetKey, e);
+                target.release(false);
+                result.completeExceptionally(e);
+            }
+        };
+        if (target.acquireOrEnqueue(start)) {
+            start.run();
+        }
+        return result;
+    }
+
+    private <T> void run(Target target, Supplier<T> call, Predicate<T> success, CompletableFuture<T> result) {
+        // the latency is measured from here so that waiting for an executor thread is not blamed on the target
+        long startTime = System.nanoTime();
+        T value = null;
+        Throwable failure = null;
+        boolean healthy = false;
+        try {
+            value = call.get();
+            healthy = isHealthy(target, value, success, startTime);
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            target.release(healthy);
+        }
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    private <T> boolean isHealthy(Target target, T value, Predicate<T> success, long startTime) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        try {
+            return success.test(value) && latencyMs <= latencyThresholdMs;
+        } catch (RuntimeException e) {
+            log.error("Unable to evaluate result of call to {}", target.key, e);
+            return false;
+        }
+    }
+
+    /**
+     * @param id identifier of a member, subsystem or service
+     * @return key of the member owning the identifier
+     */
+    public static String targetKey(XRoadIdentifierType id) {
+        return id.getXRoadInstance() + "/" + id.getMemberClass() + "/" + id.getMemberCode();
+    }
+
+    /**
+     * @param targetKey key of the target
+     * @return current concurrency limit of the target
+     */
+    public int getLimit(String targetKey) {
+        Target target = targets.get(targetKey);
+        return target != null ? target.currentLimit() : initialLimit;
+    }
+
+    private final class Target {
+
+        private final String key;
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private double limit = initialLimit;
+        private int inFlight;
+
+        private Target(String key) {
+            this.key = key;
+        }
+
+        private synchronized int currentLimit() {
+            return (int) limit;
+        }
+
+        private synchronized boolean acquireOrEnqueue(Runnable start) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            waiting.add(start);
+            return false;
+        }
+
+        private void release(boolean healthy) {
+            List<Runnable> next = new ArrayList<>();
+            synchronized (this) {
+                inFlight--;
+                int previous = (int) limit;
+                if (healthy) {
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                } else {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                }
+                if ((int) limit != previous) {
+                    log.info("Concurrency limit of {} changed from {} to {}", key, previous, (int) limit);
+                }
+                while (!waiting.isEmpty() && inFlight < (int) limit) {
+                    inFlight++;
+                    next.add(waiting.poll());
+                }
+            }
+            next.forEach(Runnable::run);
+        }
+    }
+}
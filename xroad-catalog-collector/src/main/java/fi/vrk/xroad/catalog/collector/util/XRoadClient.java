@@ -13,7 +13,6 @@
 package fi.vrk.xroad.catalog.collector.util;
 
 import fi.vrk.xroad.catalog.collector.wsimport.*;
-import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
 import jakarta.activation.DataHandler;
 import jakarta.xml.ws.BindingProvider;
@@ -24,12 +23,12 @@ import org.apache.cxf.frontend.ClientProxy;
 import org.apache.cxf.message.Attachment;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.transport.http.HTTPConduit;
+import org.springframework.web.client.RestOperations;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -50,8 +49,9 @@ public class XRoadClient {
 
     /**
      * Calls the service using JAX-WS endpoints that have been generated from wsdl
+     * @return the SOAP services of the member, null if fetching them failed
      */
-    public List<XRoadServiceIdentifierType> getMethods(XRoadClientIdentifierType member, CatalogService catalogService) {
+    public List<XRoadServiceIdentifierType> getMethods(XRoadClientIdentifierType member, ErrorLogWriter errorLogWriter) {
         XRoadServiceIdentifierType serviceIdentifierType = new XRoadServiceIdentifierType();
         copyIdentifierType(serviceIdentifierType, member);
 
@@ -64,12 +64,12 @@ public class XRoadClient {
 
         ListMethodsResponse response = null;
         try {
-            response = metaServicesPort.listMethods(new ListMethods(),
+            response = CollectorMetrics.timeCall("listMethods", () -> metaServicesPort.listMethods(new ListMethods(),
                     holder(tmpClientId),
                     holder(serviceIdentifierType),
                     userId(),
                     queryId(),
-                    protocolVersion());
+                    protocolVersion()));
         } catch(Exception e) {
             log.error("Fetch of SOAP services failed: " + e.getMessage());
             ErrorLog errorLog = ErrorLog.builder()
@@ -86,12 +86,12 @@ public class XRoadClient {
                     .serviceVersion(member.getServiceVersion())
                     .subsystemCode(member.getSubsystemCode())
                     .build();
-            catalogService.saveErrorLog(errorLog);
+            errorLogWriter.write(errorLog);
         }
-        return response != null ? response.getService() : new ArrayList<>();
+        return response != null ? response.getService() : null;
     }
 
-    public String getWsdl(XRoadServiceIdentifierType service, CatalogService catalogService) {
+    public String getWsdl(XRoadServiceIdentifierType service, ErrorLogWriter errorLogWriter) {
         XRoadServiceIdentifierType serviceIdentifierType = new XRoadServiceIdentifierType();
         copyIdentifierType(serviceIdentifierType, service);
         XRoadClientIdentifierType tmpClientId = new XRoadClientIdentifierType();
@@ -108,14 +108,14 @@ public class XRoadClient {
         final Holder<byte[]> wsdl = new Holder<>();
 
         try {
-            metaServicesPort.getWsdl(getWsdl,
+            CollectorMetrics.timeCall("getWsdl", () -> metaServicesPort.getWsdl(getWsdl,
                     holder(tmpClientId),
                     holder(serviceIdentifierType),
                     userId(),
                     queryId(),
                     protocolVersion(),
                     response,
-                    wsdl);
+                    wsdl));
         } catch(Exception e) {
             log.error("Fetch of WSDL failed: " + e.getMessage());
             ErrorLog errorLog = ErrorLog.builder()
@@ -132,7 +132,7 @@ public class XRoadClient {
                     .serviceVersion(service.getServiceVersion())
                     .subsystemCode(service.getSubsystemCode())
                     .build();
-            catalogService.saveErrorLog(errorLog);
+            errorLogWriter.write(errorLog);
         }
 
 
@@ -159,7 +159,7 @@ public class XRoadClient {
                         .serviceVersion(service.getServiceVersion())
                         .subsystemCode(service.getSubsystemCode())
                         .build();
-                catalogService.saveErrorLog(errorLog);
+                errorLogWriter.write(errorLog);
             }
             try (ByteArrayOutputStream buf = new ByteArrayOutputStream()) {
                 if (dh == null) {
@@ -183,7 +183,7 @@ public class XRoadClient {
                         .serviceVersion(service.getServiceVersion())
                         .subsystemCode(service.getSubsystemCode())
                         .build();
-                catalogService.saveErrorLog(errorLog);
+                errorLogWriter.write(errorLog);
             }
         } else {
             return new String(wsdl.value, StandardCharsets.UTF_8);
@@ -197,7 +197,8 @@ public class XRoadClient {
                              String memberClass,
                              String memberCode,
                              String subsystemCode,
-                             CatalogService catalogService) {
+                             RestOperations restOperations,
+                             ErrorLogWriter errorLogWriter) {
         ClientType clientType = new ClientType();
         XRoadClientIdentifierType xRoadClientIdentifierType = new XRoadClientIdentifierType();
         xRoadClientIdentifierType.setXRoadInstance(service.getXRoadInstance());
@@ -212,7 +213,8 @@ public class XRoadClient {
         xRoadClientIdentifierType.setObjectType(service.getObjectType());
         clientType.setId(xRoadClientIdentifierType);
 
-        return MethodListUtil.openApiFromResponse(clientType, host, xRoadInstance, memberClass, memberCode, subsystemCode, catalogService);
+        return MethodListUtil.openApiFromResponse(clientType, host, xRoadInstance, memberClass, memberCode, subsystemCode,
+                restOperations, errorLogWriter);
     }
 
     private static Holder<String> queryId() {
@@ -0,0 +1,115 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.actors;
+
+import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import fi.vrk.xroad.catalog.persistence.entity.CollectionRun;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = DevelopmentConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CollectionRunCoordinatorTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    @MockBean
+    CatalogService catalogService;
+
+    @Autowired
+    CollectionRunCoordinator collectionRunCoordinator;
+
+    @Test
+    public void testRunIsFinishedWhenAllWorkIsCompleted() {
+        long runId = collectionRunCoordinator.tryStartRun();
+        assertNotEquals(CollectionRunCoordinator.NO_RUN, runId);
+        assertEquals(runId, collectionRunCoordinator.workScheduled(runId));
+        assertEquals(runId, collectionRunCoordinator.workScheduled(runId));
+        collectionRunCoordinator.workCompleted(runId, true);
+        assertEquals(CollectionRunCoordinator.NO_RUN, collectionRunCoordinator.tryStartRun());
+
+        collectionRunCoordinator.workCompleted(runId, false);
+        collectionRunCoordinator.workCompleted(runId, true);
+        assertFalse(collectionRunCoordinator.isRunInProgress());
+
+        ArgumentCaptor<CollectionRun> captor = ArgumentCaptor.forClass(CollectionRun.class);
+        verify(catalogService, timeout(TIMEOUT_MS).times(1)).saveCollectionRun(captor.capture());
+        assertEquals(3, captor.getValue().getItemCount());
+        assertEquals(1, captor.getValue().getFailureCount());
+        assertEquals(CollectionRunCoordinator.STATUS_COMPLETED, captor.getValue().getStatus());
+        verify(catalogService, timeout(TIMEOUT_MS).times(1)).saveDailyStatistics(LocalDate.now());
+
+        collectionRunCoordinator.workCompleted(runId, true);
+        verify(catalogService, times(1)).saveCollectionRun(any());
+        long nextRunId = collectionRunCoordinator.tryStartRun();
+        assertNotEquals(runId, nextRunId);
+        collectionRunCoordinator.workCompleted(nextRunId, true);
+        assertFalse(collectionRunCoordinator.isRunInProgress());
+        verify(catalogService, timeout(TIMEOUT_MS).times(2)).saveCollectionRun(any());
+        verify(catalogService, timeout(TIMEOUT_MS).times(2)).saveDailyStatistics(any());
+    }
+
+    @Test
+    public void testLateCompletionOfTimedOutRunIsIgnored() {
+        Long timeoutHours = (Long) ReflectionTestUtils.getField(collectionRunCoordinator, "collectionRunTimeoutHours");
+        try {
+            ReflectionTestUtils.setField(collectionRunCoordinator, "collectionRunTimeoutHours", 0L);
+            long timedOutRunId = collectionRunCoordinator.tryStartRun();
+            assertEquals(timedOutRunId, collectionRunCoordinator.workScheduled(timedOutRunId));
+            long runId = collectionRunCoordinator.tryStartRun();
+            assertNotEquals(timedOutRunId, runId);
+            ReflectionTestUtils.setField(collectionRunCoordinator, "collectionRunTimeoutHours", timeoutHours);
+
+            // work of the timed out run neither spawns work in nor completes the new run
+            assertEquals(CollectionRunCoordinator.NO_RUN, collectionRunCoordinator.workScheduled(timedOutRunId));
+            collectionRunCoordinator.workCompleted(timedOutRunId, true);
+            collectionRunCoordinator.workCompleted(timedOutRunId, true);
+            assertTrue(collectionRunCoordinator.isRunInProgress());
+
+            assertEquals(runId, collectionRunCoordinator.workScheduled(runId));
+            collectionRunCoordinator.workCompleted(runId, true);
+            collectionRunCoordinator.workCompleted(runId, false);
+            assertFalse(collectionRunCoordinator.isRunInProgress());
+
+            // the runs are persisted asynchronously, possibly in either order
+            ArgumentCaptor<CollectionRun> captor = ArgumentCaptor.forClass(CollectionRun.class);
+            verify(catalogService, timeout(TIMEOUT_MS).times(2)).saveCollectionRun(captor.capture());
+            Map<String, CollectionRun> runs = captor.getAllValues().stream()
+                    .collect(Collectors.toMap(CollectionRun::getStatus, run -> run));
+            assertEquals(0, runs.get(CollectionRunCoordinator.STATUS_TIMED_OUT).getItemCount());
+            assertEquals(2, runs.get(CollectionRunCoordinator.STATUS_COMPLETED).getItemCount());
+            assertEquals(1, runs.get(CollectionRunCoordinator.STATUS_COMPLETED).getFailureCount());
+            verify(catalogService, timeout(TIMEOUT_MS).times(2)).saveDailyStatistics(any());
+        } finally {
+            ReflectionTestUtils.setField(collectionRunCoordinator, "collectionRunTimeoutHours", timeoutHours);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.actors;
+
+import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
+import fi.vrk.xroad.catalog.collector.extension.SpringExtension;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.CollectionWork;
+import fi.vrk.xroad.catalog.collector.util.CollectorMetrics;
+import fi.vrk.xroad.catalog.collector.wsimport.XRoadObjectType;
+import fi.vrk.xroad.catalog.collector.wsimport.XRoadServiceIdentifierType;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.TestActorRef;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = DevelopmentConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "xroad-catalog.webservices-endpoint=http://localhost:${local.server.port}/metaservices"
+})
+public class CollectorMetricsTest {
+
+    @MockBean
+    CatalogService catalogService;
+
+    @Autowired
+    ActorSystem actorSystem;
+
+    @Autowired
+    SpringExtension springExtension;
+
+    @Autowired
+    PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Test
+    public void testFetchWsdlIsMeasured() throws InterruptedException {
+        TestActorRef fetchWsdlActor = TestActorRef.create(actorSystem, springExtension.props("fetchWsdlActor"));
+        fetchWsdlActor.tell(createService("aService"), ActorRef.noSender());
+        verify(catalogService, timeout(5000).times(1)).saveWsdl(any(), any(), any());
+        awaitActorMessages("success", 1);
+
+        String scrape = prometheusMeterRegistry.scrape();
+        assertTrue(hasSample(scrape, "xroad_catalog_actor_messages_seconds_count", "actor=\"FetchWsdlActor\""));
+        assertTrue(hasSample(scrape, "xroad_catalog_outbound_calls_seconds_count", "call=\"getWsdl\""));
+        assertTrue(hasSample(scrape, "xroad_catalog_queue_time_seconds_count", "stage=\"target\""));
+        assertTrue(hasSample(scrape, "xroad_catalog_catalog_service_writes_seconds_count", "method=\"saveWsdl\""));
+    }
+
+    @Test
+    public void testFailedAsynchronousWorkIsMeasuredAsFailure() throws InterruptedException {
+        doThrow(new IllegalStateException("database down")).when(catalogService).saveWsdl(any(), any(), any());
+        long failuresBefore = actorMessages("failure");
+        TestActorRef fetchWsdlActor = TestActorRef.create(actorSystem, springExtension.props("fetchWsdlActor"));
+        fetchWsdlActor.tell(createService("failingService"), ActorRef.noSender());
+        verify(catalogService, timeout(5000).times(1)).saveWsdl(any(), any(), any());
+        awaitActorMessages("failure", failuresBefore + 1);
+        assertEquals(failuresBefore + 1, actorMessages("failure"));
+    }
+
+    @Test
+    public void testMailboxQueueTimeIsMeasuredPerActor() throws InterruptedException {
+        CollectionWork work = new CollectionWork(CollectionRunCoordinator.NO_RUN, createService("queuedService"));
+        Thread.sleep(50);
+        TestActorRef fetchWsdlActor = TestActorRef.create(actorSystem, springExtension.props("fetchWsdlActor"));
+        fetchWsdlActor.tell(work, ActorRef.noSender());
+        verify(catalogService, timeout(5000).times(1)).saveWsdl(any(), any(), any());
+
+        Timer queueTime = prometheusMeterRegistry.find(CollectorMetrics.ACTOR_QUEUE_TIME)
+                .tags("actor", "FetchWsdlActor").timer();
+        assertNotNull(queueTime);
+        assertTrue(queueTime.count() >= 1);
+        assertTrue(queueTime.max(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    private static XRoadServiceIdentifierType createService(String serviceCode) {
+        XRoadServiceIdentifierType service = new XRoadServiceIdentifierType();
+        service.setObjectType(XRoadObjectType.SERVICE);
+        service.setXRoadInstance("INSTANCE");
+        service.setMemberClass("CLASS");
+        service.setMemberCode("CODE");
+        service.setSubsystemCode("SUBSYSTEM");
+        service.setServiceCode(serviceCode);
+        service.setServiceVersion("v1");
+        return service;
+    }
+
+    /**
+     * The message is measured when the asynchronous save completes, which may be after the save was verified
+     */
+    private void awaitActorMessages(String outcome, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (actorMessages(outcome) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private long actorMessages(String outcome) {
+        Timer timer = prometheusMeterRegistry.find(CollectorMetrics.ACTOR_MESSAGES)
+                .tags("actor", "FetchWsdlActor", "outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static boolean hasSample(String scrape, String name, String label) {
+        return Arrays.stream(scrape.split("\n")).anyMatch(line -> line.startsWith(name + "{") && line.contains(label));
+    }
+}
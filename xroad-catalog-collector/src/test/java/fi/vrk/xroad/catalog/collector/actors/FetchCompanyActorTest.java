@@ -14,6 +14,7 @@ package fi.vrk.xroad.catalog.collector.actors;
 
 import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
 import fi.vrk.xroad.catalog.collector.extension.SpringExtension;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadClientIdentifierType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadObjectType;
@@ -40,6 +41,9 @@ public class FetchCompanyActorTest {
     @MockBean
     CatalogService catalogService;
 
+    @MockBean
+    ErrorLogWriter errorLogWriter;
+
     @Autowired
     ActorSystem actorSystem;
 
@@ -60,7 +64,7 @@ public class FetchCompanyActorTest {
         value.setObjectType(XRoadObjectType.SERVICE);
         clientType.setId(value);
         fetchCompanyActor.tell(clientType, ActorRef.noSender());
-        verify(companyService, times(1)).saveCompany(any());
+        verify(companyService, times(1)).saveCompanyGraph(any());
     }
 
     @Test
@@ -77,14 +81,14 @@ public class FetchCompanyActorTest {
         value.setObjectType(XRoadObjectType.SERVICE);
         clientType.setId(value);
         fetchCompanyActor.tell(clientType, ActorRef.noSender());
-        verify(catalogService, times(1)).saveErrorLog(any());
+        verify(errorLogWriter, times(1)).write(any());
     }
 
     @Test
     public void testBasicPlumbingWithInvalidMessageType() {
         TestActorRef fetchCompanyActor = TestActorRef.create(actorSystem, springExtension.props("fetchCompaniesActor"));
         fetchCompanyActor.tell("", ActorRef.noSender());
-        verify(companyService, times(0)).saveCompany(any());
+        verify(companyService, times(0)).saveCompanyGraph(any());
     }
 
 }
@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -67,8 +68,8 @@ public class FetchOpenApiActorTest {
         endpointList.add(endpoint);
         service.setEndpoints(endpointList);
         fetchOpenApiActor.tell(service, ActorRef.noSender());
-        verify(catalogService, times(1)).saveOpenApi(any(), any(), any());
-        verify(catalogService, times(1)).saveEndpoint(any(), any(), any(), any());
+        verify(catalogService, timeout(5000).times(1)).saveOpenApi(any(), any(), any());
+        verify(catalogService, timeout(5000).times(1)).saveEndpoint(any(), any(), any(), any());
     }
 
     @Test
@@ -21,12 +21,17 @@ import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.testkit.TestActorRef;
 import fi.vrk.xroad.catalog.persistence.OrganizationService;
+import fi.vrk.xroad.catalog.persistence.entity.Organization;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -61,14 +66,17 @@ public class FetchOrganizationActorTest {
         value.setObjectType(XRoadObjectType.SERVICE);
         clientType.setId(value);
         fetchOrganizationActor.tell(clientType, ActorRef.noSender());
-        verify(organizationService, times(3)).saveOrganization(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Organization>> organizations = ArgumentCaptor.forClass(Collection.class);
+        verify(organizationService, times(1)).saveOrganizations(organizations.capture());
+        assertEquals(3, organizations.getValue().size());
     }
 
     @Test
     public void testBasicPlumbingWithWrongMessageType() {
         TestActorRef fetchOrganizationActor = TestActorRef.create(actorSystem, springExtension.props("fetchOrganizationsActor"));
         fetchOrganizationActor.tell("Wrong message type object", ActorRef.noSender());
-        verify(organizationService, times(0)).saveOrganization(any());
+        verify(organizationService, times(0)).saveOrganizations(any());
     }
 
 }
@@ -0,0 +1,241 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.actors;
+
+import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
+import fi.vrk.xroad.catalog.collector.extension.SpringExtension;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
+import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
+import fi.vrk.xroad.catalog.collector.wsimport.XRoadClientIdentifierType;
+import fi.vrk.xroad.catalog.collector.wsimport.XRoadObjectType;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.TestActorRef;
+import fi.vrk.xroad.catalog.persistence.OrganizationService;
+import fi.vrk.xroad.catalog.persistence.entity.Organization;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Fetches 12 organizations in 6 batches of 2 from a slow organization API and saves them
+ * with a slow organization service.
+ */
+@SpringBootTest(classes = DevelopmentConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "xroad-catalog.fetch-organizations-url=http://organizations.test/api/Organization",
+        "xroad-catalog.fetch-organizations-limit=12",
+        "xroad-catalog.max-organizations-per-request=2",
+        "xroad-catalog.fetch-organizations-concurrency=2",
+        "xroad-catalog.fetch-organizations-requests-per-second=0"
+})
+public class FetchOrganizationsConcurrencyTest {
+
+    private static final int ORGANIZATIONS = 12;
+
+    private static final int BATCHES = 6;
+
+    private static final long REQUEST_MILLIS = 100;
+
+    private static final long SAVE_MILLIS = 50;
+
+    @MockBean
+    OrganizationService organizationService;
+
+    @MockBean
+    @Qualifier("organizationsRestOperations")
+    RestOperations restOperations;
+
+    @MockBean
+    ErrorLogWriter errorLogWriter;
+
+    @Autowired
+    ActorSystem actorSystem;
+
+    @Autowired
+    SpringExtension springExtension;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final List<Long> requestStarts = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Long> requestEnds = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Long> saveStarts = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<String> savedGuids = Collections.synchronizedList(new ArrayList<>());
+
+    private final Set<String> failingGuids = Collections.synchronizedSet(new HashSet<>());
+
+    @BeforeEach
+    public void setup() {
+        doAnswer(invocation -> respond(invocation.getArgument(0))).when(restOperations)
+                .exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class));
+        doAnswer(invocation -> {
+            Collection<Organization> organizations = invocation.getArgument(0);
+            saveStarts.add(System.nanoTime());
+            TimeUnit.MILLISECONDS.sleep(SAVE_MILLIS);
+            organizations.forEach(organization -> savedGuids.add(organization.getGuid()));
+            return organizations;
+        }).when(organizationService).saveOrganizations(any());
+    }
+
+    @Test
+    public void testRequestsInFlightAreLimited() {
+        TestActorRef fetchOrganizationsActor = createActor(2, 0.0);
+        fetchOrganizationsActor.tell(createClientType(), ActorRef.noSender());
+        assertEquals(BATCHES, requestStarts.size());
+        assertEquals(2, maxInFlight.get(), "Max requests in flight was " + maxInFlight.get());
+        // saving the first batch overlaps with downloading the following ones
+        long firstSaveStart = sorted(saveStarts).get(0);
+        long lastRequestEnd = sorted(requestEnds).get(BATCHES - 1);
+        assertTrue(firstSaveStart < lastRequestEnd, "Batches were saved only after all requests had finished");
+        assertEquals(guids(0, ORGANIZATIONS), sorted(savedGuids));
+    }
+
+    @Test
+    public void testConcurrencyBelowOneIsHandledAsOne() {
+        TestActorRef fetchOrganizationsActor = createActor(0, 0.0);
+        fetchOrganizationsActor.tell(createClientType(), ActorRef.noSender());
+        assertEquals(BATCHES, requestStarts.size());
+        assertEquals(1, maxInFlight.get(), "Max requests in flight was " + maxInFlight.get());
+        assertEquals(guids(0, ORGANIZATIONS), sorted(savedGuids));
+    }
+
+    @Test
+    public void testRequestsAreRateLimited() {
+        TestActorRef fetchOrganizationsActor = createActor(BATCHES, 10.0);
+        fetchOrganizationsActor.tell(createClientType(), ActorRef.noSender());
+        assertEquals(BATCHES, requestStarts.size());
+        List<Long> starts = sorted(requestStarts);
+        long spanMillis = TimeUnit.NANOSECONDS.toMillis(starts.get(BATCHES - 1) - starts.get(0));
+        // the first request is not throttled, the remaining ones are 100 ms apart
+        assertTrue(spanMillis >= 450, "Requests were started within " + spanMillis + " ms");
+        assertEquals(guids(0, ORGANIZATIONS), sorted(savedGuids));
+    }
+
+    @Test
+    public void testEachOrganizationIsSavedOnceWhenFetchesFail() {
+        failingGuids.add("guid-4");
+        failingGuids.add("guid-9");
+        TestActorRef fetchOrganizationsActor = createActor(3, 0.0);
+        fetchOrganizationsActor.tell(createClientType(), ActorRef.noSender());
+        assertEquals(BATCHES, requestStarts.size());
+        List<String> expected = new ArrayList<>(guids(0, ORGANIZATIONS));
+        expected.removeAll(Arrays.asList("guid-4", "guid-5", "guid-8", "guid-9"));
+        assertEquals(expected, sorted(savedGuids));
+        verify(errorLogWriter, times(2)).write(any());
+    }
+
+    private TestActorRef createActor(int concurrency, double requestsPerSecond) {
+        TestActorRef fetchOrganizationsActor = TestActorRef.create(actorSystem, springExtension.props("fetchOrganizationsActor"));
+        Object actor = fetchOrganizationsActor.underlyingActor();
+        ReflectionTestUtils.setField(actor, "fetchOrganizationsConcurrency", concurrency);
+        ReflectionTestUtils.setField(actor, "fetchOrganizationsRequestsPerSecond", requestsPerSecond);
+        return fetchOrganizationsActor;
+    }
+
+    private ResponseEntity<String> respond(String url) throws InterruptedException {
+        int guidsIndex = url.indexOf("/list?guids=");
+        if (guidsIndex < 0) {
+            JSONArray itemList = new JSONArray();
+            guids(0, ORGANIZATIONS).forEach(guid -> itemList.put(new JSONObject().put("id", guid)));
+            return ResponseEntity.ok(new JSONObject().put("itemList", itemList).toString());
+        }
+        requestStarts.add(System.nanoTime());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            TimeUnit.MILLISECONDS.sleep(REQUEST_MILLIS);
+            List<String> guids = Arrays.asList(url.substring(guidsIndex + "/list?guids=".length()).split(","));
+            if (guids.stream().anyMatch(failingGuids::contains)) {
+                throw new RestClientException("Service unavailable");
+            }
+            JSONArray items = new JSONArray();
+            guids.forEach(guid -> items.put(createOrganizationJson(guid)));
+            return ResponseEntity.ok(items.toString());
+        } finally {
+            inFlight.decrementAndGet();
+            requestEnds.add(System.nanoTime());
+        }
+    }
+
+    private static JSONObject createOrganizationJson(String guid) {
+        return new JSONObject()
+                .put("id", guid)
+                .put("organizationNames", new JSONArray())
+                .put("organizationDescriptions", new JSONArray())
+                .put("emails", new JSONArray())
+                .put("phoneNumbers", new JSONArray())
+                .put("webPages", new JSONArray())
+                .put("addresses", new JSONArray());
+    }
+
+    private static List<String> guids(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "guid-" + i).sorted().collect(Collectors.toList());
+    }
+
+    private static <T extends Comparable<T>> List<T> sorted(Collection<T> values) {
+        synchronized (values) {
+            return values.stream().sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static ClientType createClientType() {
+        ClientType clientType = new ClientType();
+        XRoadClientIdentifierType value = new XRoadClientIdentifierType();
+        value.setXRoadInstance("INSTANCE");
+        value.setMemberClass("CLASS");
+        value.setMemberCode("CODE");
+        value.setSubsystemCode("SUBSYSTEM");
+        value.setServiceCode("aService");
+        value.setServiceVersion("v1");
+        value.setObjectType(XRoadObjectType.SERVICE);
+        clientType.setId(value);
+        return clientType;
+    }
+}
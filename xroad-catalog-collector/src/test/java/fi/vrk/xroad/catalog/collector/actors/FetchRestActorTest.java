@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -64,8 +65,8 @@ public class FetchRestActorTest {
         endpointList.add(Endpoint.builder().method("GET").path("/getServices").build());
         service.setEndpoints(endpointList);
         fetchRestActor.tell(service, ActorRef.noSender());
-        verify(catalogService, times(1)).saveRest(any(), any(), any());
-        verify(catalogService, times(1)).saveEndpoint(any(), any(), any(), any());
+        verify(catalogService, timeout(5000).times(1)).saveRest(any(), any(), any());
+        verify(catalogService, timeout(5000).times(1)).saveEndpoint(any(), any(), any(), any());
     }
 
     @Test
@@ -27,6 +27,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -57,7 +58,7 @@ public class FetchWsdlActorTest {
         service.setServiceCode("aService");
         service.setServiceVersion("v1");
         fetchWsdlActor.tell(service, ActorRef.noSender());
-        verify(catalogService, times(1)).saveWsdl(any(), any(), any());
+        verify(catalogService, timeout(5000).times(1)).saveWsdl(any(), any(), any());
     }
 
     @Test
@@ -15,6 +15,8 @@ package fi.vrk.xroad.catalog.collector.actors;
 import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
 import fi.vrk.xroad.catalog.collector.extension.SpringExtension;
 import fi.vrk.xroad.catalog.collector.util.ClientListUtil;
+import fi.vrk.xroad.catalog.collector.util.CollectionRunCoordinator;
+import fi.vrk.xroad.catalog.collector.util.ErrorLogWriter;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientList;
 import fi.vrk.xroad.catalog.collector.wsimport.ClientType;
 import fi.vrk.xroad.catalog.collector.wsimport.XRoadClientIdentifierType;
@@ -36,12 +38,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.event.annotation.AfterTestClass;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestOperations;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ActiveProfiles("development")
 @SpringBootTest(classes = DevelopmentConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -51,6 +55,12 @@ public class ListClientsActorTest extends TestKit {
     @MockBean
     CatalogService catalogService;
 
+    @MockBean
+    CollectionRunCoordinator collectionRunCoordinator;
+
+    @MockBean
+    ErrorLogWriter errorLogWriter;
+
     @Autowired
     ActorSystem actorSystem;
 
@@ -85,6 +95,7 @@ public class ListClientsActorTest extends TestKit {
         listClientsActor = clientsRef.underlyingActor();
         ReflectionTestUtils.setField(listClientsActor, "host", "http://localhost");
         ReflectionTestUtils.setField(listClientsActor, "fetchUnlimited", Boolean.TRUE);
+        when(collectionRunCoordinator.tryStartRun()).thenReturn(1L);
         MockitoAnnotations.initMocks(this);
     }
 
@@ -101,7 +112,7 @@ public class ListClientsActorTest extends TestKit {
             clientList.getMember().add(createClientType(XRoadObjectType.SUBSYSTEM, "member2", "sssub1"));
             clientList.getMember().add(createClientType(XRoadObjectType.SUBSYSTEM, "member2", "sssub2"));
 
-            mocked.when(() -> ClientListUtil.clientListFromResponse(any(String.class), any(CatalogService.class))).thenReturn(clientList);
+            mocked.when(() -> ClientListUtil.clientListFromResponse(any(String.class), any(RestOperations.class), any(ErrorLogWriter.class))).thenReturn(clientList);
 
             listClientsActor.onReceive(ListClientsActor.START_COLLECTING);
 
@@ -126,7 +137,7 @@ public class ListClientsActorTest extends TestKit {
             clientList.getMember().add(createClientType(XRoadObjectType.SUBSYSTEM, "member2", "sssub1"));
             clientList.getMember().add(createClientType(XRoadObjectType.SUBSYSTEM, "member2", "sssub2"));
 
-            mocked.when(() -> ClientListUtil.clientListFromResponse(any(String.class), any(CatalogService.class))).thenReturn(clientList);
+            mocked.when(() -> ClientListUtil.clientListFromResponse(any(String.class), any(RestOperations.class), any(ErrorLogWriter.class))).thenReturn(clientList);
 
             listClientsActor.onReceive(ListClientsActor.START_COLLECTING);
 
@@ -138,7 +149,7 @@ public class ListClientsActorTest extends TestKit {
     public void testOnReceiveWithEmptyMemberList() throws Exception {
         try (MockedStatic mocked = mockStatic(ClientListUtil.class)) {
             ClientList clientList = new ClientList();
-            mocked.when(() -> ClientListUtil.clientListFromResponse(any(String.class), any(CatalogService.class))).thenReturn(clientList);
+            mocked.when(() -> ClientListUtil.clientListFromResponse(any(String.class), any(RestOperations.class), any(ErrorLogWriter.class))).thenReturn(clientList);
             listClientsActor.onReceive(ListClientsActor.START_COLLECTING);
             verify(catalogService, times(1)).saveAllMembersAndSubsystems(any());
         }
@@ -147,7 +158,7 @@ public class ListClientsActorTest extends TestKit {
     @Test
     public void testSaveErrorLog() throws Exception {
         listClientsActor.onReceive(ListClientsActor.START_COLLECTING);
-        verify(catalogService, times(1)).saveErrorLog(any());
+        verify(errorLogWriter, times(1)).write(any());
     }
 
     protected ClientType createClientType(XRoadObjectType objectType, String memberCode, String subsystemCode) {
@@ -30,6 +30,7 @@ import org.springframework.test.context.TestPropertySource;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -67,7 +68,7 @@ public class ListMethodsActorTest {
         value.setObjectType(XRoadObjectType.SUBSYSTEM);
         clientType.setId(value);
         listMethodsActor.tell(clientType, ActorRef.noSender());
-        verify(catalogService, times(1)).saveServices(any(), any());
+        verify(catalogService, timeout(5000).times(1)).saveServices(any(), any());
     }
 
     @Test
@@ -0,0 +1,153 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.actors;
+
+import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
+import fi.vrk.xroad.catalog.collector.util.TargetConcurrencyLimiter;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = DevelopmentConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "xroad-catalog.target-concurrency-initial-limit=2",
+        "xroad-catalog.target-concurrency-min-limit=1",
+        "xroad-catalog.target-concurrency-max-limit=3",
+        "xroad-catalog.target-latency-threshold-ms=100"
+})
+public class TargetConcurrencyLimiterTest {
+
+    @MockBean
+    CatalogService catalogService;
+
+    @Autowired
+    TargetConcurrencyLimiter targetConcurrencyLimiter;
+
+    @Test
+    public void testCallsExceedingLimitAreQueued() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = targetConcurrencyLimiter.submit("queued", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return "ok";
+                }, executor);
+            }
+            Thread.sleep(200);
+            assertEquals(2, maxRunning.get());
+            release.countDown();
+            CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+            assertTrue(maxRunning.get() <= 3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLimitAdaptsToFailures() throws Exception {
+        targetConcurrencyLimiter.submit("failing", () -> null, Runnable::run).get(5, TimeUnit.SECONDS);
+        assertEquals(1, targetConcurrencyLimiter.getLimit("failing"));
+        for (int i = 0; i < 10; i++) {
+            targetConcurrencyLimiter.submit("failing", () -> "ok", Runnable::run).get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(3, targetConcurrencyLimiter.getLimit("failing"));
+    }
+
+    @Test
+    public void testFailingTargetIsBackedOff() throws Exception {
+        CompletableFuture<String> thrown = targetConcurrencyLimiter.submit("unreachable", () -> {
+            throw new IllegalStateException("connection refused");
+        }, Runnable::run);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> thrown.get(5, TimeUnit.SECONDS));
+        assertEquals("connection refused", e.getCause().getMessage());
+        assertEquals(1, targetConcurrencyLimiter.getLimit("unreachable"));
+
+        // a call returning a fallback value is a failure when the predicate says so
+        for (int i = 0; i < 10; i++) {
+            targetConcurrencyLimiter.submit("fallback", () -> "ok", Runnable::run).get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(3, targetConcurrencyLimiter.getLimit("fallback"));
+        String fallback = targetConcurrencyLimiter.submit("fallback", () -> "", result -> !result.isEmpty(),
+                Runnable::run).get(5, TimeUnit.SECONDS);
+        assertEquals("", fallback);
+        assertEquals(1, targetConcurrencyLimiter.getLimit("fallback"));
+    }
+
+    @Test
+    public void testSlotIsReleasedWhenCallCanNotComplete() throws Exception {
+        CompletableFuture<String> rejected = targetConcurrencyLimiter.submit("rejecting", () -> "ok", command -> {
+            throw new RejectedExecutionException("pool shut down");
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertEquals("pool shut down", e.getCause().getMessage());
+
+        String value = targetConcurrencyLimiter.submit("predicate", () -> "ok", result -> {
+            throw new IllegalStateException("broken predicate");
+        }, Runnable::run).get(5, TimeUnit.SECONDS);
+        assertEquals("ok", value);
+        assertEquals(1, targetConcurrencyLimiter.getLimit("predicate"));
+
+        // the limit of 1 would block the next call forever if the slots had leaked
+        assertEquals("ok", targetConcurrencyLimiter.submit("rejecting", () -> "ok", Runnable::run)
+                .get(5, TimeUnit.SECONDS));
+        assertEquals("ok", targetConcurrencyLimiter.submit("predicate", () -> "ok", Runnable::run)
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWaitingForExecutorIsNotCountedAsLatency() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch busy = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    busy.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            CompletableFuture<String> queued = targetConcurrencyLimiter.submit("queued-on-executor", () -> "ok", executor);
+            Thread.sleep(300);
+            busy.countDown();
+            assertEquals("ok", queued.get(5, TimeUnit.SECONDS));
+            assertEquals(2, targetConcurrencyLimiter.getLimit("queued-on-executor"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
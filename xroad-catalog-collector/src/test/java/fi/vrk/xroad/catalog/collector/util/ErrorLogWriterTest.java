@@ -0,0 +1,103 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.collector.util;
+
+import fi.vrk.xroad.catalog.collector.configuration.DevelopmentConfiguration;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = DevelopmentConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {"xroad-catalog.error-log-buffer-size=2",
+        "xroad-catalog.error-log-flush-interval-ms=600000"})
+public class ErrorLogWriterTest {
+
+    @MockBean
+    CatalogService catalogService;
+
+    @Autowired
+    ErrorLogWriter errorLogWriter;
+
+    @Test
+    public void testIdenticalErrorsAreMerged() {
+        assertTrue(errorLogWriter.write(errorLog("Connection refused", "SUBSYSTEM1")));
+        assertTrue(errorLogWriter.write(errorLog("Connection refused", "SUBSYSTEM1")));
+        assertTrue(errorLogWriter.write(errorLog("Connection refused", "SUBSYSTEM1")));
+        assertTrue(errorLogWriter.write(errorLog("Connection refused", "SUBSYSTEM2")));
+        verify(catalogService, never()).saveErrorLogs(any());
+
+        errorLogWriter.flush();
+
+        List<ErrorLog> saved = captureSaved(1);
+        assertEquals(2, saved.size());
+        assertEquals("SUBSYSTEM1", saved.get(0).getSubsystemCode());
+        assertEquals(3, saved.get(0).getOccurrences());
+        assertEquals("SUBSYSTEM2", saved.get(1).getSubsystemCode());
+        assertEquals(1, saved.get(1).getOccurrences());
+    }
+
+    @Test
+    public void testErrorsAreDroppedWhenBufferIsFull() {
+        assertTrue(errorLogWriter.write(errorLog("Error 1", "SUBSYSTEM1")));
+        assertTrue(errorLogWriter.write(errorLog("Error 2", "SUBSYSTEM1")));
+        assertFalse(errorLogWriter.write(errorLog("Error 3", "SUBSYSTEM1")));
+        assertTrue(errorLogWriter.write(errorLog("Error 1", "SUBSYSTEM1")));
+
+        errorLogWriter.flush();
+
+        List<ErrorLog> saved = captureSaved(1);
+        assertEquals(2, saved.size());
+        assertEquals("Error 1", saved.get(0).getMessage());
+        assertEquals(2, saved.get(0).getOccurrences());
+        assertEquals("Error 2", saved.get(1).getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ErrorLog> captureSaved(int batches) {
+        ArgumentCaptor<Collection<ErrorLog>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(catalogService, times(batches)).saveErrorLogs(captor.capture());
+        List<ErrorLog> saved = new ArrayList<>();
+        captor.getAllValues().forEach(saved::addAll);
+        return saved;
+    }
+
+    private static ErrorLog errorLog(String message, String subsystemCode) {
+        return ErrorLog.builder()
+                .message(message)
+                .code("500")
+                .created(LocalDateTime.now())
+                .xRoadInstance("DEV")
+                .memberClass("GOV")
+                .memberCode("1234")
+                .subsystemCode(subsystemCode)
+                .build();
+    }
+}
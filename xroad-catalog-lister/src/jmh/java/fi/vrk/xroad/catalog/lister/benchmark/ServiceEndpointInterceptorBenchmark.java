@@ -0,0 +1,106 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister.benchmark;
+
+import fi.vrk.xroad.catalog.lister.ServiceEndpointInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.SoapHeader;
+import org.springframework.ws.soap.SoapHeaderElement;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request overhead of echoing the X-Road SOAP headers of a request to its response.
+ * The former implementation looked up a new TransformerFactory and created a new Transformer for every
+ * response, ServiceEndpointInterceptor now reuses a cached factory and a transformer per thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceEndpointInterceptorBenchmark {
+
+    private static final String REQUEST = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:xrd=\"http://x-road.eu/xsd/xroad.xsd\" xmlns:id=\"http://x-road.eu/xsd/identifiers\">"
+            + "<SOAP-ENV:Header>"
+            + "<xrd:client id:objectType=\"SUBSYSTEM\"><id:xRoadInstance>DEV</id:xRoadInstance>"
+            + "<id:memberClass>GOV</id:memberClass><id:memberCode>1234</id:memberCode>"
+            + "<id:subsystemCode>TestClient</id:subsystemCode></xrd:client>"
+            + "<xrd:service id:objectType=\"SERVICE\"><id:xRoadInstance>DEV</id:xRoadInstance>"
+            + "<id:memberClass>GOV</id:memberClass><id:memberCode>5678</id:memberCode>"
+            + "<id:subsystemCode>Catalog</id:subsystemCode><id:serviceCode>GetWsdl</id:serviceCode></xrd:service>"
+            + "<xrd:id>4894e35d-bf0f-44a6-867a-8e51f1daa7e0</xrd:id>"
+            + "<xrd:userId>EE12345678901</xrd:userId>"
+            + "<xrd:protocolVersion>4.0</xrd:protocolVersion>"
+            + "</SOAP-ENV:Header>"
+            + "<SOAP-ENV:Body><xrcl:GetWsdl xmlns:xrcl=\"http://xroad.vrk.fi/xroad-catalog-lister\">"
+            + "<xrcl:externalId>1000</xrcl:externalId></xrcl:GetWsdl></SOAP-ENV:Body>"
+            + "</SOAP-ENV:Envelope>";
+
+    private SaajSoapMessageFactory messageFactory;
+
+    private ServiceEndpointInterceptor interceptor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        interceptor = new ServiceEndpointInterceptor();
+    }
+
+    @Benchmark
+    public WebServiceMessage newTransformerPerRequest() throws Exception {
+        MessageContext messageContext = createMessageContext();
+        SoapHeader reqHeader = ((SoapMessage) messageContext.getRequest()).getSoapHeader();
+        SoapHeader respHeader = ((SoapMessage) messageContext.getResponse()).getSoapHeader();
+        TransformerFactory transformerFactory = TransformerFactory.newInstance();
+        transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+        Transformer transformer = transformerFactory.newTransformer();
+        Iterator<SoapHeaderElement> iter = reqHeader.examineAllHeaderElements();
+        while (iter.hasNext()) {
+            transformer.transform(iter.next().getSource(), respHeader.getResult());
+        }
+        return messageContext.getResponse();
+    }
+
+    @Benchmark
+    public WebServiceMessage cachedTransformer() throws Exception {
+        MessageContext messageContext = createMessageContext();
+        interceptor.handleResponse(messageContext, null);
+        return messageContext.getResponse();
+    }
+
+    private MessageContext createMessageContext() throws Exception {
+        WebServiceMessage request = messageFactory.createWebServiceMessage(
+                new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        return new DefaultMessageContext(request, messageFactory);
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister.benchmark;
+
+import fi.vrk.xroad.catalog.lister.SharedParamsParser;
+import fi.vrk.xroad.catalog.persistence.dto.MemberInfo;
+import fi.vrk.xroad.catalog.persistence.dto.SecurityServerData;
+import fi.vrk.xroad.catalog.persistence.dto.SecurityServerDataList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of a generated shared-params.xml of about 50 MB (70 000 members with three subsystems
+ * each and 12 000 security servers with 20 clients each). The DOM baseline loads the whole document into
+ * memory before matching members with security servers, SharedParamsParser reads the file in a single
+ * streaming pass. A new parser is created for every invocation so that its parsed file cache is not used.
+ * Run with -prof gc to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SharedParamsParserBenchmark {
+
+    private static final int MEMBERS = 70_000;
+    private static final int SUBSYSTEMS_PER_MEMBER = 3;
+    private static final int SECURITY_SERVERS = 12_000;
+    private static final int CLIENTS_PER_SECURITY_SERVER = 20;
+
+    private Path sharedParams;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sharedParams = Files.createTempFile("shared-params", ".xml");
+        try (BufferedWriter writer = Files.newBufferedWriter(sharedParams, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+            writer.write("<ns3:conf xmlns:ns2=\"http://x-road.eu/xsd/identifiers\" "
+                    + "xmlns:ns3=\"http://x-road.eu/xsd/xroad.xsd\">\n");
+            writer.write("    <instanceIdentifier>BENCHMARK</instanceIdentifier>\n");
+            for (int i = 0; i < MEMBERS; i++) {
+                writer.write("    <member id=\"m" + i + "\">\n");
+                writer.write("        <memberClass>\n");
+                writer.write("            <code>GOV</code>\n");
+                writer.write("            <description>Government organizations</description>\n");
+                writer.write("        </memberClass>\n");
+                writer.write("        <memberCode>" + i + "-0</memberCode>\n");
+                writer.write("        <name>Member organization " + i + "</name>\n");
+                for (int k = 0; k < SUBSYSTEMS_PER_MEMBER; k++) {
+                    writer.write("        <subsystem id=\"m" + i + "-s" + k + "\">\n");
+                    writer.write("            <subsystemCode>Subsystem" + k + "</subsystemCode>\n");
+                    writer.write("        </subsystem>\n");
+                }
+                writer.write("    </member>\n");
+            }
+            for (int i = 0; i < SECURITY_SERVERS; i++) {
+                writer.write("    <securityServer>\n");
+                writer.write("        <owner>m" + i + "</owner>\n");
+                writer.write("        <serverCode>ss" + i + "</serverCode>\n");
+                writer.write("        <address>10.0." + (i / 256) + "." + (i % 256) + "</address>\n");
+                writer.write("        <authCertHash>Q2VydGlmaWNhdGUgaGFzaCBwbGFjZWhvbGRlcg==</authCertHash>\n");
+                for (int c = 0; c < CLIENTS_PER_SECURITY_SERVER; c++) {
+                    writer.write("        <client>m" + ((i + c) % MEMBERS) + "-s" + (c % SUBSYSTEMS_PER_MEMBER)
+                            + "</client>\n");
+                }
+                writer.write("    </securityServer>\n");
+            }
+            writer.write("</ns3:conf>\n");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(sharedParams);
+    }
+
+    @Benchmark
+    public List<SecurityServerData> domDocument() throws Exception {
+        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document document = documentBuilderFactory.newDocumentBuilder().parse(sharedParams.toFile());
+        Element root = document.getDocumentElement();
+
+        Map<String, MemberInfo> membersById = new HashMap<>();
+        Map<String, MemberInfo> clientsById = new HashMap<>();
+        NodeList members = root.getElementsByTagName("member");
+        for (int i = 0; i < members.getLength(); i++) {
+            Element member = (Element) members.item(i);
+            Element memberClass = (Element) member.getElementsByTagName("memberClass").item(0);
+            MemberInfo memberInfo = MemberInfo.builder()
+                    .memberClass(memberClass.getElementsByTagName("code").item(0).getTextContent())
+                    .memberCode(member.getElementsByTagName("memberCode").item(0).getTextContent())
+                    .name(member.getElementsByTagName("name").item(0).getTextContent()).build();
+            membersById.put(member.getAttribute("id"), memberInfo);
+            clientsById.put(member.getAttribute("id"), memberInfo);
+            NodeList subsystems = member.getElementsByTagName("subsystem");
+            for (int k = 0; k < subsystems.getLength(); k++) {
+                Element subsystem = (Element) subsystems.item(k);
+                clientsById.put(subsystem.getAttribute("id"), MemberInfo.builder()
+                        .memberClass(memberInfo.getMemberClass())
+                        .memberCode(memberInfo.getMemberCode())
+                        .subsystemCode(subsystem.getElementsByTagName("subsystemCode").item(0).getTextContent())
+                        .name(memberInfo.getName()).build());
+            }
+        }
+
+        List<SecurityServerData> securityServerDataList = new ArrayList<>();
+        NodeList securityServers = root.getElementsByTagName("securityServer");
+        for (int i = 0; i < securityServers.getLength(); i++) {
+            Element securityServer = (Element) securityServers.item(i);
+            List<MemberInfo> clients = new ArrayList<>();
+            NodeList clientIds = securityServer.getElementsByTagName("client");
+            for (int c = 0; c < clientIds.getLength(); c++) {
+                MemberInfo client = clientsById.get(clientIds.item(c).getTextContent());
+                if (client != null) {
+                    clients.add(client);
+                }
+            }
+            securityServerDataList.add(SecurityServerData.builder()
+                    .owner(membersById.get(securityServer.getElementsByTagName("owner").item(0).getTextContent()))
+                    .serverCode(securityServer.getElementsByTagName("serverCode").item(0).getTextContent())
+                    .address(securityServer.getElementsByTagName("address").item(0).getTextContent())
+                    .clients(clients).build());
+        }
+        return securityServerDataList;
+    }
+
+    @Benchmark
+    public SecurityServerDataList streamingParser() throws Exception {
+        return new SharedParamsParser().parseDetails(sharedParams.toString());
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister;
+
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageException;
+import org.springframework.ws.transport.TransportConstants;
+import org.springframework.ws.transport.TransportOutputStream;
+
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.MimeHeader;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * SAAJ message that can write large content straight to the output stream, either a text value as a CDATA
+ * section or content produced while the message is written. The SAAJ envelope only contains {@link #PLACEHOLDER}
+ * in place of the content, so the envelope stays small and the content is never copied into the DOM or into
+ * the serialized envelope.
+ */
+public class CdataSoapMessage extends SaajSoapMessage {
+
+    public static final String PLACEHOLDER = "xroad-catalog-cdata-placeholder";
+
+    private static final String CDATA_START = "<![CDATA[";
+
+    private static final String CDATA_END = "]]>";
+
+    private StreamedContent content;
+
+    public CdataSoapMessage(SOAPMessage soapMessage, MessageFactory messageFactory) {
+        super(soapMessage, messageFactory);
+    }
+
+    /**
+     * Sets the text written as CDATA in place of the placeholder
+     * @param cdata the text
+     */
+    public void setCdata(String cdata) {
+        this.content = writer -> writeCdata(writer, cdata);
+    }
+
+    /**
+     * Sets the content written in place of the placeholder
+     * @param content writes the content, called once when the message is written
+     */
+    public void setContent(StreamedContent content) {
+        this.content = content;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (content == null) {
+            super.writeTo(outputStream);
+            return;
+        }
+        try {
+            SOAPMessage message = getSaajMessage();
+            message.saveChanges();
+            Object encoding = message.getProperty(SOAPMessage.CHARACTER_SET_ENCODING);
+            Charset charset = encoding != null ? Charset.forName(encoding.toString()) : StandardCharsets.UTF_8;
+            ByteArrayOutputStream envelopeBytes = new ByteArrayOutputStream();
+            message.writeTo(envelopeBytes);
+            String envelope = envelopeBytes.toString(charset);
+            int placeholderIndex = envelope.lastIndexOf(PLACEHOLDER);
+            if (placeholderIndex == -1) {
+                throw new IllegalStateException("CDATA placeholder not found in SOAP message");
+            }
+            if (outputStream instanceof TransportOutputStream) {
+                // the length of the written message is not known beforehand
+                TransportOutputStream transportOutputStream = (TransportOutputStream) outputStream;
+                for (Iterator<?> iterator = message.getMimeHeaders().getAllHeaders(); iterator.hasNext();) {
+                    MimeHeader mimeHeader = (MimeHeader) iterator.next();
+                    if (!TransportConstants.HEADER_CONTENT_LENGTH.equalsIgnoreCase(mimeHeader.getName())) {
+                        transportOutputStream.addHeader(mimeHeader.getName(), mimeHeader.getValue());
+                    }
+                }
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, charset));
+            writer.write(envelope, 0, placeholderIndex);
+            content.writeTo(writer);
+            int suffixIndex = placeholderIndex + PLACEHOLDER.length();
+            writer.write(envelope, suffixIndex, envelope.length() - suffixIndex);
+            writer.flush();
+        } catch (SOAPException ex) {
+            throw new SaajSoapMessageException("Could not write message to OutputStream: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Content written in place of the placeholder. Text written by it must be escaped as XML.
+     */
+    @FunctionalInterface
+    public interface StreamedContent {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private static void writeCdata(Writer writer, String data) throws IOException {
+        writer.write(CDATA_START);
+        int start = 0;
+        int end = data.indexOf(CDATA_END);
+        while (end != -1) {
+            // split the section so that the data cannot terminate it
+            writer.write(data, start, end + 2 - start);
+            writer.write(CDATA_END);
+            writer.write(CDATA_START);
+            start = end + 2;
+            end = data.indexOf(CDATA_END, start);
+        }
+        writer.write(data, start, data.length() - start);
+        writer.write(CDATA_END);
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import fi.vrk.xroad.catalog.persistence.entity.OpenApi;
+import fi.vrk.xroad.catalog.persistence.entity.Wsdl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read-through cache of WSDL and OpenAPI descriptors keyed by external id. The cache is bounded by
+ * the number of stored bytes and can optionally store the descriptors gzip compressed.
+ * The descriptor version recorded by the collector is polled and all entries are dropped when it changes.
+ */
+@Slf4j
+@Component
+public class DescriptorCache {
+
+    public static final String CACHE_NAME = "xroad.catalog.descriptor.cache";
+
+    private static final long UNKNOWN_VERSION = -1L;
+
+    private enum DescriptorType { WSDL, OPENAPI }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class DescriptorKey {
+        private final DescriptorType type;
+        private final String externalId;
+    }
+
+    private final CatalogService catalogService;
+
+    private final boolean compress;
+
+    private final Cache<DescriptorKey, byte[]> cache;
+
+    private final AtomicLong knownVersion = new AtomicLong(UNKNOWN_VERSION);
+
+    public DescriptorCache(CatalogService catalogService,
+                           MeterRegistry meterRegistry,
+                           @Value("${xroad-catalog.descriptor-cache.max-bytes:67108864}") long maxBytes,
+                           @Value("${xroad-catalog.descriptor-cache.compress:false}") boolean compress) {
+        this.catalogService = catalogService;
+        this.compress = compress;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((DescriptorKey key, byte[] value) -> value.length)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the data of a WSDL
+     * @param externalId external id of the WSDL
+     * @return WSDL data, null if not found
+     */
+    public String getWsdl(String externalId) {
+        return get(DescriptorType.WSDL, externalId, id -> {
+            Wsdl wsdl = catalogService.getWsdl(id);
+            return wsdl == null ? null : wsdl.getData();
+        });
+    }
+
+    /**
+     * Returns the data of an OpenAPI description
+     * @param externalId external id of the OpenAPI description
+     * @return OpenAPI data, null if not found
+     */
+    public String getOpenApi(String externalId) {
+        return get(DescriptorType.OPENAPI, externalId, id -> {
+            OpenApi openApi = catalogService.getOpenApi(id);
+            return openApi == null ? null : openApi.getData();
+        });
+    }
+
+    /**
+     * Drops all cached descriptors if the descriptor version has changed since the previous check
+     */
+    @Scheduled(fixedDelayString = "${xroad-catalog.descriptor-cache.version-poll-interval-ms:30000}")
+    public void checkVersion() {
+        long version = catalogService.getDescriptorVersion();
+        long previousVersion = knownVersion.getAndSet(version);
+        if (previousVersion != version) {
+            cache.invalidateAll();
+            if (previousVersion != UNKNOWN_VERSION) {
+                log.info("Descriptor version changed from {} to {}, cached descriptors dropped", previousVersion, version);
+            }
+        }
+    }
+
+    private String get(DescriptorType type, String externalId, Function<String, String> loader) {
+        DescriptorKey key = new DescriptorKey(type, externalId);
+        byte[] stored = cache.getIfPresent(key);
+        if (stored != null) {
+            return decode(stored);
+        }
+        long versionBeforeLoad = knownVersion.get();
+        String data = loader.apply(externalId);
+        if (data != null) {
+            cache.put(key, encode(data));
+            // the data may have been read before a version change that has already dropped the cache
+            if (knownVersion.get() != versionBeforeLoad) {
+                cache.invalidate(key);
+            }
+        }
+        return data;
+    }
+
+    private byte[] encode(String data) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        if (!compress) {
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private String decode(byte[] stored) {
+        if (!compress) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
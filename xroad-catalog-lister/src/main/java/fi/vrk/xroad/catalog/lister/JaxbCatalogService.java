@@ -32,6 +32,19 @@ public interface JaxbCatalogService {
      */
     Iterable<Member> getAllMembers(XMLGregorianCalendar startDateTime, XMLGregorianCalendar endDateTime);
 
+    /**
+     * Same as {@link #getAllMembers(XMLGregorianCalendar, XMLGregorianCalendar)} except that returns one page
+     * of members ordered by member id
+     *
+     * @param startDateTime creation datetime from
+     * @param endDateTime creation datetime to
+     * @param afterId member id to continue listing after, 0 for the first page
+     * @param pageSize maximum number of members returned
+     * @return page of JAXB generated Members
+     */
+    MemberPage getMembers(XMLGregorianCalendar startDateTime, XMLGregorianCalendar endDateTime,
+                          long afterId, int pageSize);
+
     /**
      * Returns all errorLog entries
      * @param startDateTime creation datetime from
@@ -19,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.List;
 
 @Component
 @Slf4j
@@ -45,6 +46,17 @@ public class JaxbCatalogServiceImpl implements JaxbCatalogService {
         return jaxbServiceConverter.convertMembers(entities, false);
     }
 
+    @Override
+    public MemberPage getMembers(XMLGregorianCalendar startDateTime, XMLGregorianCalendar endDateTime,
+                                 long afterId, int pageSize) {
+        List<Long> ids = catalogService.getMemberIds(jaxbServiceConverter.toLocalDateTime(startDateTime),
+                jaxbServiceConverter.toLocalDateTime(endDateTime), afterId, pageSize);
+        // the page is defined by the ids, a member removed before its tree is loaded does not end the listing
+        Long nextAfterId = ids.size() < pageSize ? null : ids.get(ids.size() - 1);
+        List<fi.vrk.xroad.catalog.persistence.entity.Member> entities = catalogService.getMembers(ids);
+        return new MemberPage(jaxbServiceConverter.convertMembers(entities, false), nextAfterId);
+    }
+
     @Override
     public Iterable<fi.vrk.xroad.xroad_catalog_lister.ErrorLog> getErrorLog(XMLGregorianCalendar startDateTime,
                                                                             XMLGregorianCalendar endDateTime) {
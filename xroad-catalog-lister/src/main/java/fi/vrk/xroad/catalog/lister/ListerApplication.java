@@ -16,9 +16,11 @@ import fi.vrk.xroad.catalog.persistence.CatalogService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @ComponentScan(basePackageClasses = {ListerApplication.class, CatalogService.class})
 @SpringBootApplication
+@EnableScheduling
 public class ListerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,134 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister;
+
+import fi.vrk.xroad.xroad_catalog_lister.Member;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPBody;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Writes the members of an unpaged ListMembers response. The endpoint leaves the member list empty and puts
+ * a {@link MemberPageIterator} in the {@link #MEMBERS_PROPERTY} message context property. For a
+ * {@link CdataSoapMessage} the members are loaded, marshalled and written to the output stream one page at
+ * a time while the response is written, so the whole member list is never held in memory.
+ */
+public class MemberListInterceptor implements EndpointInterceptor {
+
+    public static final String MEMBERS_PROPERTY = MemberListInterceptor.class.getName() + ".members";
+
+    private static final QName RESPONSE_NAME = new QName(ServiceEndpoint.NAMESPACE_URI, "ListMembersResponse");
+
+    private static final QName MEMBER_NAME = new QName(ServiceEndpoint.NAMESPACE_URI, "member");
+
+    private static final String MEMBER_LIST = "memberList";
+
+    // creating a context is expensive, marshallers are not thread-safe so one is created for each response
+    private final JAXBContext jaxbContext;
+
+    public MemberListInterceptor() {
+        try {
+            jaxbContext = JAXBContext.newInstance(Member.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Could not create JAXB context", e);
+        }
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object o) throws Exception {
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object o) throws Exception {
+        Object members = messageContext.getProperty(MEMBERS_PROPERTY);
+        if (!(members instanceof MemberPageIterator)) {
+            return true;
+        }
+        MemberPageIterator pages = (MemberPageIterator) members;
+        WebServiceMessage response = messageContext.getResponse();
+        Node memberList = findMemberList(((SaajSoapMessage) response).getSaajMessage().getSOAPBody());
+        if (response instanceof CdataSoapMessage) {
+            memberList.appendChild(memberList.getOwnerDocument().createTextNode(CdataSoapMessage.PLACEHOLDER));
+            ((CdataSoapMessage) response).setContent(writer -> {
+                try {
+                    Marshaller marshaller = createMarshaller();
+                    while (pages.hasNext()) {
+                        for (Member member : pages.next()) {
+                            marshaller.marshal(toElement(member), writer);
+                        }
+                        // send each page before the next one is loaded
+                        writer.flush();
+                    }
+                } catch (JAXBException e) {
+                    throw new IOException("Could not write members: " + e.getMessage(), e);
+                }
+            });
+            return true;
+        }
+
+        // other message factories, add the members to the DOM
+        Marshaller marshaller = createMarshaller();
+        while (pages.hasNext()) {
+            for (Member member : pages.next()) {
+                marshaller.marshal(toElement(member), memberList);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object o) throws Exception {
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object o, Exception e) throws Exception {
+        // not implemented
+    }
+
+    private Marshaller createMarshaller() throws JAXBException {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+        return marshaller;
+    }
+
+    private static JAXBElement<Member> toElement(Member member) {
+        return new JAXBElement<>(MEMBER_NAME, Member.class, member);
+    }
+
+    private static Node findMemberList(SOAPBody body) {
+        Iterator<?> responses = body.getChildElements(RESPONSE_NAME);
+        while (responses.hasNext()) {
+            NodeList children = ((Node) responses.next()).getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (MEMBER_LIST.equals(child.getLocalName())) {
+                    return child;
+                }
+            }
+        }
+        throw new IllegalStateException("memberList not found in ListMembers response");
+    }
+}
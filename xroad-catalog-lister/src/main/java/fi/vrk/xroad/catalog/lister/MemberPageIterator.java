@@ -0,0 +1,54 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister;
+
+import fi.vrk.xroad.xroad_catalog_lister.Member;
+import lombok.RequiredArgsConstructor;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over all members changed in a time range one page at a time. A page is loaded only when
+ * it is requested, so only the members of the current page are held in memory.
+ */
+@RequiredArgsConstructor
+public class MemberPageIterator implements Iterator<Collection<Member>> {
+
+    private final JaxbCatalogService jaxbCatalogService;
+
+    private final XMLGregorianCalendar startDateTime;
+
+    private final XMLGregorianCalendar endDateTime;
+
+    private final int pageSize;
+
+    private Long afterId = 0L;
+
+    @Override
+    public boolean hasNext() {
+        return afterId != null;
+    }
+
+    @Override
+    public Collection<Member> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MemberPage page = jaxbCatalogService.getMembers(startDateTime, endDateTime, afterId, pageSize);
+        afterId = page.getNextAfterId();
+        return page.getMembers();
+    }
+}
@@ -37,15 +37,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.PropertySource;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import java.io.IOException;
-import java.io.StringWriter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -95,18 +95,41 @@ public class ServiceController implements ServiceOperations {
                                                        @RequestParam(required = false) String startDate,
                                                        @RequestParam(required = false) String endDate,
                                                        @RequestParam(required = false) Integer page,
-                                                       @RequestParam(required = false) Integer limit) {
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Boolean count) {
         page = (page == null) ? 0 : page;
         limit = (limit == null) ? 100 : limit;
         LocalDateTime startDateTime;
         LocalDateTime endDateTime;
+        LocalDateTime afterCreated = null;
+        long afterId = 0L;
         try {
             startDateTime = ServiceUtil.convertStringToLocalDateTime(startDate);
             endDateTime = ServiceUtil.convertStringToLocalDateTime(endDate);
+            if (cursor != null && !cursor.isEmpty()) {
+                afterCreated = ServiceUtil.getCursorCreated(cursor);
+                afterId = ServiceUtil.getCursorId(cursor);
+            }
         } catch(CatalogListerRuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
         XRoadData xRoadData = XRoadData.builder().xRoadInstance(xRoadInstance).memberClass(memberClass).memberCode(memberCode).subsystemCode(subsystemCode).build();
+        if (cursor != null) {
+            // keyset pagination, an empty cursor starts from the beginning
+            List<ErrorLog> errors = catalogService.getErrors(xRoadData, afterCreated, afterId, limit, startDateTime, endDateTime);
+            String nextCursor = errors.size() < limit ? null : ServiceUtil.toCursor(errors.get(errors.size() - 1));
+            Integer numberOfPages = null;
+            if (Boolean.TRUE.equals(count)) {
+                long total = catalogService.countErrors(xRoadData, startDateTime, endDateTime);
+                numberOfPages = (int) ((total + limit - 1) / limit);
+            }
+            return ResponseEntity.ok(ErrorLogResponse.builder().pageSize(limit).numberOfPages(numberOfPages).nextCursor(nextCursor).errorLogList(errors).build());
+        }
+        if (Boolean.FALSE.equals(count)) {
+            List<ErrorLog> errors = catalogService.getErrorsWithoutCount(xRoadData, page, limit, startDateTime, endDateTime);
+            return ResponseEntity.ok(ErrorLogResponse.builder().pageNumber(page).pageSize(limit).errorLogList(errors).build());
+        }
         Page<ErrorLog> errors = catalogService.getErrors(xRoadData, Integer.valueOf(page), Integer.valueOf(limit), startDateTime, endDateTime);
         return ResponseEntity.ok(ErrorLogResponse.builder().pageNumber(page).pageSize(limit).numberOfPages(errors.getTotalPages()).errorLogList(errors.getContent()).build());
     }
@@ -142,8 +165,8 @@ public class ServiceController implements ServiceOperations {
     }
 
     @Override
-    public ResponseEntity<ByteArrayResource> getServiceStatisticsCSV(@RequestParam(required = false) String startDate,
-                                                                     @RequestParam(required = false) String endDate) {
+    public ResponseEntity<StreamingResponseBody> getServiceStatisticsCSV(@RequestParam(required = false) String startDate,
+                                                                         @RequestParam(required = false) String endDate) {
         LocalDateTime startDateTime;
         LocalDateTime endDateTime;
         try {
@@ -153,12 +176,12 @@ public class ServiceController implements ServiceOperations {
             return ResponseEntity.badRequest().build();
         }
         List<ServiceStatistics> serviceStatisticsList = catalogService.getServiceStatistics(startDateTime, endDateTime);
-        try {
-            StringWriter sw = new StringWriter();
-            CSVPrinter csvPrinter = new CSVPrinter(sw, CSVFormat.Builder.create().setDelimiter(",").setHeader(CSV_DATE_HEADER,
-                    CSV_NUMBER_OF_REST_SERVICES_HEADER,
-                    CSV_NUMBER_OF_SOAP_SERVICES_HEADER,
-                    CSV_NUMBER_OF_OPENAPI_SERVICES_HEADER).build());
+        StreamingResponseBody body = outputStream -> {
+            CSVPrinter csvPrinter = new CSVPrinter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                    CSVFormat.Builder.create().setDelimiter(",").setHeader(CSV_DATE_HEADER,
+                            CSV_NUMBER_OF_REST_SERVICES_HEADER,
+                            CSV_NUMBER_OF_SOAP_SERVICES_HEADER,
+                            CSV_NUMBER_OF_OPENAPI_SERVICES_HEADER).build());
             if (serviceStatisticsList != null) {
                 serviceStatisticsList.forEach(serviceStatistics -> ServiceUtil.printCSVRecord(csvPrinter,
                         Arrays.asList(serviceStatistics.getCreated().toString(),
@@ -166,16 +189,13 @@ public class ServiceController implements ServiceOperations {
                                 serviceStatistics.getNumberOfSoapServices().toString(),
                                 serviceStatistics.getNumberOfOpenApiServices().toString())));
             }
-            String reportName = SERVICE_STATISTICS_REPORT_NAME + LocalDateTime.now();
-            sw.close();
-            csvPrinter.close();
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=" + reportName + ".csv")
-                    .contentType(org.springframework.http.MediaType.parseMediaType("text/csv"))
-                    .body(new ByteArrayResource(sw.toString().getBytes()));
-        } catch (IOException e) {
-            return ResponseEntity.badRequest().build();
-        }
+            csvPrinter.flush();
+        };
+        String reportName = SERVICE_STATISTICS_REPORT_NAME + LocalDateTime.now();
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + reportName + ".csv")
+                .contentType(org.springframework.http.MediaType.parseMediaType("text/csv"))
+                .body(body);
     }
 
     @Override
@@ -195,8 +215,8 @@ public class ServiceController implements ServiceOperations {
     }
 
     @Override
-    public ResponseEntity<ByteArrayResource> getListOfServicesCSV(@RequestParam(required = false) String startDate,
-                                                                  @RequestParam(required = false) String endDate) {
+    public ResponseEntity<StreamingResponseBody> getListOfServicesCSV(@RequestParam(required = false) String startDate,
+                                                                      @RequestParam(required = false) String endDate) {
         LocalDateTime startDateTime;
         LocalDateTime endDateTime;
         try {
@@ -206,10 +226,9 @@ public class ServiceController implements ServiceOperations {
             return ResponseEntity.badRequest().build();
         }
         List<SecurityServerInfo> securityServerList = ServiceUtil.getSecurityServerInfoList(sharedParamsParser, sharedParamsFile);
-        List<MemberDataList> memberDataList = catalogService.getMemberData(startDateTime, endDateTime);
-        try {
-            StringWriter sw = new StringWriter();
-            CSVPrinter csvPrinter = new CSVPrinter(sw, CSVFormat.Builder.create().setDelimiter(",").setHeader(
+        StreamingResponseBody body = outputStream -> {
+            CSVPrinter csvPrinter = new CSVPrinter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                    CSVFormat.Builder.create().setDelimiter(",").setHeader(
                             CSV_DATE_HEADER,
                             CSV_XROAD_INSTANCE_HEADER,
                             CSV_MEMBER_CLASS_HEADER,
@@ -223,19 +242,14 @@ public class ServiceController implements ServiceOperations {
                             CSV_SERVICE_VERSION_HEADER,
                             CSV_SERVICE_CREATED_HEADER,
                             CSV_SERVICE_ACTIVE_HEADER).build());
-            if (memberDataList != null) {
-                ServiceUtil.printListOfServicesCSV(csvPrinter, memberDataList, securityServerList);
-            }
-            String reportName = LIST_OF_SERVICES_REPORT_NAME + LocalDateTime.now();
-            sw.close();
-            csvPrinter.close();
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=" + reportName + ".csv")
-                    .contentType(org.springframework.http.MediaType.valueOf(MediaType.TEXT_PLAIN))
-                    .body(new ByteArrayResource(sw.toString().getBytes()));
-        } catch (IOException e) {
-            return ResponseEntity.badRequest().build();
-        }
+            ServiceUtil.printListOfServicesCSV(csvPrinter, catalogService, startDateTime, endDateTime, securityServerList);
+            csvPrinter.flush();
+        };
+        String reportName = LIST_OF_SERVICES_REPORT_NAME + LocalDateTime.now();
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + reportName + ".csv")
+                .contentType(org.springframework.http.MediaType.valueOf(MediaType.TEXT_PLAIN))
+                .body(body);
     }
 
     @Override
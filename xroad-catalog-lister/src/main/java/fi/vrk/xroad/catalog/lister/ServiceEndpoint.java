@@ -25,6 +25,7 @@ import fi.vrk.xroad.xroad_catalog_lister.IsProviderResponse;
 import fi.vrk.xroad.xroad_catalog_lister.ListMembers;
 import fi.vrk.xroad.xroad_catalog_lister.ListMembersResponse;
 import org.springframework.context.annotation.Profile;
+import org.springframework.ws.context.MessageContext;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -41,7 +42,7 @@ public interface ServiceEndpoint {
 
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "ListMembers")
     @ResponsePayload
-    ListMembersResponse listMembers(@RequestPayload ListMembers request);
+    ListMembersResponse listMembers(@RequestPayload ListMembers request, MessageContext messageContext);
 
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetServiceType")
     @ResponsePayload
@@ -53,7 +54,7 @@ public interface ServiceEndpoint {
 
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetWsdl")
     @ResponsePayload
-    GetWsdlResponse getWsdl(@RequestPayload GetWsdl request);
+    GetWsdlResponse getWsdl(@RequestPayload GetWsdl request, MessageContext messageContext);
 
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetOpenAPI")
     @ResponsePayload
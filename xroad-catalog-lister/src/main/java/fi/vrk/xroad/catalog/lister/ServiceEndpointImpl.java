@@ -14,18 +14,16 @@ package fi.vrk.xroad.catalog.lister;
 
 import com.google.common.collect.Lists;
 import fi.vrk.xroad.catalog.persistence.CatalogService;
-import fi.vrk.xroad.catalog.persistence.entity.OpenApi;
-import fi.vrk.xroad.catalog.persistence.entity.Wsdl;
-import fi.vrk.xroad.catalog.persistence.entity.Service;
 import fi.vrk.xroad.xroad_catalog_lister.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.ws.context.MessageContext;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
-import java.util.concurrent.atomic.AtomicReference;
 
 @Endpoint
 @Slf4j
@@ -38,17 +36,36 @@ public class ServiceEndpointImpl implements ServiceEndpoint {
     @Autowired
     private JaxbCatalogService jaxbCatalogService;
 
+    @Autowired
+    private DescriptorCache descriptorCache;
+
+    @Value("${xroad-catalog.list-members.max-page-size:500}")
+    private int maxPageSize;
+
     @Override
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "ListMembers")
     @ResponsePayload
-    public ListMembersResponse listMembers(@RequestPayload ListMembers request) {
+    public ListMembersResponse listMembers(@RequestPayload ListMembers request, MessageContext messageContext) {
         if (request.getStartDateTime() == null || request.getEndDateTime() == null) {
             throw new CatalogListerRuntimeException("startDateTime and endDateTIme parameters are missing");
         }
         ListMembersResponse response = new ListMembersResponse();
         response.setMemberList(new MemberList());
-        Iterable<Member> members = jaxbCatalogService.getAllMembers(request.getStartDateTime(), request.getEndDateTime());
-        response.getMemberList().getMember().addAll(Lists.newArrayList(members));
+        if (request.getPageSize() != null) {
+            if (request.getPageSize() < 1 || request.getPageSize() > maxPageSize) {
+                throw new CatalogListerRuntimeException("pageSize must be between 1 and " + maxPageSize);
+            }
+            long afterId = request.getAfterId() != null ? request.getAfterId() : 0L;
+            MemberPage page = jaxbCatalogService.getMembers(request.getStartDateTime(), request.getEndDateTime(),
+                    afterId, request.getPageSize());
+            response.getMemberList().getMember().addAll(page.getMembers());
+            response.setNextAfterId(page.getNextAfterId());
+            return response;
+        }
+        // without paging all members are returned, MemberListInterceptor loads and writes them
+        // one page at a time while the response is written
+        messageContext.setProperty(MemberListInterceptor.MEMBERS_PROPERTY, new MemberPageIterator(
+                jaxbCatalogService, request.getStartDateTime(), request.getEndDateTime(), maxPageSize));
         return response;
     }
 
@@ -57,13 +74,13 @@ public class ServiceEndpointImpl implements ServiceEndpoint {
     @ResponsePayload
     public GetServiceTypeResponse getServiceType(@RequestPayload GetServiceType request) {
         GetServiceTypeResponse response = new GetServiceTypeResponse();
-        Service service = catalogService.getService(request.getXRoadInstance(),
+        String type = catalogService.getServiceType(request.getXRoadInstance(),
                 request.getMemberClass(),
                 request.getMemberCode(),
                 request.getServiceCode(),
                 request.getSubsystemCode(),
                 request.getServiceVersion());
-        if (service == null) {
+        if (type == null) {
             throw new CatalogListerRuntimeException("Service with xRoadInstance \"" + request.getXRoadInstance()
                     + "\", memberClass \"" + request.getMemberClass()
                     + "\", memberCode \"" + request.getMemberCode()
@@ -71,13 +88,7 @@ public class ServiceEndpointImpl implements ServiceEndpoint {
                     + "\", serviceCode \"" + request.getServiceCode()
                     + "\" and serviceVersion \"" + request.getServiceVersion() + "\" not found");
         }
-        if (service.hasWsdl()) {
-            response.setType("SOAP");
-        } else if (service.hasOpenApi()) {
-            response.setType("OPENAPI");
-        } else {
-            response.setType("REST");
-        }
+        response.setType(type);
         return response;
     }
 
@@ -85,40 +96,32 @@ public class ServiceEndpointImpl implements ServiceEndpoint {
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "IsProvider")
     @ResponsePayload
     public IsProviderResponse isProvider(@RequestPayload IsProvider request) {
-        AtomicReference<Boolean> isProvider = new AtomicReference<>();
-        isProvider.set(Boolean.FALSE);
-        fi.vrk.xroad.catalog.persistence.entity.Member member = catalogService.getMember(request.getXRoadInstance(),
+        Boolean isProvider = catalogService.isProvider(request.getXRoadInstance(),
                 request.getMemberClass(), request.getMemberCode());
 
-        if (member == null) {
+        if (isProvider == null) {
             throw new CatalogListerRuntimeException("Member with xRoadInstance \"" + request.getXRoadInstance()
                     + "\", memberClass \"" + request.getMemberClass()
                     + "\" and memberCode \"" + request.getMemberCode() + "\" not found");
         }
 
-        member.getAllSubsystems().forEach(subsystem -> {
-            subsystem.getAllServices().forEach(service ->  {
-                if (service.hasWsdl() || service.hasOpenApi()) {
-                    isProvider.set(Boolean.TRUE);
-                }
-            });
-        });
-
         IsProviderResponse response = new IsProviderResponse();
-        response.setProvider(isProvider.get());
+        response.setProvider(isProvider);
         return response;
     }
 
     @Override
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetWsdl")
     @ResponsePayload
-    public GetWsdlResponse getWsdl(@RequestPayload GetWsdl request) {
+    public GetWsdlResponse getWsdl(@RequestPayload GetWsdl request, MessageContext messageContext) {
         GetWsdlResponse response = new GetWsdlResponse();
-        Wsdl wsdl = catalogService.getWsdl(request.getExternalId());
+        String wsdl = descriptorCache.getWsdl(request.getExternalId());
         if (wsdl == null) {
             throw new CatalogListerRuntimeException("wsdl with external id " + request.getExternalId() + NOT_FOUND);
         }
-        response.setWsdl(wsdl.getData());
+        // WsdlCdataInterceptor writes the WSDL as CDATA in place of the placeholder
+        response.setWsdl(CdataSoapMessage.PLACEHOLDER);
+        messageContext.setProperty(WsdlCdataInterceptor.WSDL_PROPERTY, wsdl);
         return response;
     }
 
@@ -127,11 +130,11 @@ public class ServiceEndpointImpl implements ServiceEndpoint {
     @ResponsePayload
     public GetOpenAPIResponse getOpenApi(@RequestPayload GetOpenAPI request) {
         GetOpenAPIResponse response = new GetOpenAPIResponse();
-        OpenApi openApi = catalogService.getOpenApi(request.getExternalId());
+        String openApi = descriptorCache.getOpenApi(request.getExternalId());
         if (openApi == null) {
             throw new CatalogListerRuntimeException("OpenApi with external id " + request.getExternalId() + NOT_FOUND);
         }
-        response.setOpenapi(openApi.getData());
+        response.setOpenapi(openApi);
         return response;
     }
 
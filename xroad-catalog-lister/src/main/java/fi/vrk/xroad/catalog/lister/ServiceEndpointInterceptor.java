@@ -22,12 +22,19 @@ import org.springframework.ws.soap.server.SoapEndpointInterceptor;
 import javax.xml.XMLConstants;
 import javax.xml.soap.SOAPException;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import java.util.Iterator;
 
 public class ServiceEndpointInterceptor implements SoapEndpointInterceptor {
 
+    // looking up a factory is expensive, transformers are not thread-safe so each thread reuses its own
+    private static final TransformerFactory TRANSFORMER_FACTORY = createTransformerFactory();
+
+    private static final ThreadLocal<Transformer> TRANSFORMER =
+            ThreadLocal.withInitial(ServiceEndpointInterceptor::createTransformer);
+
     @Override
     public boolean handleRequest(MessageContext messageContext, Object endpoint) throws Exception {
         return true;
@@ -61,15 +68,33 @@ public class ServiceEndpointInterceptor implements SoapEndpointInterceptor {
         SoapHeader reqHeader = getSoapHeader(reqMessage);
         SoapHeader respHeader = getSoapHeader(respMessage);
 
+        Transformer transformer = TRANSFORMER.get();
+        try {
+            Iterator<SoapHeaderElement> iter = reqHeader.examineAllHeaderElements();
+            while (iter.hasNext()) {
+                SoapHeaderElement elem = iter.next();
+                transformer.transform(elem.getSource(), respHeader.getResult());
+            }
+        } finally {
+            transformer.reset();
+        }
+    }
+
+    private static TransformerFactory createTransformerFactory() {
         TransformerFactory transformerFactory = TransformerFactory.newInstance();
         transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
         transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-        Transformer transformer = transformerFactory.newTransformer();
+        return transformerFactory;
+    }
 
-        Iterator<SoapHeaderElement> iter = reqHeader.examineAllHeaderElements();
-        while (iter.hasNext()) {
-            SoapHeaderElement elem = iter.next();
-            transformer.transform(elem.getSource(), respHeader.getResult());
+    private static Transformer createTransformer() {
+        // the factory itself is not guaranteed to be thread-safe
+        synchronized (TRANSFORMER_FACTORY) {
+            try {
+                return TRANSFORMER_FACTORY.newTransformer();
+            } catch (TransformerConfigurationException e) {
+                throw new IllegalStateException("Could not create transformer", e);
+            }
         }
     }
 
@@ -37,7 +37,9 @@ public interface ServiceOperations {
                                  @RequestParam(required = false) String startDate,
                                  @RequestParam(required = false) String endDate,
                                  @RequestParam(required = false) Integer page,
-                                 @RequestParam(required = false) Integer limit);
+                                 @RequestParam(required = false) Integer limit,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(required = false) Boolean count);
 
     @GetMapping(path = "/getDistinctServiceStatistics", produces = "application/json")
     ResponseEntity<?> getDistinctServiceStatistics(@RequestParam(required = false) String startDate,
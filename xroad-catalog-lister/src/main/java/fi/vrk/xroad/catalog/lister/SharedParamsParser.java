@@ -24,23 +24,34 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reads security server and member information from X-Road global configuration shared-params.xml.
+ * A file is parsed once into an indexed model that is shared by all requests, and parsed again only
+ * when its modification time or size changes. The file is read in a single streaming pass, so memory
+ * use is bounded by the size of the parsed information instead of the size of the file.
+ */
 @Slf4j
 @Component
 public class SharedParamsParser {
@@ -48,7 +59,7 @@ public class SharedParamsParser {
     private static final String MEMBER = "member";
     private static final String MEMBER_CLASS = "memberClass";
     private static final String MEMBER_CODE = "memberCode";
-    private static final String XML_VERSION = "1.0";
+    private static final String INSTANCE_IDENTIFIER = "instanceIdentifier";
     private static final String OWNER = "owner";
     private static final String SERVER_CODE = "serverCode";
     private static final String ADDRESS = "address";
@@ -64,54 +75,24 @@ public class SharedParamsParser {
     private static final String DEFAULT_SUBSYSTEM_NAME_EN = "Subsystem Name EN";
     private static final String DEFAULT_SUBSYSTEM_NAME_ET = "Subsystem Name ET";
 
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
     @Autowired
     private Environment environment;
 
+    private final Map<String, SharedParams> sharedParamsByFile = new ConcurrentHashMap<>();
+
     /**
      * Parses security server information from X-Road global configuration shared-params.xml.
      * Matches member elements with securityServer elements to gather the information.
      *
      * @return list of {@link SecurityServerInfo} objects
-     * @throws ParserConfigurationException when there are issues with parsing the file
      * @throws IOException when unable to read input file
-     * @throws SAXException when there are issues with parsing of XML
+     * @throws XMLStreamException when there are issues with parsing of XML
      */
-    public Set<SecurityServerInfo> parseInfo(String sharedParamsFile) throws ParserConfigurationException, IOException, SAXException {
-        Document document = parseInputAndConvertToXmlDocument(new File(sharedParamsFile));
-        Element root = document.getDocumentElement();
-        String xRoadInstance = root.getChildNodes().item(1).getFirstChild().getNodeValue();
-        NodeList members = root.getElementsByTagName(MEMBER);
-        NodeList securityServers = root.getElementsByTagName(SECURITY_SERVER);
-        Set<SecurityServerInfo> securityServerInfos = new HashSet<>();
-
-        for (int i = 0; i < securityServers.getLength(); i++) {
-            Node securityServer = securityServers.item(i);
-            if (securityServer.getNodeType() == Node.ELEMENT_NODE) {
-                Element securityServerElement = (Element) securityServer;
-                String owner = securityServerElement.getElementsByTagName(OWNER).item(0).getTextContent();
-                String serverCode = securityServerElement.getElementsByTagName(SERVER_CODE).item(0).getTextContent();
-                String address = securityServerElement.getElementsByTagName(ADDRESS).item(0).getTextContent();
-                for (int j = 0; j < members.getLength(); j++) {
-                    Node member = members.item(j);
-                    if (member.getNodeType() == Node.ELEMENT_NODE) {
-                        Element memberElement = (Element) member;
-                        if (memberElement.getAttribute(ID).equals(owner)) {
-                            Element memberClassElement =
-                                    (Element) memberElement.getElementsByTagName(MEMBER_CLASS).item(0);
-                            String memberClass =
-                                    memberClassElement.getElementsByTagName(CODE).item(0).getTextContent();
-                            String memberCode =
-                                    memberElement.getElementsByTagName(MEMBER_CODE).item(0).getTextContent();
-                            SecurityServerInfo info =
-                                    new SecurityServerInfo(xRoadInstance, serverCode, address, memberClass, memberCode);
-                            securityServerInfos.add(info);
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-        log.debug("Result set: {}", securityServerInfos.toString());
+    public Set<SecurityServerInfo> parseInfo(String sharedParamsFile) throws IOException, XMLStreamException {
+        Set<SecurityServerInfo> securityServerInfos = getSharedParams(sharedParamsFile).securityServerInfos;
+        log.debug("Result set: {}", securityServerInfos);
         return securityServerInfos;
     }
 
@@ -120,15 +101,12 @@ public class SharedParamsParser {
      * Matches member elements with securityServer elements to gather the information.
      *
      * @return list of {@link SecurityServerInfo} objects
-     * @throws ParserConfigurationException when there are issues with parsing the file
      * @throws IOException when unable to read input file
-     * @throws SAXException when there are issues with parsing of XML
+     * @throws XMLStreamException when there are issues with parsing of XML
      */
-    public SecurityServerDataList parseDetails(String sharedParamsFile) throws ParserConfigurationException, IOException, SAXException {
-        Document document = parseInputAndConvertToXmlDocument(new File(sharedParamsFile));
-        Element root = document.getDocumentElement();
-        List<SecurityServerData> securityServerList = getSecurityServerDataList(root.getElementsByTagName(SECURITY_SERVER), root.getElementsByTagName(MEMBER));
-        return SecurityServerDataList.builder().securityServerDataList(securityServerList).build();
+    public SecurityServerDataList parseDetails(String sharedParamsFile) throws IOException, XMLStreamException {
+        return SecurityServerDataList.builder()
+                .securityServerDataList(getSharedParams(sharedParamsFile).securityServerDataList).build();
     }
 
     /**
@@ -136,145 +114,214 @@ public class SharedParamsParser {
      * Matches member elements with securityServer elements to gather the information.
      *
      * @return list of {@link SecurityServerInfo} objects
-     * @throws ParserConfigurationException when there are issues with parsing the file
      * @throws IOException when unable to read input file
-     * @throws SAXException when there are issues with parsing of XML
+     * @throws XMLStreamException when there are issues with parsing of XML
      */
-    public List<DescriptorInfo> parseDescriptorInfo(String sharedParamsFile) throws ParserConfigurationException, IOException, SAXException {
-        Document document = parseInputAndConvertToXmlDocument(new File(sharedParamsFile));
-        Element root = document.getDocumentElement();
-        String xRoadInstance = root.getChildNodes().item(1).getFirstChild().getNodeValue();
-        NodeList members = root.getElementsByTagName(MEMBER);
-        List<DescriptorInfo> descriptorInfos = new ArrayList<>();
+    public List<DescriptorInfo> parseDescriptorInfo(String sharedParamsFile) throws IOException, XMLStreamException {
+        return getSharedParams(sharedParamsFile).descriptorInfos;
+    }
 
-        for (int j = 0; j < members.getLength(); j++) {
-            Node member = members.item(j);
-            if (member.getNodeType() == Node.ELEMENT_NODE) {
-                Element memberElement = (Element) member;
-                Element memberClassElement = (Element) memberElement.getElementsByTagName(MEMBER_CLASS).item(0);
-                String memberClass = memberClassElement.getElementsByTagName(CODE).item(0).getTextContent();
-                String memberCode = memberElement.getElementsByTagName(MEMBER_CODE).item(0).getTextContent();
-                String name = memberElement.getElementsByTagName(NAME).item(0).getTextContent();
-                NodeList subsystems = memberElement.getElementsByTagName(SUBSYSTEM);
-                for (int k = 0; k < subsystems.getLength(); k++) {
-                    Node subsystem = subsystems.item(k);
-                    if (member.getNodeType() == Node.ELEMENT_NODE) {
-                        Element subsystemElement = (Element) subsystem;
-                        String subsystemCode =
-                                subsystemElement.getElementsByTagName(SUBSYSTEM_CODE).item(0).getTextContent();
+    private SharedParams getSharedParams(String sharedParamsFile) throws IOException, XMLStreamException {
+        Path path = Paths.get(sharedParamsFile);
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        SharedParams sharedParams = sharedParamsByFile.get(sharedParamsFile);
+        if (sharedParams != null && sharedParams.isCurrent(attributes)) {
+            return sharedParams;
+        }
+        synchronized (sharedParamsByFile) {
+            sharedParams = sharedParamsByFile.get(sharedParamsFile);
+            if (sharedParams == null || !sharedParams.isCurrent(attributes)) {
+                sharedParams = parseSharedParams(path, attributes);
+                sharedParamsByFile.put(sharedParamsFile, sharedParams);
+                log.info("Parsed {}, modified {}", sharedParamsFile, attributes.lastModifiedTime());
+            }
+            return sharedParams;
+        }
+    }
 
-                        descriptorInfos.add(DescriptorInfo.builder()
-                                .xRoadInstance(xRoadInstance)
-                                .memberCode(memberCode)
-                                .memberClass(memberClass)
-                                .memberName(name)
-                                .subsystemCode(subsystemCode)
-                                .subsystemName(SubsystemName.builder().en(DEFAULT_SUBSYSTEM_NAME_EN).et(DEFAULT_SUBSYSTEM_NAME_ET).build())
-                                .email(Lists.newArrayList(
-                                        Email.builder()
-                                                .name(DEFAULT_CONTACT_NAME)
-                                                .email(DEFAULT_CONTACT_EMAIL)
-                                                .build())).build());
+    private SharedParams parseSharedParams(Path inputFile, BasicFileAttributes attributes)
+            throws IOException, XMLStreamException {
+        String xRoadInstance = null;
+        // security server owners refer to members, clients to members or subsystems
+        Map<String, MemberInfo> membersById = new HashMap<>();
+        Map<String, MemberInfo> clientsById = new HashMap<>();
+        List<MemberInfo> subsystems = new ArrayList<>();
+        List<SecurityServerElement> securityServers = new ArrayList<>();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(inputFile))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                reader.nextTag();
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case INSTANCE_IDENTIFIER:
+                            xRoadInstance = reader.getElementText();
+                            break;
+                        case MEMBER:
+                            readMember(reader, membersById, clientsById, subsystems);
+                            break;
+                        case SECURITY_SERVER:
+                            securityServers.add(readSecurityServer(reader));
+                            break;
+                        default:
+                            skipElement(reader);
                     }
                 }
-
+            } finally {
+                reader.close();
             }
         }
 
-        return descriptorInfos;
-    }
-
-    private Document parseInputAndConvertToXmlDocument(File inputFile) throws ParserConfigurationException, IOException, SAXException {
-        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        documentBuilderFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        documentBuilderFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-        documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-        DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-        Document document = documentBuilder.parse(inputFile);
-        document.setXmlVersion(XML_VERSION);
-        document.getDocumentElement().normalize();
-        return document;
-    }
-
-    private List<SecurityServerData> getSecurityServerDataList(NodeList securityServers, NodeList members) {
-        List<SecurityServerData> securityServerList = new ArrayList<>();
-        for (int i = 0; i < securityServers.getLength(); i++) {
-            Node securityServer = securityServers.item(i);
-            if (securityServer.getNodeType() == Node.ELEMENT_NODE) {
-                securityServerList.add(getSecurityServerData(securityServer, members));
+        List<DescriptorInfo> descriptorInfos = new ArrayList<>();
+        for (MemberInfo subsystem : subsystems) {
+            descriptorInfos.add(buildDescriptorInfo(xRoadInstance, subsystem.getMemberClass(),
+                    subsystem.getMemberCode(), subsystem.getName(), subsystem.getSubsystemCode()));
+        }
+        Set<SecurityServerInfo> securityServerInfos = new HashSet<>();
+        List<SecurityServerData> securityServerDataList = new ArrayList<>();
+        for (SecurityServerElement securityServer : securityServers) {
+            MemberInfo owner = membersById.get(securityServer.ownerId);
+            if (owner != null) {
+                securityServerInfos.add(new SecurityServerInfo(xRoadInstance, securityServer.serverCode,
+                        securityServer.address, owner.getMemberClass(), owner.getMemberCode()));
             }
+            List<MemberInfo> clients = new ArrayList<>();
+            for (String clientId : securityServer.clientIds) {
+                MemberInfo client = clientsById.get(clientId);
+                if (client != null) {
+                    clients.add(client);
+                }
+            }
+            securityServerDataList.add(SecurityServerData.builder()
+                    .owner(owner != null ? owner : MemberInfo.builder().build())
+                    .serverCode(securityServer.serverCode)
+                    .address(securityServer.address)
+                    .clients(Collections.unmodifiableList(clients)).build());
         }
-        return securityServerList;
+        return new SharedParams(attributes.lastModifiedTime(), attributes.size(),
+                Collections.unmodifiableSet(securityServerInfos),
+                Collections.unmodifiableList(securityServerDataList),
+                Collections.unmodifiableList(descriptorInfos));
     }
 
-    private SecurityServerData getSecurityServerData(Node securityServer, NodeList members) {
-        Element securityServerElement = (Element) securityServer;
-        String ownerId = securityServerElement.getElementsByTagName(OWNER).item(0).getTextContent();
-        String serverCode = securityServerElement.getElementsByTagName(SERVER_CODE).item(0).getTextContent();
-        String address = securityServerElement.getElementsByTagName(ADDRESS).item(0).getTextContent();
-        NodeList clientIds = securityServerElement.getElementsByTagName(CLIENT);
-
-        List<String> clientIdList = getClientIdList(clientIds);
-        MemberInfo ownerData = getOwnerData(members, ownerId);
-        List<MemberInfo> clients = getClients(members, clientIdList);
-
-        return SecurityServerData.builder()
-                .owner(ownerData)
-                .serverCode(serverCode)
-                .address(address)
-                .clients(clients).build();
+    private void readMember(XMLStreamReader reader,
+                            Map<String, MemberInfo> membersById,
+                            Map<String, MemberInfo> clientsById,
+                            List<MemberInfo> subsystems) throws XMLStreamException {
+        String memberId = reader.getAttributeValue(null, ID);
+        String memberClass = null;
+        String memberCode = null;
+        String name = null;
+        Map<String, String> subsystemCodesById = new HashMap<>();
+        List<String> subsystemIds = new ArrayList<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case MEMBER_CLASS:
+                    memberClass = readChildText(reader, CODE);
+                    break;
+                case MEMBER_CODE:
+                    memberCode = reader.getElementText();
+                    break;
+                case NAME:
+                    name = reader.getElementText();
+                    break;
+                case SUBSYSTEM:
+                    String subsystemId = reader.getAttributeValue(null, ID);
+                    subsystemIds.add(subsystemId);
+                    subsystemCodesById.put(subsystemId, readChildText(reader, SUBSYSTEM_CODE));
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+        MemberInfo memberInfo = buildSubsystemInfo(memberClass, memberCode, null, name);
+        membersById.put(memberId, memberInfo);
+        clientsById.put(memberId, memberInfo);
+        for (String subsystemId : subsystemIds) {
+            MemberInfo subsystemInfo =
+                    buildSubsystemInfo(memberClass, memberCode, subsystemCodesById.get(subsystemId), name);
+            clientsById.put(subsystemId, subsystemInfo);
+            subsystems.add(subsystemInfo);
+        }
     }
 
-    private List<String> getClientIdList(NodeList clientIds) {
-        List<String> clientIdList = new ArrayList<>();
-        for (int j = 0; j < clientIds.getLength(); j++) {
-            Node member = clientIds.item(j);
-            clientIdList.add(member.getFirstChild().getNodeValue());
+    private SecurityServerElement readSecurityServer(XMLStreamReader reader) throws XMLStreamException {
+        SecurityServerElement securityServer = new SecurityServerElement();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case OWNER:
+                    securityServer.ownerId = reader.getElementText();
+                    break;
+                case SERVER_CODE:
+                    securityServer.serverCode = reader.getElementText();
+                    break;
+                case ADDRESS:
+                    securityServer.address = reader.getElementText();
+                    break;
+                case CLIENT:
+                    securityServer.clientIds.add(reader.getElementText());
+                    break;
+                default:
+                    skipElement(reader);
+            }
         }
-        return clientIdList;
+        return securityServer;
     }
 
-    private MemberInfo getOwnerData(NodeList members, String ownerId) {
-        for (int j = 0; j < members.getLength(); j++) {
-            Node member = members.item(j);
-            if (member.getNodeType() == Node.ELEMENT_NODE) {
-                Element memberElement = (Element) member;
-                if (memberElement.getAttribute(ID).equals(ownerId)) {
-                    Element memberClassElement = (Element) memberElement.getElementsByTagName(MEMBER_CLASS).item(0);
-                    String memberClass = memberClassElement.getElementsByTagName(CODE).item(0).getTextContent();
-                    String memberCode = memberElement.getElementsByTagName(MEMBER_CODE).item(0).getTextContent();
-                    String name = memberElement.getElementsByTagName(NAME).item(0).getTextContent();
-                    return buildMemberInfo(memberClass, memberCode, name);
-                }
+    /**
+     * Reads the text of the given child element and skips the rest of the current element
+     */
+    private static String readChildText(XMLStreamReader reader, String childName) throws XMLStreamException {
+        String text = null;
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (childName.equals(reader.getLocalName())) {
+                text = reader.getElementText();
+            } else {
+                skipElement(reader);
             }
         }
-        return MemberInfo.builder().build();
+        return text;
     }
 
-
-    private MemberInfo buildMemberInfo(Element memberElement) {
-        return buildSubsystemInfo(memberElement, null);
+    /**
+     * Skips the current element including its children, the reader is left at its end element
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
     }
 
-    private MemberInfo buildSubsystemInfo(Element memberElement, Element subsystemElement) {
-        Element memberClassElement = (Element) memberElement.getElementsByTagName(MEMBER_CLASS).item(0);
-        String memberClass = memberClassElement.getElementsByTagName(CODE).item(0).getTextContent();
-        String memberCode = memberElement.getElementsByTagName(MEMBER_CODE).item(0).getTextContent();
-        String name = memberElement.getElementsByTagName(NAME).item(0).getTextContent();
-        if (subsystemElement == null) {
-            return buildMemberInfo(memberClass, memberCode, name);
-        }
-        String subsystemCode = subsystemElement.getElementsByTagName(SUBSYSTEM_CODE).item(0).getTextContent();
-        return buildSubsystemInfo(memberClass, memberCode, subsystemCode, name);
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
     }
 
-    private MemberInfo buildMemberInfo(
+    private DescriptorInfo buildDescriptorInfo(
+            String xRoadInstance,
             String memberClass,
             String memberCode,
-            String name) {
-        return buildSubsystemInfo(memberClass, memberCode, null, name);
+            String name,
+            String subsystemCode) {
+        return DescriptorInfo.builder()
+                .xRoadInstance(xRoadInstance)
+                .memberCode(memberCode)
+                .memberClass(memberClass)
+                .memberName(name)
+                .subsystemCode(subsystemCode)
+                .subsystemName(SubsystemName.builder().en(DEFAULT_SUBSYSTEM_NAME_EN).et(DEFAULT_SUBSYSTEM_NAME_ET).build())
+                .email(Lists.newArrayList(
+                        Email.builder()
+                                .name(DEFAULT_CONTACT_NAME)
+                                .email(DEFAULT_CONTACT_EMAIL)
+                                .build())).build();
     }
 
     private MemberInfo buildSubsystemInfo(
@@ -289,32 +336,40 @@ public class SharedParamsParser {
                 .name(name).build();
     }
 
-    private List<MemberInfo> getClients(NodeList members, List<String> clientIdList) {
-        List<MemberInfo> clients = new ArrayList<>();
-        clientIdList.forEach(clientId -> {
-            for (int j = 0; j < members.getLength(); j++) {
-                Node member = members.item(j);
-                if (member.getNodeType() == Node.ELEMENT_NODE) {
-                    Element memberElement = (Element) member;
-                    if (memberElement.getAttribute(ID).equals(clientId)) {
-                        clients.add(buildMemberInfo(memberElement));
-                        break;
-                    }
+    /**
+     * Security server element whose owner and client ids are resolved once all members have been read
+     */
+    private static final class SecurityServerElement {
+        private String ownerId;
+        private String serverCode;
+        private String address;
+        private final List<String> clientIds = new ArrayList<>();
+    }
 
-                    NodeList subsystems = memberElement.getElementsByTagName(SUBSYSTEM);
-                    for (int k = 0; k < subsystems.getLength(); k++) {
-                        Node subsystem = subsystems.item(k);
-                        if (member.getNodeType() == Node.ELEMENT_NODE) {
-                            Element subsystemElement = (Element) subsystem;
-                            if (subsystemElement.getAttribute(ID).equals(clientId)) {
-                                clients.add(buildSubsystemInfo(memberElement, subsystemElement));
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
-        });
-        return clients;
+    /**
+     * Parsed contents of a shared-params file
+     */
+    private static final class SharedParams {
+        private final FileTime lastModified;
+        private final long size;
+        private final Set<SecurityServerInfo> securityServerInfos;
+        private final List<SecurityServerData> securityServerDataList;
+        private final List<DescriptorInfo> descriptorInfos;
+
+        private SharedParams(FileTime lastModified,
+                             long size,
+                             Set<SecurityServerInfo> securityServerInfos,
+                             List<SecurityServerData> securityServerDataList,
+                             List<DescriptorInfo> descriptorInfos) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.securityServerInfos = securityServerInfos;
+            this.securityServerDataList = securityServerDataList;
+            this.descriptorInfos = descriptorInfos;
+        }
+
+        private boolean isCurrent(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
     }
-}
\ No newline at end of file
+}
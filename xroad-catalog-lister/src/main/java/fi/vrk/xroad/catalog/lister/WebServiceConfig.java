@@ -37,6 +37,11 @@ public class WebServiceConfig extends WsConfigurerAdapter {
         return new ServletRegistrationBean(servlet, "/ws/*");
     }
 
+    @Bean(name = MessageDispatcherServlet.DEFAULT_MESSAGE_FACTORY_BEAN_NAME)
+    public CdataSoapMessageFactory messageFactory() {
+        return new CdataSoapMessageFactory();
+    }
+
     @Bean(name = "services")
     public Wsdl11Definition defaultWsdl11Definition() {
         SimpleWsdl11Definition wsdl11Definition = new SimpleWsdl11Definition();
@@ -49,5 +54,6 @@ public class WebServiceConfig extends WsConfigurerAdapter {
         interceptors.add(new SoapEnvelopeLoggingInterceptor());
         interceptors.add(new ServiceEndpointInterceptor());
         interceptors.add(new WsdlCdataInterceptor());
+        interceptors.add(new MemberListInterceptor());
     }
 }
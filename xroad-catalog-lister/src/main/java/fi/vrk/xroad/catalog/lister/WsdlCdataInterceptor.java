@@ -23,8 +23,15 @@ import javax.xml.namespace.QName;
 import javax.xml.soap.*;
 import java.util.Iterator;
 
+/**
+ * Writes the WSDL of a GetWsdl response as CDATA. The endpoint leaves {@link CdataSoapMessage#PLACEHOLDER}
+ * in the response and the WSDL in the {@link #WSDL_PROPERTY} message context property, so the WSDL is
+ * streamed to the client without ever being added to the SAAJ DOM.
+ */
 public class WsdlCdataInterceptor implements EndpointInterceptor {
 
+    public static final String WSDL_PROPERTY = WsdlCdataInterceptor.class.getName() + ".wsdl";
+
     @Override
     public boolean handleRequest(MessageContext messageContext, Object o) throws Exception {
         return true;
@@ -32,9 +39,17 @@ public class WsdlCdataInterceptor implements EndpointInterceptor {
 
     @Override
     public boolean handleResponse(MessageContext messageContext, Object o) throws Exception {
-
+        Object wsdl = messageContext.getProperty(WSDL_PROPERTY);
+        if (!(wsdl instanceof String)) {
+            return true;
+        }
         WebServiceMessage response = messageContext.getResponse();
+        if (response instanceof CdataSoapMessage) {
+            ((CdataSoapMessage) response).setCdata((String) wsdl);
+            return true;
+        }
 
+        // other message factories, replace the placeholder with a CDATA section in the DOM
         SaajSoapMessage saajSoapMessage = (SaajSoapMessage) response;
         SOAPMessage soapMessage = saajSoapMessage.getSaajMessage();
         SOAPPart soapPart = soapMessage.getSOAPPart();
@@ -49,7 +64,7 @@ public class WsdlCdataInterceptor implements EndpointInterceptor {
             for (int i = 0; i < children.getLength(); i++) {
                 Node child = children.item(i);
                 if (child.getLocalName().equals("wsdl")) {
-                    CDATASection cdat = soapPart.createCDATASection(child.getFirstChild().getNodeValue());
+                    CDATASection cdat = soapPart.createCDATASection((String) wsdl);
                     child.removeChild(child.getFirstChild());
                     child.appendChild(cdat);
                 }
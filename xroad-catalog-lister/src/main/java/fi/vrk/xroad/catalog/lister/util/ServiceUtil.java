@@ -14,12 +14,13 @@ package fi.vrk.xroad.catalog.lister.util;
 
 import fi.vrk.xroad.catalog.lister.CatalogListerRuntimeException;
 import fi.vrk.xroad.catalog.lister.SharedParamsParser;
+import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.dto.DescriptorInfo;
 import fi.vrk.xroad.catalog.persistence.dto.SecurityServerDataList;
 import fi.vrk.xroad.catalog.persistence.dto.SecurityServerInfo;
-import fi.vrk.xroad.catalog.persistence.dto.MemberDataList;
+import fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow;
+import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
 import org.apache.commons.csv.CSVPrinter;
-import org.xml.sax.SAXException;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -30,10 +31,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 public class ServiceUtil {
 
+    private static final String CURSOR_SEPARATOR = ",";
+
     private ServiceUtil() {
 
     }
@@ -50,6 +53,29 @@ public class ServiceUtil {
         return dateTime;
     }
 
+    /**
+     * Returns the listErrors cursor pointing after the given error log entry
+     */
+    public static String toCursor(ErrorLog errorLog) {
+        return errorLog.getCreated() + CURSOR_SEPARATOR + errorLog.getId();
+    }
+
+    public static LocalDateTime getCursorCreated(String cursor) {
+        try {
+            return LocalDateTime.parse(cursor.substring(0, cursor.lastIndexOf(CURSOR_SEPARATOR)));
+        } catch (DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new CatalogListerRuntimeException("Exception parsing cursor parameter: " + e.getMessage());
+        }
+    }
+
+    public static long getCursorId(String cursor) {
+        try {
+            return Long.parseLong(cursor.substring(cursor.lastIndexOf(CURSOR_SEPARATOR) + 1));
+        } catch (NumberFormatException e) {
+            throw new CatalogListerRuntimeException("Exception parsing cursor parameter: " + e.getMessage());
+        }
+    }
+
     public static void printCSVRecord(CSVPrinter csvPrinter, List<String> data) {
         try {
             csvPrinter.printRecord(data);
@@ -58,36 +84,16 @@ public class ServiceUtil {
         }
     }
 
-    public static void printListOfServicesCSV(CSVPrinter csvPrinter, List<MemberDataList> memberDataList, List<SecurityServerInfo> securityServerList) {
-        memberDataList.forEach(memberList -> {
-            printCSVRecord(csvPrinter, Arrays.asList(memberList.getDate().toString(), "", "", "", "", "", "", "", "", "", "", "", ""));
-            memberList.getMemberDataList().forEach(memberData -> {
-                String memberCreated = memberData.getCreated().toString();
-                String xRoadInstance = memberData.getXRoadInstance();
-                String memberClass = memberData.getMemberClass();
-                String memberCode = memberData.getMemberCode();
-                String memberName = memberData.getName();
-
-                if (memberData.getSubsystemList().isEmpty() || memberData.getSubsystemList() == null) {
-                    printCSVRecord(csvPrinter, Arrays.asList("", xRoadInstance, memberClass, memberCode, memberName,
-                            memberCreated, "", "", "", "", "", "", ""));
-                }
-
-                memberData.getSubsystemList().forEach(subsystemData -> {
-
-                    if (subsystemData.getServiceList().isEmpty() || subsystemData.getServiceList() == null) {
-                        printCSVRecord(csvPrinter, Arrays.asList("", xRoadInstance, memberClass, memberCode, memberName, memberCreated,
-                                subsystemData.getSubsystemCode(), subsystemData.getCreated().toString(), subsystemData.getActive().toString(),
-                                "", "", "", ""));
-                    }
-
-                    subsystemData.getServiceList().forEach(serviceData -> printCSVRecord(csvPrinter, Arrays.asList(
-                            "", xRoadInstance, memberClass, memberCode, memberName, memberCreated, subsystemData.getSubsystemCode(),
-                            subsystemData.getCreated().toString(), subsystemData.getActive().toString(), serviceData.getServiceCode(),
-                            serviceData.getServiceVersion(), serviceData.getCreated().toString(), serviceData.getActive().toString())));
-                });
-            });
-        });
+    public static void printListOfServicesCSV(CSVPrinter csvPrinter,
+                                              CatalogService catalogService,
+                                              LocalDateTime startDateTime,
+                                              LocalDateTime endDateTime,
+                                              List<SecurityServerInfo> securityServerList) {
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDateTime date = startDateTime; !date.isAfter(endDateTime) && !date.isAfter(now); date = date.plusDays(1)) {
+            printCSVRecord(csvPrinter, Arrays.asList(date.toString(), "", "", "", "", "", "", "", "", "", "", "", ""));
+            catalogService.forEachMemberServiceRow(endDateTime, row -> printMemberServiceRowCSV(csvPrinter, row));
+        }
 
         if (securityServerList != null && !securityServerList.isEmpty()) {
             printCSVRecord(csvPrinter, Arrays.asList("", "Security server (SS) info:", "", "", "", "", "", "", "", "", "", "", ""));
@@ -100,6 +106,28 @@ public class ServiceUtil {
         }
     }
 
+    private static void printMemberServiceRowCSV(CSVPrinter csvPrinter, MemberServiceRow row) {
+        String xRoadInstance = row.getXRoadInstance();
+        String memberClass = row.getMemberClass();
+        String memberCode = row.getMemberCode();
+        String memberName = row.getName();
+        String memberCreated = row.getMemberCreated().toString();
+
+        if (!row.hasSubsystem()) {
+            printCSVRecord(csvPrinter, Arrays.asList("", xRoadInstance, memberClass, memberCode, memberName,
+                    memberCreated, "", "", "", "", "", "", ""));
+        } else if (!row.hasService()) {
+            printCSVRecord(csvPrinter, Arrays.asList("", xRoadInstance, memberClass, memberCode, memberName, memberCreated,
+                    row.getSubsystemCode(), row.getSubsystemCreated().toString(), row.getSubsystemActive().toString(),
+                    "", "", "", ""));
+        } else {
+            printCSVRecord(csvPrinter, Arrays.asList("", xRoadInstance, memberClass, memberCode, memberName, memberCreated,
+                    row.getSubsystemCode(), row.getSubsystemCreated().toString(), row.getSubsystemActive().toString(),
+                    row.getServiceCode(), row.getServiceVersion(), row.getServiceCreated().toString(),
+                    row.getServiceActive().toString()));
+        }
+    }
+
     public static List<SecurityServerInfo> getSecurityServerInfoList(SharedParamsParser sharedParamsParser,
                                                                      String sharedParamsFile) {
         List<SecurityServerInfo> securityServerList = new ArrayList<>();
@@ -108,7 +136,7 @@ public class ServiceUtil {
             if (securityServerInfos.iterator().hasNext()) {
                 securityServerList = new ArrayList<>(securityServerInfos);
             }
-        } catch (ParserConfigurationException | IOException | SAXException e) {
+        } catch (IOException | XMLStreamException e) {
             throw new CatalogListerRuntimeException("Exception when parsing sharedParams file: " + e);
         }
         return securityServerList;
@@ -119,7 +147,7 @@ public class ServiceUtil {
         SecurityServerDataList securityServerDataList;
         try {
             securityServerDataList = sharedParamsParser.parseDetails(sharedParamsFile);
-        } catch (ParserConfigurationException | IOException | SAXException e) {
+        } catch (IOException | XMLStreamException e) {
             throw new CatalogListerRuntimeException("Exception when parsing security server data from sharedParams file: " + e);
         }
         return securityServerDataList;
@@ -130,7 +158,7 @@ public class ServiceUtil {
         List<DescriptorInfo> descriptorInfoList;
         try {
             descriptorInfoList = sharedParamsParser.parseDescriptorInfo(sharedParamsFile);
-        } catch (ParserConfigurationException | IOException | SAXException e) {
+        } catch (IOException | XMLStreamException e) {
             throw new CatalogListerRuntimeException("Exception when parsing descriptor info from sharedParams file: " + e);
         }
         return descriptorInfoList;
@@ -16,7 +16,6 @@ import fi.vrk.xroad.catalog.lister.util.JaxbServiceUtil;
 import fi.vrk.xroad.catalog.persistence.CatalogService;
 import fi.vrk.xroad.catalog.persistence.entity.OpenApi;
 import fi.vrk.xroad.catalog.persistence.entity.Service;
-import fi.vrk.xroad.catalog.persistence.entity.Subsystem;
 import fi.vrk.xroad.catalog.persistence.entity.Wsdl;
 import fi.vrk.xroad.xroad_catalog_lister.ChangedValue;
 import fi.vrk.xroad.xroad_catalog_lister.Company;
@@ -68,10 +67,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.GregorianCalendar;
 import java.util.List;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 
 @SpringBootTest(classes = ListerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -114,6 +115,40 @@ public class ApplicationTests {
 				"http://localhost:" + port + "/ws", request);
 		assertNotNull(result);
 		assertEquals(3, result.getMemberList().getMember().size());
+		assertNull(result.getNextAfterId());
+	}
+
+	@Test
+	public void testListServicesPaged() {
+		mockMembersForListServices();
+		ListMembers request = new ListMembers();
+		request.setStartDateTime(JaxbServiceUtil.toXmlGregorianCalendar(LocalDateTime.of(2020, 1, 1, 1, 1)));
+		request.setEndDateTime(JaxbServiceUtil.toXmlGregorianCalendar(LocalDateTime.of(2030, 1, 31, 1, 1)));
+		request.setPageSize(2);
+		ListMembersResponse result = (ListMembersResponse)new WebServiceTemplate(marshaller).marshalSendAndReceive(
+				"http://localhost:" + port + "/ws", request);
+		assertNotNull(result);
+		assertEquals(2, result.getMemberList().getMember().size());
+		assertEquals(Long.valueOf(2L), result.getNextAfterId());
+	}
+
+	@Test
+	public void testListServicesInvalidPageSize() {
+		boolean thrown = false;
+		String exceptionMessage = null;
+		try {
+			ListMembers request = new ListMembers();
+			request.setStartDateTime(JaxbServiceUtil.toXmlGregorianCalendar(LocalDateTime.of(2020, 1, 1, 1, 1)));
+			request.setEndDateTime(JaxbServiceUtil.toXmlGregorianCalendar(LocalDateTime.of(2030, 1, 31, 1, 1)));
+			request.setPageSize(0);
+			new WebServiceTemplate(marshaller).marshalSendAndReceive(
+					"http://localhost:" + port + "/ws", request);
+		} catch (SoapFaultClientException e) {
+			thrown = true;
+			exceptionMessage = e.getMessage();
+		}
+		assertTrue(thrown);
+		assertEquals("pageSize must be between 1 and 500", exceptionMessage);
 	}
 
 	@Test
@@ -714,7 +749,10 @@ public class ApplicationTests {
 		member3.setXRoadInstance("DEV");
 		member3.setMemberClass("COM");
 		member3.setMemberCode("1234");
-		given(jaxbCatalogService.getAllMembers(any(), any())).willReturn(Arrays.asList(member, member2, member3));
+		given(jaxbCatalogService.getMembers(any(), any(), anyLong(), anyInt()))
+				.willReturn(new MemberPage(Arrays.asList(member, member2, member3), null));
+		given(jaxbCatalogService.getMembers(any(), any(), eq(0L), eq(2)))
+				.willReturn(new MemberPage(Arrays.asList(member, member2), 2L));
 	}
 
 	private void mockErrors(XMLGregorianCalendar calStart, XMLGregorianCalendar calEnd) {
@@ -747,15 +785,7 @@ public class ApplicationTests {
 											   String serviceCode,
 											   String serviceVersion,
 											   String serviceType) {
-		Service service = new Service();
-		service.setServiceCode(serviceCode);
-		service.setServiceVersion(serviceVersion);
-		if (serviceType.equalsIgnoreCase("soap")) {
-			service.setWsdl(new Wsdl());
-		} else if (serviceType.equalsIgnoreCase("openapi")) {
-			service.setOpenApi(new OpenApi());
-		}
-		given(catalogService.getService(xRoadInstance, memberClass, memberCode, serviceCode, subsystemCode, serviceVersion)).willReturn(service);
+		given(catalogService.getServiceType(xRoadInstance, memberClass, memberCode, serviceCode, subsystemCode, serviceVersion)).willReturn(serviceType);
 	}
 
 	private void mockUnchangedCompany(String businessId, XMLGregorianCalendar calStart, XMLGregorianCalendar calEnd) {
@@ -824,32 +854,11 @@ public class ApplicationTests {
 	}
 
 	private void mockProvider(String xRoadInstance, String memberClass, String memberCode) {
-		fi.vrk.xroad.catalog.persistence.entity.Member member = new fi.vrk.xroad.catalog.persistence.entity.Member();
-		member.setXRoadInstance(xRoadInstance);
-		member.setMemberClass(memberClass);
-		member.setMemberCode(memberCode);
-		Subsystem subsystem = new Subsystem();
-		subsystem.setSubsystemCode("TestSubsystem");
-		Service service = new Service();
-		service.setServiceCode("TestService");
-		service.setWsdl(new Wsdl(service, "This is WSDL", "3242efdf34r"));
-		subsystem.setServices(Set.of(service));
-		member.setSubsystems(Set.of(subsystem));
-		given(catalogService.getMember(xRoadInstance, memberClass, memberCode)).willReturn(member);
+		given(catalogService.isProvider(xRoadInstance, memberClass, memberCode)).willReturn(Boolean.TRUE);
 	}
 
 	private void mockNoProvider(String xRoadInstance, String memberClass, String memberCode) {
-		fi.vrk.xroad.catalog.persistence.entity.Member member = new fi.vrk.xroad.catalog.persistence.entity.Member();
-		member.setXRoadInstance(xRoadInstance);
-		member.setMemberClass(memberClass);
-		member.setMemberCode(memberCode);
-		Subsystem subsystem = new Subsystem();
-		subsystem.setSubsystemCode("TestSubsystem");
-		Service service = new Service();
-		service.setServiceCode("TestService");
-		subsystem.setServices(Set.of(service));
-		member.setSubsystems(Set.of(subsystem));
-		given(catalogService.getMember(xRoadInstance, memberClass, memberCode)).willReturn(member);
+		given(catalogService.isProvider(xRoadInstance, memberClass, memberCode)).willReturn(Boolean.FALSE);
 	}
 
 	private void mockOrganizations(String businessCode, String emailAddress, String url) {
@@ -0,0 +1,77 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.SOAPMessage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CdataSoapMessageTests {
+
+    private static final String NAMESPACE_URI = "http://xroad.vrk.fi/xroad-catalog-lister";
+
+    @Test
+    public void testWriteCdata() throws Exception {
+        MessageFactory messageFactory = MessageFactory.newInstance();
+        CdataSoapMessage message = new CdataSoapMessage(messageFactory.createMessage(), messageFactory);
+        message.getSaajMessage().getSOAPBody()
+                .addChildElement("GetWsdlResponse", "ns2", NAMESPACE_URI)
+                .addChildElement("wsdl", "ns2")
+                .addTextNode(CdataSoapMessage.PLACEHOLDER);
+        String wsdl = "<definitions><documentation>a]]>b & c</documentation></definitions>";
+        message.setCdata(wsdl);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertFalse(written.contains(CdataSoapMessage.PLACEHOLDER));
+        assertTrue(written.contains("<ns2:wsdl><![CDATA[<definitions><documentation>a]]]]><![CDATA[>b & c"
+                + "</documentation></definitions>]]></ns2:wsdl>"));
+
+        SOAPMessage read = messageFactory.createMessage(null, new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(wsdl, read.getSOAPBody().getElementsByTagNameNS(NAMESPACE_URI, "wsdl").item(0).getTextContent());
+    }
+
+    @Test
+    public void testWriteStreamedContent() throws Exception {
+        MessageFactory messageFactory = MessageFactory.newInstance();
+        CdataSoapMessage message = new CdataSoapMessage(messageFactory.createMessage(), messageFactory);
+        message.getSaajMessage().getSOAPBody()
+                .addChildElement("ListMembersResponse", "ns2", NAMESPACE_URI)
+                .addChildElement("memberList", "ns2")
+                .addTextNode(CdataSoapMessage.PLACEHOLDER);
+        message.setContent(writer -> {
+            for (int i = 1; i <= 3; i++) {
+                writer.write("<ns2:member xmlns:ns2=\"" + NAMESPACE_URI + "\"><ns2:memberCode>" + i
+                        + "</ns2:memberCode></ns2:member>");
+            }
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains(CdataSoapMessage.PLACEHOLDER));
+
+        SOAPMessage read = messageFactory.createMessage(null, new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(3, read.getSOAPBody().getElementsByTagNameNS(NAMESPACE_URI, "member").getLength());
+        assertEquals("3", read.getSOAPBody().getElementsByTagNameNS(NAMESPACE_URI, "memberCode").item(2)
+                .getTextContent());
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.lister;
+
+import fi.vrk.xroad.catalog.persistence.CatalogService;
+import fi.vrk.xroad.catalog.persistence.entity.OpenApi;
+import fi.vrk.xroad.catalog.persistence.entity.Service;
+import fi.vrk.xroad.catalog.persistence.entity.Wsdl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DescriptorCacheTests {
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testCachedUntilVersionChanges() {
+        DescriptorCache descriptorCache = new DescriptorCache(catalogService, meterRegistry, 1024 * 1024, false);
+        given(catalogService.getDescriptorVersion()).willReturn(1L);
+        given(catalogService.getWsdl("1000")).willReturn(new Wsdl(new Service(), "This is WSDL", "1000"));
+        descriptorCache.checkVersion();
+
+        assertEquals("This is WSDL", descriptorCache.getWsdl("1000"));
+        assertEquals("This is WSDL", descriptorCache.getWsdl("1000"));
+        verify(catalogService, times(1)).getWsdl("1000");
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+
+        descriptorCache.checkVersion();
+        assertEquals("This is WSDL", descriptorCache.getWsdl("1000"));
+        verify(catalogService, times(1)).getWsdl("1000");
+
+        given(catalogService.getDescriptorVersion()).willReturn(2L);
+        given(catalogService.getWsdl("1000")).willReturn(new Wsdl(new Service(), "This is changed WSDL", "1000"));
+        descriptorCache.checkVersion();
+        assertEquals("This is changed WSDL", descriptorCache.getWsdl("1000"));
+        verify(catalogService, times(2)).getWsdl("1000");
+    }
+
+    @Test
+    public void testCompressedAndNotFound() {
+        DescriptorCache descriptorCache = new DescriptorCache(catalogService, meterRegistry, 1024 * 1024, true);
+        given(catalogService.getOpenApi("3003")).willReturn(new OpenApi(new Service(), "This is OpenAPI", "3003"));
+        descriptorCache.checkVersion();
+
+        assertEquals("This is OpenAPI", descriptorCache.getOpenApi("3003"));
+        assertEquals("This is OpenAPI", descriptorCache.getOpenApi("3003"));
+        verify(catalogService, times(1)).getOpenApi("3003");
+
+        // WSDLs and OpenAPI descriptions with the same external id are cached separately
+        assertNull(descriptorCache.getWsdl("3003"));
+        assertNull(descriptorCache.getWsdl("3003"));
+        verify(catalogService, times(2)).getWsdl("3003");
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", DescriptorCache.CACHE_NAME).tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -87,6 +87,37 @@ public class JaxbCatalogServiceTest {
         assertMember2Contents(members);
     }
 
+    @Test
+    public void testGetMembersPageIsBasedOnIds() {
+        JaxbCatalogServiceImpl pagingService = new JaxbCatalogServiceImpl();
+        pagingService.setJaxbServiceConverter(jaxbServiceConverter);
+        pagingService.setCatalogService(new CatalogServiceImpl() {
+            @Override
+            public List<Long> getMemberIds(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                           long afterId, int pageSize) {
+                return afterId == 0L ? Arrays.asList(1L, 2L) : Collections.singletonList(3L);
+            }
+            @Override
+            public List<Member> getMembers(Collection<Long> ids) {
+                // member 1 is gone by the time the member trees are loaded
+                Map<Long, Member> allMembers = createTestMembers();
+                List<Member> members = new ArrayList<>();
+                ids.stream().filter(id -> id != 1L).forEach(id -> members.add(allMembers.get(id)));
+                return members;
+            }
+        });
+        XMLGregorianCalendar startDateTime = JaxbServiceUtil.toXmlGregorianCalendar(DATETIME_1800);
+        XMLGregorianCalendar endDateTime = JaxbServiceUtil.toXmlGregorianCalendar(LocalDateTime.of(2022, 12, 31, 0, 0));
+
+        MemberPage firstPage = pagingService.getMembers(startDateTime, endDateTime, 0L, 2);
+        assertEquals(1, firstPage.getMembers().size());
+        assertEquals(Long.valueOf(2L), firstPage.getNextAfterId());
+
+        MemberPage lastPage = pagingService.getMembers(startDateTime, endDateTime, 2L, 2);
+        assertEquals(1, lastPage.getMembers().size());
+        assertNull(lastPage.getNextAfterId());
+    }
+
     /**
      * Assert that member 2 has subsystem-service-wsdl contents that we expect
      */
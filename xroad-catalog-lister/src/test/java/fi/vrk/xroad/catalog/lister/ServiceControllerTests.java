@@ -14,6 +14,7 @@ package fi.vrk.xroad.catalog.lister;
 
 import fi.vrk.xroad.catalog.lister.util.ServiceUtil;
 import fi.vrk.xroad.catalog.persistence.dto.EndpointData;
+import fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow;
 import fi.vrk.xroad.catalog.persistence.dto.ServiceEndpointsResponse;
 import fi.vrk.xroad.catalog.persistence.entity.Endpoint;
 import fi.vrk.xroad.catalog.persistence.entity.ErrorLog;
@@ -50,7 +51,10 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest(classes = ListerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @TestPropertySource(properties = {"xroad-catalog.shared-params-file=src/test/resources/shared-params.xml"})
@@ -130,6 +134,68 @@ public class ServiceControllerTests {
         }
     }
 
+    @Test
+    public void testListErrorsWithCursor() throws JSONException {
+        String startDate = "2014-01-01";
+        String endDate = "2022-01-01";
+        LocalDateTime startDateTime = ServiceUtil.convertStringToLocalDateTime(startDate);
+        LocalDateTime endDateTime = ServiceUtil.convertStringToLocalDateTime(endDate);
+        LocalDateTime created = LocalDateTime.of(2020, 5, 4, 11, 41, 24);
+        List<ErrorLog> firstPage = Arrays.asList(
+                ErrorLog.builder().id(41L).created(created).xRoadInstance(xRoadInstance).message(errorMessage).build(),
+                ErrorLog.builder().id(42L).created(created).xRoadInstance(xRoadInstance).message(errorMessage).build());
+        List<ErrorLog> secondPage = Arrays.asList(
+                ErrorLog.builder().id(43L).created(created).xRoadInstance(xRoadInstance).message(errorMessage).build());
+        given(errorLogRepository.findAnyByCreatedAfter(startDateTime, endDateTime, startDateTime, 0L,
+                PageRequest.of(0, 2))).willReturn(firstPage);
+        given(errorLogRepository.findAnyByCreatedAfter(startDateTime, endDateTime, created, 42L,
+                PageRequest.of(0, 2))).willReturn(secondPage);
+        given(errorLogRepository.countByCreated(startDateTime, endDateTime)).willReturn(3L);
+
+        String url = "/api/listErrors?startDate=" + startDate + "&endDate=" + endDate + "&limit=2&cursor=&count=true";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(200, response.getStatusCodeValue());
+        JSONObject json = new JSONObject(response.getBody());
+        assertEquals(2, json.getJSONArray("errorLogList").length());
+        assertEquals(2, json.getInt("numberOfPages"));
+        assertEquals("2020-05-04T11:41:24,42", json.getString("nextCursor"));
+
+        url = "/api/listErrors?startDate=" + startDate + "&endDate=" + endDate + "&limit=2&cursor=" + json.getString("nextCursor");
+        response = restTemplate.getForEntity(url, String.class);
+        assertEquals(200, response.getStatusCodeValue());
+        json = new JSONObject(response.getBody());
+        assertEquals(1, json.getJSONArray("errorLogList").length());
+        assertTrue(json.isNull("numberOfPages"));
+        assertTrue(json.isNull("nextCursor"));
+
+        url = "/api/listErrors?startDate=" + startDate + "&endDate=" + endDate + "&cursor=invalid";
+        response = restTemplate.getForEntity(url, String.class);
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
+    @Test
+    public void testListErrorsWithoutCount() throws JSONException {
+        String startDate = "2014-01-01";
+        String endDate = "2022-01-01";
+        LocalDateTime startDateTime = ServiceUtil.convertStringToLocalDateTime(startDate);
+        LocalDateTime endDateTime = ServiceUtil.convertStringToLocalDateTime(endDate);
+        LocalDateTime created = LocalDateTime.of(2020, 5, 4, 11, 41, 24);
+        List<ErrorLog> secondPage = Arrays.asList(
+                ErrorLog.builder().id(43L).created(created).xRoadInstance(xRoadInstance).message(errorMessage).build());
+        given(errorLogRepository.findAnyByCreatedAfter(startDateTime, endDateTime, startDateTime, 0L,
+                PageRequest.of(1, 2))).willReturn(secondPage);
+
+        String url = "/api/listErrors?startDate=" + startDate + "&endDate=" + endDate + "&page=1&limit=2&count=false";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(200, response.getStatusCodeValue());
+        JSONObject json = new JSONObject(response.getBody());
+        assertEquals(1, json.getJSONArray("errorLogList").length());
+        assertEquals(1, json.getInt("pageNumber"));
+        assertTrue(json.isNull("numberOfPages"));
+        verify(errorLogRepository, never()).findAnyByCreated(any(), any(), any());
+        verify(errorLogRepository, never()).countByCreated(any(), any());
+    }
+
     @Test
     public void testListErrors() throws JSONException {
         String startDate = "2014-01-01";
@@ -390,6 +456,7 @@ public class ServiceControllerTests {
             assertTrue(csvRowContent.size() >= 1);
             assertTrue(csvRowContent.get(0).length() >= 3 || csvRowContent.get(1).length() >= 3);
         }
+        assertTrue(csvContent.stream().anyMatch(row -> row.contains("memberX,2015-01-01T01:01," + firstSubsystem)));
     }
 
     @Test
@@ -738,5 +805,11 @@ public class ServiceControllerTests {
         members.add(memberY);
         members.add(memberZ);
         given(memberRepository.findAll()).willReturn(new HashSet<>(members));
+        List<MemberServiceRow> rows = new ArrayList<>();
+        members.forEach(member -> member.getAllSubsystems().forEach(subsystem -> rows.add(new MemberServiceRow(
+                member.getXRoadInstance(), member.getMemberClass(), member.getMemberCode(), member.getName(),
+                member.getStatusInfo().getCreated(), subsystem.getSubsystemCode(), created, null,
+                null, null, null, null))));
+        given(memberRepository.streamMemberServiceRows(any(LocalDateTime.class))).willAnswer(invocation -> rows.stream());
     }
 }
@@ -12,10 +12,24 @@
  */
 package fi.vrk.xroad.catalog.lister;
 
+import fi.vrk.xroad.catalog.persistence.dto.DescriptorInfo;
 import fi.vrk.xroad.catalog.persistence.dto.SecurityServerDataList;
+import fi.vrk.xroad.catalog.persistence.dto.SecurityServerInfo;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SharedParamsParserTests {
 
@@ -92,4 +106,70 @@ public class SharedParamsParserTests {
 
         assertEquals(0, list.getSecurityServerDataList().get(3).getClients().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseInfo() throws Exception {
+        SharedParamsParser sharedParamsParser = new SharedParamsParser();
+        Set<SecurityServerInfo> infos = sharedParamsParser.parseInfo("src/test/resources/shared-params-2.xml");
+        assertEquals(4, infos.size());
+        assertTrue(infos.contains(new SecurityServerInfo("PLAYGROUND", "niisss01", "10.0.0.1", "ORG", "2908758-4")));
+        assertTrue(infos.contains(new SecurityServerInfo("PLAYGROUND", "testcomss01", "10.0.0.2", "COM", "1234567-8")));
+        assertTrue(infos.contains(new SecurityServerInfo("PLAYGROUND", "testagess01", "10.0.0.3", "GOV", "8765432-1")));
+        assertTrue(infos.contains(new SecurityServerInfo("PLAYGROUND", "niisss02", "10.0.0.4", "ORG", "2908758-4")));
+    }
+
+    @Test
+    public void testParsedOnceUntilFileChanges(@TempDir Path tempDir) throws Exception {
+        Path sharedParams = tempDir.resolve("shared-params.xml");
+        String content = Files.readString(Paths.get("src/test/resources/shared-params-2.xml"), StandardCharsets.UTF_8);
+        Files.writeString(sharedParams, content, StandardCharsets.UTF_8);
+        SharedParamsParser sharedParamsParser = new SharedParamsParser();
+
+        List<DescriptorInfo> descriptorInfos = sharedParamsParser.parseDescriptorInfo(sharedParams.toString());
+        assertEquals(11, descriptorInfos.size());
+        assertEquals("NIIS", descriptorInfos.get(0).getMemberName());
+        assertSame(descriptorInfos, sharedParamsParser.parseDescriptorInfo(sharedParams.toString()));
+
+        FileTime modified = Files.getLastModifiedTime(sharedParams);
+        Files.writeString(sharedParams, content.replace("<name>NIIS</name>", "<name>Changed NIIS</name>"),
+                StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(sharedParams, FileTime.fromMillis(modified.toMillis() + 1000));
+
+        List<DescriptorInfo> changedDescriptorInfos = sharedParamsParser.parseDescriptorInfo(sharedParams.toString());
+        assertNotSame(descriptorInfos, changedDescriptorInfos);
+        assertEquals("Changed NIIS", changedDescriptorInfos.get(0).getMemberName());
+        assertEquals("Changed NIIS",
+                sharedParamsParser.parseDetails(sharedParams.toString()).getSecurityServerDataList().get(0).getOwner().getName());
+    }
+
+    @Test
+    public void testUnknownElementsAreSkipped(@TempDir Path tempDir) throws Exception {
+        Path sharedParams = tempDir.resolve("shared-params.xml");
+        Files.writeString(sharedParams, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<ns3:conf xmlns:ns3=\"http://x-road.eu/xsd/xroad.xsd\">"
+                + "<instanceIdentifier>DEV</instanceIdentifier>"
+                + "<globalGroup><groupCode>security-server-owners</groupCode><groupMember>"
+                + "<memberClass>GOV</memberClass><memberCode>1234</memberCode></groupMember></globalGroup>"
+                + "<member id=\"id0\"><memberClass><code>GOV</code><description>Government</description></memberClass>"
+                + "<memberCode>1234</memberCode><name>Member</name>"
+                + "<subsystem id=\"id1\"><subsystemCode>Sub</subsystemCode><extension><name>Other</name></extension></subsystem>"
+                + "</member>"
+                + "<securityServer><owner>id0</owner><serverCode>ss1</serverCode><address>10.0.0.1</address>"
+                + "<authCertHash>aGFzaA==</authCertHash><client>id1</client><client>unknown</client></securityServer>"
+                + "</ns3:conf>", StandardCharsets.UTF_8);
+        SharedParamsParser sharedParamsParser = new SharedParamsParser();
+
+        List<DescriptorInfo> descriptorInfos = sharedParamsParser.parseDescriptorInfo(sharedParams.toString());
+        assertEquals(1, descriptorInfos.size());
+        assertEquals("DEV", descriptorInfos.get(0).getXRoadInstance());
+        assertEquals("Member", descriptorInfos.get(0).getMemberName());
+        assertEquals("Sub", descriptorInfos.get(0).getSubsystemCode());
+
+        SecurityServerDataList list = sharedParamsParser.parseDetails(sharedParams.toString());
+        assertEquals(1, list.getSecurityServerDataList().size());
+        assertEquals("ss1", list.getSecurityServerDataList().get(0).getServerCode());
+        assertEquals("Member", list.getSecurityServerDataList().get(0).getOwner().getName());
+        assertEquals(1, list.getSecurityServerDataList().get(0).getClients().size());
+        assertEquals("Sub", list.getSecurityServerDataList().get(0).getClients().get(0).getSubsystemCode());
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.persistence.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the former getDistinctServiceStatistics implementation, which loaded all active services and
+ * streamed the whole list for every day of the range, with the single COUNT(DISTINCT) aggregate query.
+ * Runs against an in-memory H2 database with a simplified service table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MILLISECONDS)
+public class DistinctServiceStatisticsBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    @Param({"10000", "100000"})
+    private int services;
+
+    @Param({"365"})
+    private int days;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:distinct_service_statistics;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS service");
+            statement.execute("CREATE TABLE service (id INT PRIMARY KEY, service_code TEXT NOT NULL, "
+                    + "created TIMESTAMP NOT NULL, removed TIMESTAMP)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO service (id, service_code, created, removed) VALUES (?, ?, ?, NULL)")) {
+            for (int i = 0; i < services; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "service" + (i % (services / 4)));
+                insert.setTimestamp(3, Timestamp.valueOf(START.minusDays(i % 1000)));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE service");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long streamPerDay() throws SQLException {
+        List<ServiceRow> activeServices = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT service_code, created FROM service WHERE removed IS NULL")) {
+            while (resultSet.next()) {
+                activeServices.add(new ServiceRow(resultSet.getString(1), resultSet.getTimestamp(2).toLocalDateTime()));
+            }
+        }
+        LocalDateTime end = START.plusDays(days);
+        long total = 0;
+        for (int day = 0; day < days; day++) {
+            List<ServiceRow> servicesBetweenDates = activeServices.stream()
+                    .filter(service -> service.created.isBefore(end))
+                    .collect(Collectors.toList());
+            total += servicesBetweenDates.stream().map(service -> service.serviceCode).collect(Collectors.toList())
+                    .stream().distinct().collect(Collectors.toList()).size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long countDistinct() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(DISTINCT service_code) FROM service WHERE removed IS NULL AND created < ?")) {
+            statement.setTimestamp(1, Timestamp.valueOf(START.plusDays(days)));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1) * days;
+            }
+        }
+    }
+
+    private static final class ServiceRow {
+        private final String serviceCode;
+        private final LocalDateTime created;
+
+        private ServiceRow(String serviceCode, LocalDateTime created) {
+            this.serviceCode = serviceCode;
+            this.created = created;
+        }
+    }
+}
@@ -15,13 +15,16 @@ package fi.vrk.xroad.catalog.persistence;
 import fi.vrk.xroad.catalog.persistence.dto.LastCollectionData;
 import fi.vrk.xroad.catalog.persistence.dto.DistinctServiceStatistics;
 import fi.vrk.xroad.catalog.persistence.dto.MemberDataList;
+import fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow;
 import fi.vrk.xroad.catalog.persistence.dto.ServiceStatistics;
 import fi.vrk.xroad.catalog.persistence.dto.XRoadData;
 import fi.vrk.xroad.catalog.persistence.entity.*;
 import org.springframework.data.domain.Page;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * CRUD methods for catalog objects. no business logic (e.g. hash calculation),
@@ -66,6 +69,26 @@ public interface CatalogService {
      */
     Iterable<Member> getAllMembers(LocalDateTime startDateTime, LocalDateTime endDateTime);
 
+    /**
+     * Returns one page of ids of the members returned by {@link #getAllMembers(LocalDateTime, LocalDateTime)},
+     * in ascending order, starting after the given member id. The next page starts after the last id of
+     * this page, and there are no more pages when this page has less than pageSize ids.
+     * @param startDateTime Only interested in member after this
+     * @param endDateTime Only interested in member before this
+     * @param afterId Only interested in members with id greater than this, 0 for the first page
+     * @param pageSize maximum number of ids returned
+     * @return List of member ids
+     */
+    List<Long> getMemberIds(LocalDateTime startDateTime, LocalDateTime endDateTime, long afterId, int pageSize);
+
+    /**
+     * Returns the given members with all data from graph member->subsystem->service->wsdl/openapi,
+     * removed items included
+     * @param ids member ids, typically a page returned by {@link #getMemberIds}
+     * @return List of Member entities ordered by id
+     */
+    List<Member> getMembers(Collection<Long> ids);
+
     /**
      * Returns full Member object
      * @param xRoadInstance name of the instance
@@ -75,6 +98,16 @@ public interface CatalogService {
      */
     Member getMember(String xRoadInstance, String memberClass, String memberCode);
 
+    /**
+     * Checks whether an active member provides any SOAP or OpenAPI service
+     * @param xRoadInstance name of the instance
+     * @param memberClass member class
+     * @param memberCode member  code
+     * @return true if the member has a service with a WSDL or an OpenAPI description,
+     * false if not, null if the member was not found
+     */
+    Boolean isProvider(String xRoadInstance, String memberClass, String memberCode);
+
     /**
      * Returns the full Wsdl object. Only returns active ones, removed are not found.
      * @param externalId id of a Wsdl
@@ -117,6 +150,24 @@ public interface CatalogService {
                        String subsystemCode,
                        String serviceVersion);
 
+    /**
+     * Returns the type of a service: SOAP if it has a WSDL, otherwise OPENAPI if it has an OpenAPI description,
+     * otherwise REST
+     * @param xRoadInstance X-Road instance identifier
+     * @param memberClass X-Road member class
+     * @param memberCode X-Road member code
+     * @param serviceCode X-Road service code
+     * @param subsystemCode X-Road subsystem code
+     * @param serviceVersion X-Road service version
+     * @return service type, null if not found
+     */
+    String getServiceType(String xRoadInstance,
+                          String memberClass,
+                          String memberCode,
+                          String serviceCode,
+                          String subsystemCode,
+                          String serviceVersion);
+
     /**
      * Returns List of full Service objects. Only returns active ones, removed are not found.
      * @param xRoadInstance X-Road instance identifier
@@ -147,6 +198,50 @@ public interface CatalogService {
                              LocalDateTime startDate,
                              LocalDateTime endDate);
 
+    /**
+     * Returns a list of error logs ordered by creation time and id, starting after the given position.
+     * Unlike {@link #getErrors(XRoadData, int, int, LocalDateTime, LocalDateTime)} the cost of a page does
+     * not grow with its position and no total count is computed.
+     * @param xRoadData X-Road instance identifier, member class, member code and subsystem code
+     * @param afterCreated creation time of the last error log of the previous page, null for the first page
+     * @param afterId id of the last error log of the previous page
+     * @param limit number of results per page
+     * @param startDate creation date from
+     * @param endDate creation date to
+     * @return List of ErrorLog, empty list if not found
+     */
+    List<ErrorLog> getErrors(XRoadData xRoadData,
+                             LocalDateTime afterCreated,
+                             long afterId,
+                             int limit,
+                             LocalDateTime startDate,
+                             LocalDateTime endDate);
+
+    /**
+     * Returns a page of error logs ordered by creation time and id. Unlike
+     * {@link #getErrors(XRoadData, int, int, LocalDateTime, LocalDateTime)} the error logs are not counted.
+     * @param xRoadData X-Road instance identifier, member class, member code and subsystem code
+     * @param page page number of the error logs
+     * @param limit number of results per page
+     * @param startDate creation date from
+     * @param endDate creation date to
+     * @return List of ErrorLog, empty list if not found
+     */
+    List<ErrorLog> getErrorsWithoutCount(XRoadData xRoadData,
+                                         int page,
+                                         int limit,
+                                         LocalDateTime startDate,
+                                         LocalDateTime endDate);
+
+    /**
+     * Returns the number of error logs
+     * @param xRoadData X-Road instance identifier, member class, member code and subsystem code
+     * @param startDate creation date from
+     * @param endDate creation date to
+     * @return number of ErrorLogs
+     */
+    long countErrors(XRoadData xRoadData, LocalDateTime startDate, LocalDateTime endDate);
+
     /**
      * Returns a list of service statistics
      * @param startDateTime creation date from
@@ -169,6 +264,14 @@ public interface CatalogService {
      */
     List<MemberDataList> getMemberData(LocalDateTime startDateTime, LocalDateTime endDateTime);
 
+    /**
+     * Passes member-subsystem-service rows of members created before given time to the consumer
+     * one at a time, without loading the member graph into memory.
+     * @param endDateTime creation date to
+     * @param rowConsumer consumer of the rows
+     */
+    void forEachMemberServiceRow(LocalDateTime endDateTime, Consumer<MemberServiceRow> rowConsumer);
+
     /**
      * Returns the full ErrorLog object.
      * @param startDateTime creation date from
@@ -270,10 +373,45 @@ public interface CatalogService {
      */
     ErrorLog saveErrorLog(ErrorLog errorLog);
 
+    /**
+     * Saves given errorLog entries in JDBC batches.
+     * @param errorLogs the errorLog entries
+     */
+    void saveErrorLogs(Collection<ErrorLog> errorLogs);
+
     /**
      * Deletes old log entries
      * @param daysBefore older than daysBefore
      */
     void deleteOldErrorLogEntries(Integer daysBefore);
 
+    /**
+     * Saves statistics of a finished collection run.
+     * @param collectionRun the collection run
+     * @return collection run
+     */
+    CollectionRun saveCollectionRun(CollectionRun collectionRun);
+
+    /**
+     * Returns the most recently started collection run.
+     * @return CollectionRun, null if no runs have been recorded
+     */
+    CollectionRun getLatestCollectionRun();
+
+    /**
+     * Saves a snapshot of the current catalog statistics (number of services per type, distinct services,
+     * members and subsystems) for the given date, replacing an earlier snapshot of the same date.
+     * Service statistics of past days are read from these snapshots when available.
+     * @param date the date of the snapshot
+     * @return saved DailyStatistics
+     */
+    DailyStatistics saveDailyStatistics(LocalDate date);
+
+    /**
+     * Returns the version of the stored WSDL and OpenAPI descriptors. The version is incremented
+     * whenever the data of an existing descriptor changes, so it can be polled to invalidate cached descriptors.
+     * @return descriptor version, 0 if no descriptor has changed yet
+     */
+    long getDescriptorVersion();
+
 }
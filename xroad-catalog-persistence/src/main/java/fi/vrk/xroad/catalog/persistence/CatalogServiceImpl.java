@@ -16,6 +16,7 @@ import fi.vrk.xroad.catalog.persistence.dto.DistinctServiceStatistics;
 import fi.vrk.xroad.catalog.persistence.dto.LastCollectionData;
 import fi.vrk.xroad.catalog.persistence.dto.MemberData;
 import fi.vrk.xroad.catalog.persistence.dto.MemberDataList;
+import fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow;
 import fi.vrk.xroad.catalog.persistence.dto.ServiceData;
 import fi.vrk.xroad.catalog.persistence.dto.ServiceStatistics;
 import fi.vrk.xroad.catalog.persistence.dto.SubsystemData;
@@ -27,15 +28,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation for catalogservice CRUD
@@ -53,6 +54,8 @@ public class CatalogServiceImpl implements CatalogService {
 
     private static final String SERVICE_ID_REQUIRED = "serviceId is required";
 
+    private static final String DESCRIPTOR_VERSION = "descriptors";
+
     @Autowired
     MemberRepository memberRepository;
 
@@ -77,6 +80,15 @@ public class CatalogServiceImpl implements CatalogService {
     @Autowired
     ErrorLogRepository errorLogRepository;
 
+    @Autowired
+    CollectionRunRepository collectionRunRepository;
+
+    @Autowired
+    DailyStatisticsRepository dailyStatisticsRepository;
+
+    @Autowired
+    CatalogVersionRepository catalogVersionRepository;
+
     @Override
     public Iterable<Member> getActiveMembers() {
         return memberRepository.findAllActive();
@@ -96,9 +108,30 @@ public class CatalogServiceImpl implements CatalogService {
         return memberRepository.findAllChangedBetween(startDateTime, endDateTime);
     }
 
+    @Override
+    public List<Long> getMemberIds(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                   long afterId, int pageSize) {
+        // the ids are paged separately from the member trees, fetch joins cannot be limited in the database
+        return memberRepository.findIdsChangedBetween(startDateTime, endDateTime, afterId,
+                PageRequest.of(0, pageSize));
+    }
+
+    @Override
+    public List<Member> getMembers(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return memberRepository.findWithFullTreeByIds(ids);
+    }
+
     @Override
     public Member getMember(String xRoadInstance, String memberClass, String memberCode) {
-        return memberRepository.findActiveByNaturalKey(xRoadInstance, memberClass, memberCode);
+        return memberRepository.findActiveWithFullTreeByNaturalKey(xRoadInstance, memberClass, memberCode);
+    }
+
+    @Override
+    public Boolean isProvider(String xRoadInstance, String memberClass, String memberCode) {
+        return memberRepository.findIsProviderByNaturalKey(xRoadInstance, memberClass, memberCode);
     }
 
     @Override
@@ -107,7 +140,7 @@ public class CatalogServiceImpl implements CatalogService {
         if (matches.size() > 1) {
             throw new IllegalStateException(MULTIPLE_MATCHES_FOUND_TO + externalId + ": " + matches);
         } else if (matches.size() == 1) {
-            return matches.iterator().next();
+            return withData(matches.iterator().next());
         } else {
             return null;
         }
@@ -119,12 +152,26 @@ public class CatalogServiceImpl implements CatalogService {
         if (matches.size() > 1) {
             throw new IllegalStateException(MULTIPLE_MATCHES_FOUND_TO + externalId + ": " + matches);
         } else if (matches.size() == 1) {
-            return matches.iterator().next();
+            return withData(matches.iterator().next());
         } else {
             return null;
         }
     }
 
+    /**
+     * Descriptor data is loaded lazily, load it while the session is still open
+     * since it is read after the transaction has ended
+     */
+    private static Wsdl withData(Wsdl wsdl) {
+        wsdl.getData();
+        return wsdl;
+    }
+
+    private static OpenApi withData(OpenApi openApi) {
+        openApi.getData();
+        return openApi;
+    }
+
     @Override
     public Rest getRest(Service service) {
         List<Rest> matches = restRepository.findAnyByService(service);
@@ -152,6 +199,21 @@ public class CatalogServiceImpl implements CatalogService {
                 memberClass, memberCode, serviceCode, subsystemCode, serviceVersion);
     }
 
+    @Override
+    public String getServiceType(String xRoadInstance,
+                                 String memberClass,
+                                 String memberCode,
+                                 String serviceCode,
+                                 String subsystemCode,
+                                 String serviceVersion) {
+        if (serviceVersion == null) {
+            return serviceRepository.findServiceTypeByMemberServiceAndSubsystemVersionNull(xRoadInstance,
+                    memberClass, memberCode, serviceCode, subsystemCode);
+        }
+        return serviceRepository.findServiceTypeByMemberServiceAndSubsystemAndVersion(xRoadInstance,
+                memberClass, memberCode, serviceCode, subsystemCode, serviceVersion);
+    }
+
     @Override
     public List<Service> getServices(String xRoadInstance,
                                      String memberClass,
@@ -168,43 +230,44 @@ public class CatalogServiceImpl implements CatalogService {
     @Override
     public List<ServiceStatistics> getServiceStatistics(LocalDateTime startDateTime, LocalDateTime endDateTime) {
         List<ServiceStatistics> serviceStatisticsList = new ArrayList<>();
-        List<Service> services = serviceRepository.findAllActive();
+        Map<LocalDate, DailyStatistics> snapshots = getDailyStatisticsSnapshots(startDateTime, endDateTime);
+        Object[] counts = null;
         LocalDateTime dateInPast = startDateTime;
         while (isDateBetweenDates(dateInPast, startDateTime, endDateTime)) {
-            ServiceStatistics serviceStatistics = createServiceStatistics(services, dateInPast, endDateTime);
-            serviceStatisticsList.add(serviceStatistics);
+            DailyStatistics snapshot = snapshots.get(dateInPast.toLocalDate());
+            if (snapshot != null) {
+                serviceStatisticsList.add(ServiceStatistics.builder()
+                        .created(dateInPast)
+                        .numberOfRestServices(snapshot.getNumberOfRestServices())
+                        .numberOfSoapServices(snapshot.getNumberOfSoapServices())
+                        .numberOfOpenApiServices(snapshot.getNumberOfOpenApiServices()).build());
+            } else {
+                if (counts == null) {
+                    counts = serviceRepository.countActiveByTypeCreatedBefore(endDateTime).get(0);
+                }
+                serviceStatisticsList.add(ServiceStatistics.builder()
+                        .created(dateInPast)
+                        .numberOfRestServices(((Number) counts[0]).longValue())
+                        .numberOfSoapServices(((Number) counts[1]).longValue())
+                        .numberOfOpenApiServices(((Number) counts[2]).longValue()).build());
+            }
             dateInPast = dateInPast.plusDays(1);
         }
         return serviceStatisticsList;
     }
 
-    private ServiceStatistics createServiceStatistics(List<Service> services,
-                                                      LocalDateTime dateInPast,
-                                                      LocalDateTime endDateTime) {
-        AtomicLong numberOfSoapServices = new AtomicLong();
-        AtomicLong numberOfRestServices = new AtomicLong();
-        AtomicLong numberOfOpenApiServices = new AtomicLong();
-
-        services.forEach(service -> {
-            LocalDateTime creationDate = service.getStatusInfo().getCreated();
-            if (creationDate.isBefore(endDateTime)) {
-                if (service.hasOpenApi()) {
-                    numberOfOpenApiServices.getAndIncrement();
-                }
-                else if (service.hasWsdl()) {
-                    numberOfSoapServices.getAndIncrement();
-                }
-                else {
-                    numberOfRestServices.getAndIncrement();
-                }
-            }
-        });
-
-        return ServiceStatistics.builder()
-                .created(dateInPast)
-                .numberOfRestServices(numberOfRestServices.longValue())
-                .numberOfSoapServices(numberOfSoapServices.longValue())
-                .numberOfOpenApiServices(numberOfOpenApiServices.longValue()).build();
+    /**
+     * Snapshots of the days before today within the given range. The current day is always computed
+     * on the fly, as its snapshot is only written at the end of a collection run.
+     */
+    private Map<LocalDate, DailyStatistics> getDailyStatisticsSnapshots(LocalDateTime startDateTime,
+                                                                        LocalDateTime endDateTime) {
+        Map<LocalDate, DailyStatistics> snapshots = new HashMap<>();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate endDate = endDateTime.toLocalDate().isBefore(yesterday) ? endDateTime.toLocalDate() : yesterday;
+        dailyStatisticsRepository.findAllByStatisticsDateBetweenOrderByStatisticsDate(startDateTime.toLocalDate(), endDate)
+                .forEach(snapshot -> snapshots.put(snapshot.getStatisticsDate(), snapshot));
+        return snapshots;
     }
 
     @Override
@@ -260,28 +323,107 @@ public class CatalogServiceImpl implements CatalogService {
         return errorLogList;
     }
 
+    @Override
+    public List<ErrorLog> getErrors(XRoadData xRoadData,
+                                    LocalDateTime afterCreated,
+                                    long afterId,
+                                    int limit,
+                                    LocalDateTime startDateTime,
+                                    LocalDateTime endDateTime) {
+        if (afterCreated == null) {
+            // first page, (created, id) > (startDateTime, 0) covers the whole range
+            return findErrorsAfter(xRoadData, startDateTime, 0L, PageRequest.of(0, limit), startDateTime, endDateTime);
+        }
+        return findErrorsAfter(xRoadData, afterCreated, afterId, PageRequest.of(0, limit), startDateTime, endDateTime);
+    }
+
+    @Override
+    public List<ErrorLog> getErrorsWithoutCount(XRoadData xRoadData,
+                                                int page,
+                                                int limit,
+                                                LocalDateTime startDateTime,
+                                                LocalDateTime endDateTime) {
+        // the cursor queries return a list, so the offset page is read without a count query
+        return findErrorsAfter(xRoadData, startDateTime, 0L, PageRequest.of(page, limit), startDateTime, endDateTime);
+    }
+
+    private List<ErrorLog> findErrorsAfter(XRoadData xRoadData,
+                                           LocalDateTime afterCreated,
+                                           long afterId,
+                                           Pageable pageable,
+                                           LocalDateTime startDateTime,
+                                           LocalDateTime endDateTime) {
+        String xRoadInstance = xRoadData.getXRoadInstance();
+        String memberClass = xRoadData.getMemberClass();
+        String memberCode = xRoadData.getMemberCode();
+        String subsystemCode = xRoadData.getSubsystemCode();
+
+        if (xRoadInstance != null) {
+            if (memberClass != null) {
+                if (memberCode != null) {
+                    if (subsystemCode != null) {
+                        return errorLogRepository.findAnyByAllParametersAfter(startDateTime, endDateTime,
+                                xRoadInstance, memberClass, memberCode, subsystemCode, afterCreated, afterId, pageable);
+                    }
+                    return errorLogRepository.findAnyByMemberCodeAfter(startDateTime, endDateTime,
+                            xRoadInstance, memberClass, memberCode, afterCreated, afterId, pageable);
+                }
+                return errorLogRepository.findAnyByMemberClassAfter(startDateTime, endDateTime,
+                        xRoadInstance, memberClass, afterCreated, afterId, pageable);
+            }
+            return errorLogRepository.findAnyByInstanceAfter(startDateTime, endDateTime,
+                    xRoadInstance, afterCreated, afterId, pageable);
+        }
+        return errorLogRepository.findAnyByCreatedAfter(startDateTime, endDateTime, afterCreated, afterId, pageable);
+    }
+
+    @Override
+    public long countErrors(XRoadData xRoadData, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        String xRoadInstance = xRoadData.getXRoadInstance();
+        String memberClass = xRoadData.getMemberClass();
+        String memberCode = xRoadData.getMemberCode();
+        String subsystemCode = xRoadData.getSubsystemCode();
+
+        if (xRoadInstance != null) {
+            if (memberClass != null) {
+                if (memberCode != null) {
+                    if (subsystemCode != null) {
+                        return errorLogRepository.countByAllParameters(startDateTime, endDateTime,
+                                xRoadInstance, memberClass, memberCode, subsystemCode);
+                    }
+                    return errorLogRepository.countByMemberCode(startDateTime, endDateTime,
+                            xRoadInstance, memberClass, memberCode);
+                }
+                return errorLogRepository.countByMemberClass(startDateTime, endDateTime, xRoadInstance, memberClass);
+            }
+            return errorLogRepository.countByInstance(startDateTime, endDateTime, xRoadInstance);
+        }
+        return errorLogRepository.countByCreated(startDateTime, endDateTime);
+    }
+
     @Override
     public List<DistinctServiceStatistics> getDistinctServiceStatistics(LocalDateTime startDateTime,
                                                                         LocalDateTime endDateTime) {
         List<DistinctServiceStatistics> serviceStatisticsList = new ArrayList<>();
-        List<Service> services = serviceRepository.findAllActive();
+        Map<LocalDate, DailyStatistics> snapshots = getDailyStatisticsSnapshots(startDateTime, endDateTime);
+        Long numberOfDistinctServices = null;
         LocalDateTime dateInPast = startDateTime;
         while (isDateBetweenDates(dateInPast, startDateTime, endDateTime)) {
-            AtomicLong totalDistinctServices = new AtomicLong();
-            List<Service> servicesBetweenDates = services.stream()
-                    .filter(p -> p.getStatusInfo().getCreated().isBefore(endDateTime))
-                    .collect(Collectors.toList());
-            if (!servicesBetweenDates.isEmpty()) {
-                totalDistinctServices.set(servicesBetweenDates.stream().map(Service::getServiceCode).collect(Collectors.toList())
-                    .stream().distinct().collect(Collectors.toList()).size());
-
-                DistinctServiceStatistics serviceStatistics = DistinctServiceStatistics.builder()
+            DailyStatistics snapshot = snapshots.get(dateInPast.toLocalDate());
+            long distinctServices;
+            if (snapshot != null) {
+                distinctServices = snapshot.getNumberOfDistinctServices();
+            } else {
+                if (numberOfDistinctServices == null) {
+                    numberOfDistinctServices = serviceRepository.countDistinctActiveServiceCodesCreatedBefore(endDateTime);
+                }
+                distinctServices = numberOfDistinctServices;
+            }
+            if (distinctServices > 0) {
+                serviceStatisticsList.add(DistinctServiceStatistics.builder()
                         .created(dateInPast)
-                        .numberOfDistinctServices(totalDistinctServices.longValue()).build();
-
-                serviceStatisticsList.add(serviceStatistics);
+                        .numberOfDistinctServices(distinctServices).build());
             }
-
             dateInPast = dateInPast.plusDays(1);
         }
         return serviceStatisticsList;
@@ -289,51 +431,12 @@ public class CatalogServiceImpl implements CatalogService {
 
     @Override
     public List<MemberDataList> getMemberData(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        // every day lists the members created before endDateTime, so the tree is built
+        // only once and shared by the per-day entries
+        List<MemberData> memberDataList = Collections.unmodifiableList(getMemberDataCreatedBefore(endDateTime));
         List<MemberDataList> listOfMemberDataLists = new ArrayList<>();
-        Set<Member> members = memberRepository.findAll();
         LocalDateTime dateInPast = startDateTime;
         while (isDateBetweenDates(dateInPast, startDateTime, endDateTime)) {
-            List<MemberData> memberDataList = new ArrayList<>();
-            members.forEach(member -> {
-                LocalDateTime creationDate = member.getStatusInfo().getCreated();
-                if (creationDate.isBefore(endDateTime)) {
-                    AtomicReference<Boolean> isProvider = new AtomicReference<>();
-                    isProvider.set(Boolean.FALSE);
-                    Set<Subsystem> subsystems = member.getAllSubsystems();
-                    List<SubsystemData> subsystemDataList = new ArrayList<>();
-                    subsystems.forEach(subsystem -> {
-                        List<ServiceData> serviceDataList = new ArrayList<>();
-                        Set<Service> services = subsystem.getAllServices();
-                        services.forEach(service -> {
-                            ServiceData serviceData = ServiceData.builder()
-                                    .created(service.getStatusInfo().getCreated())
-                                    .serviceCode(service.getServiceCode())
-                                    .active(!service.getStatusInfo().isRemoved())
-                                    .serviceVersion(service.getServiceVersion()).build();
-                            serviceDataList.add(serviceData);
-                            if (service.hasWsdl() || service.hasOpenApi()) {
-                                isProvider.set(Boolean.TRUE);
-                            }
-                        });
-                        SubsystemData subsystemData = SubsystemData.builder()
-                                .created(subsystem.getStatusInfo().getCreated())
-                                .subsystemCode(subsystem.getSubsystemCode())
-                                .active(!subsystem.getStatusInfo().isRemoved())
-                                .serviceList(serviceDataList).build();
-                        subsystemDataList.add(subsystemData);
-                    });
-
-                    MemberData memberData = MemberData.builder()
-                            .created(creationDate)
-                            .provider(isProvider.get())
-                            .memberClass(member.getMemberClass())
-                            .memberCode(member.getMemberCode())
-                            .name(member.getName())
-                            .xRoadInstance(member.getXRoadInstance())
-                            .subsystemList(subsystemDataList).build();
-                    memberDataList.add(memberData);
-                }
-            });
             listOfMemberDataLists.add(MemberDataList.builder().date(dateInPast).memberDataList(memberDataList).build());
             dateInPast = dateInPast.plusDays(1);
         }
@@ -341,6 +444,51 @@ public class CatalogServiceImpl implements CatalogService {
         return listOfMemberDataLists;
     }
 
+    private List<MemberData> getMemberDataCreatedBefore(LocalDateTime endDateTime) {
+        List<MemberData> memberDataList = new ArrayList<>();
+        memberRepository.findAll().forEach(member -> {
+            LocalDateTime creationDate = member.getStatusInfo().getCreated();
+            if (creationDate.isBefore(endDateTime)) {
+                boolean isProvider = false;
+                List<SubsystemData> subsystemDataList = new ArrayList<>();
+                for (Subsystem subsystem : member.getAllSubsystems()) {
+                    List<ServiceData> serviceDataList = new ArrayList<>();
+                    for (Service service : subsystem.getAllServices()) {
+                        serviceDataList.add(ServiceData.builder()
+                                .created(service.getStatusInfo().getCreated())
+                                .serviceCode(service.getServiceCode())
+                                .active(!service.getStatusInfo().isRemoved())
+                                .serviceVersion(service.getServiceVersion()).build());
+                        isProvider = isProvider || service.hasWsdl() || service.hasOpenApi();
+                    }
+                    subsystemDataList.add(SubsystemData.builder()
+                            .created(subsystem.getStatusInfo().getCreated())
+                            .subsystemCode(subsystem.getSubsystemCode())
+                            .active(!subsystem.getStatusInfo().isRemoved())
+                            .serviceList(serviceDataList).build());
+                }
+
+                memberDataList.add(MemberData.builder()
+                        .created(creationDate)
+                        .provider(isProvider)
+                        .memberClass(member.getMemberClass())
+                        .memberCode(member.getMemberCode())
+                        .name(member.getName())
+                        .xRoadInstance(member.getXRoadInstance())
+                        .subsystemList(subsystemDataList).build());
+            }
+        });
+        return memberDataList;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachMemberServiceRow(LocalDateTime endDateTime, Consumer<MemberServiceRow> rowConsumer) {
+        try (Stream<MemberServiceRow> rows = memberRepository.streamMemberServiceRows(endDateTime)) {
+            rows.forEach(rowConsumer);
+        }
+    }
+
     @Override
     public Iterable<ErrorLog> getErrorLog(LocalDateTime startDateTime, LocalDateTime endDateTime) {
         return errorLogRepository.findAny(startDateTime, endDateTime);
@@ -351,7 +499,7 @@ public class CatalogServiceImpl implements CatalogService {
         LocalDateTime now = LocalDateTime.now();
         // process members
         Map<MemberId, Member> unprocessedOldMembers = new HashMap<>();
-        StreamSupport.stream(memberRepository.findAll().spliterator(), false)
+        memberRepository.findAllWithSubsystems()
                 .forEach(member -> unprocessedOldMembers.put(member.createKey(), member));
 
         for (Member member: members) {
@@ -423,6 +571,10 @@ public class CatalogServiceImpl implements CatalogService {
         LocalDateTime now = LocalDateTime.now();
         Wsdl wsdl = new Wsdl();
         wsdl.setData(wsdlString);
+        // an unchanged descriptor is detected by its hash in the database, without loading its data
+        if (wsdlRepository.updateFetchedIfUnchanged(oldService, wsdl.getDataHash(), now) > 0) {
+            return;
+        }
         Wsdl oldWsdl = oldService.getWsdl();
         if (oldWsdl == null) {
             wsdl.initializeExternalId();
@@ -433,16 +585,23 @@ public class CatalogServiceImpl implements CatalogService {
         } else {
             if (oldWsdl.getStatusInfo().isRemoved()) {
                 // resurrect
+                recordDescriptorChange(now);
                 oldWsdl.setData(wsdl.getData());
                 oldWsdl.getStatusInfo().setChanged(now);
                 oldWsdl.getStatusInfo().setRemoved(null);
                 oldWsdl.getStatusInfo().setFetched(now);
             } else {
                 // update existing
-                boolean wsdlChanged = !oldWsdl.getData().equals(wsdl.getData());
+                // compare hashes, rows stored before the hash column existed fall back to comparing data
+                boolean wsdlChanged = oldWsdl.getDataHash() != null
+                        ? !oldWsdl.getDataHash().equals(wsdl.getDataHash())
+                        : !oldWsdl.getData().equals(wsdl.getData());
                 if (wsdlChanged) {
+                    recordDescriptorChange(now);
                     oldWsdl.getStatusInfo().setChanged(now);
                     oldWsdl.setData(wsdl.getData());
+                } else if (oldWsdl.getDataHash() == null) {
+                    oldWsdl.setDataHash(wsdl.getDataHash());
                 }
                 oldWsdl.getStatusInfo().setFetched(now);
             }
@@ -457,6 +616,10 @@ public class CatalogServiceImpl implements CatalogService {
         LocalDateTime now = LocalDateTime.now();
         OpenApi openApi = new OpenApi();
         openApi.setData(openApiString);
+        // an unchanged descriptor is detected by its hash in the database, without loading its data
+        if (openApiRepository.updateFetchedIfUnchanged(oldService, openApi.getDataHash(), now) > 0) {
+            return;
+        }
         OpenApi oldOpenApi = oldService.getOpenApi();
         if (oldOpenApi == null) {
             openApi.initializeExternalId();
@@ -467,22 +630,46 @@ public class CatalogServiceImpl implements CatalogService {
         } else {
             if (oldOpenApi.getStatusInfo().isRemoved()) {
                 // resurrect
+                recordDescriptorChange(now);
                 oldOpenApi.setData(openApi.getData());
                 oldOpenApi.getStatusInfo().setChanged(now);
                 oldOpenApi.getStatusInfo().setRemoved(null);
                 oldOpenApi.getStatusInfo().setFetched(now);
             } else {
                 // update existing
-                boolean openApiChanged = !oldOpenApi.getData().equals(openApi.getData());
+                // compare hashes, rows stored before the hash column existed fall back to comparing data
+                boolean openApiChanged = oldOpenApi.getDataHash() != null
+                        ? !oldOpenApi.getDataHash().equals(openApi.getDataHash())
+                        : !oldOpenApi.getData().equals(openApi.getData());
                 if (openApiChanged) {
+                    recordDescriptorChange(now);
                     oldOpenApi.getStatusInfo().setChanged(now);
                     oldOpenApi.setData(openApi.getData());
+                } else if (oldOpenApi.getDataHash() == null) {
+                    oldOpenApi.setDataHash(openApi.getDataHash());
                 }
                 oldOpenApi.getStatusInfo().setFetched(now);
             }
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long getDescriptorVersion() {
+        Long version = catalogVersionRepository.findVersionByName(DESCRIPTOR_VERSION);
+        return version == null ? 0L : version;
+    }
+
+    /**
+     * New descriptors get new external ids, so only changes to the data of existing descriptors
+     * need to increment the version
+     */
+    private void recordDescriptorChange(LocalDateTime now) {
+        if (catalogVersionRepository.incrementVersion(DESCRIPTOR_VERSION, now) == 0) {
+            catalogVersionRepository.save(new CatalogVersion(DESCRIPTOR_VERSION, 1L, now));
+        }
+    }
+
     @Override
     public void saveRest(SubsystemId subsystemId, ServiceId serviceId, String restString) {
         Assert.notNull(subsystemId, SUBSYSTEM_ID_REQUIRED);
@@ -491,6 +678,10 @@ public class CatalogServiceImpl implements CatalogService {
         LocalDateTime now = LocalDateTime.now();
         Rest rest = new Rest();
         rest.setData(restString);
+        // an unchanged descriptor is detected by its hash in the database, without loading its data
+        if (restRepository.updateFetchedIfUnchanged(oldService, rest.getDataHash(), now) > 0) {
+            return;
+        }
         Rest oldRest = oldService.getRest();
         if (oldRest == null) {
             rest.initializeExternalId();
@@ -507,10 +698,15 @@ public class CatalogServiceImpl implements CatalogService {
                 oldRest.getStatusInfo().setFetched(now);
             } else {
                 // update existing
-                boolean restChanged = !oldRest.getData().equals(rest.getData());
+                // compare hashes, rows stored before the hash column existed fall back to comparing data
+                boolean restChanged = oldRest.getDataHash() != null
+                        ? !oldRest.getDataHash().equals(rest.getDataHash())
+                        : !oldRest.getData().equals(rest.getData());
                 if (restChanged) {
                     oldRest.getStatusInfo().setChanged(now);
                     oldRest.setData(rest.getData());
+                } else if (oldRest.getDataHash() == null) {
+                    oldRest.setDataHash(rest.getDataHash());
                 }
                 oldRest.getStatusInfo().setFetched(now);
             }
@@ -561,12 +757,43 @@ public class CatalogServiceImpl implements CatalogService {
         return errorLogRepository.save(errorLog);
     }
 
+    @Override
+    public void saveErrorLogs(Collection<ErrorLog> errorLogs) {
+        errorLogRepository.saveAll(errorLogs);
+    }
+
     @Override
     public void deleteOldErrorLogEntries(Integer daysBefore) {
         LocalDateTime oldDate = LocalDateTime.now().minusDays(daysBefore);
         errorLogRepository.deleteEntriesOlderThan(oldDate);
     }
 
+    @Override
+    public CollectionRun saveCollectionRun(CollectionRun collectionRun) {
+        return collectionRunRepository.save(collectionRun);
+    }
+
+    @Override
+    public CollectionRun getLatestCollectionRun() {
+        return collectionRunRepository.findTopByOrderByStartedDesc();
+    }
+
+    @Override
+    public DailyStatistics saveDailyStatistics(LocalDate date) {
+        LocalDateTime now = LocalDateTime.now();
+        Object[] counts = serviceRepository.countActiveByTypeCreatedBefore(now).get(0);
+        DailyStatistics dailyStatistics = dailyStatisticsRepository.findByStatisticsDate(date)
+                .orElseGet(() -> DailyStatistics.builder().statisticsDate(date).build());
+        dailyStatistics.setNumberOfRestServices(((Number) counts[0]).longValue());
+        dailyStatistics.setNumberOfSoapServices(((Number) counts[1]).longValue());
+        dailyStatistics.setNumberOfOpenApiServices(((Number) counts[2]).longValue());
+        dailyStatistics.setNumberOfDistinctServices(serviceRepository.countDistinctActiveServiceCodesCreatedBefore(now));
+        dailyStatistics.setNumberOfMembers(memberRepository.countActive());
+        dailyStatistics.setNumberOfSubsystems(subsystemRepository.countActive());
+        dailyStatistics.setCreated(now);
+        return dailyStatisticsRepository.save(dailyStatistics);
+    }
+
     @Override
     public Boolean checkDatabaseConnection() {
         return Integer.valueOf(1).equals(memberRepository.checkConnection());
@@ -35,6 +35,16 @@ public interface CompanyService {
      */
     Company saveCompany(Company company);
 
+    /**
+     * Saves given company together with all its child entities (business names, addresses, lines, company forms,
+     * contact details, languages, liquidations, registered entries and offices). Existing children are loaded
+     * with the company and matched in memory, "changed" and "fetched" fields are updated like in the single
+     * entity save methods.
+     * @return saved company
+     * @param company the company with child collections populated
+     */
+    Company saveCompanyGraph(Company company);
+
     /**
      * Saves given BusinessName data.
      * @param businessName the BusinessName
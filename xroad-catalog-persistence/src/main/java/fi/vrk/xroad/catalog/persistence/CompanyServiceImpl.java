@@ -15,12 +15,16 @@ package fi.vrk.xroad.catalog.persistence;
 import fi.vrk.xroad.catalog.persistence.entity.*;
 import fi.vrk.xroad.catalog.persistence.repository.*;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static fi.vrk.xroad.catalog.persistence.EntityGraphMerger.mergeChildren;
+import static fi.vrk.xroad.catalog.persistence.EntityGraphMerger.updateStatus;
+
 /**
  * Implementation for companyservice CRUD
  */
@@ -66,8 +70,11 @@ public class CompanyServiceImpl implements CompanyService {
     RegisteredOfficeRepository registeredOfficeRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<Company> getCompanies(String businessId) {
-        return companyRepository.findAllByBusinessId(businessId);
+        Set<Company> companies = companyRepository.findAllByBusinessId(businessId);
+        companies.forEach(this::initializeCompanyTree);
+        return companies;
     }
 
     @Override
@@ -88,6 +95,48 @@ public class CompanyServiceImpl implements CompanyService {
         return companyRepository.save(company);
     }
 
+    @Override
+    public Company saveCompanyGraph(Company company) {
+        Company oldCompany = companyRepository.findAny(company.getBusinessId(), company.getCompanyForm(), company.getName())
+                .orElse(null);
+        updateStatus(company, oldCompany, Company::getStatusInfo, Company::setStatusInfo, Company::getId, Company::setId);
+        mergeChildren(company.getAllBusinessNames(), oldCompany != null ? oldCompany.getAllBusinessNames() : null,
+                b -> Arrays.asList(b.getLanguage(), b.getSource(), b.getOrdering(), b.getVersion()),
+                BusinessName::getStatusInfo, BusinessName::setStatusInfo, BusinessName::getId, BusinessName::setId, null);
+        mergeChildren(company.getAllBusinessAuxiliaryNames(), oldCompany != null ? oldCompany.getAllBusinessAuxiliaryNames() : null,
+                b -> Arrays.asList(b.getLanguage(), b.getSource(), b.getOrdering(), b.getVersion()),
+                BusinessAuxiliaryName::getStatusInfo, BusinessAuxiliaryName::setStatusInfo,
+                BusinessAuxiliaryName::getId, BusinessAuxiliaryName::setId, null);
+        mergeChildren(company.getAllBusinessAddresses(), oldCompany != null ? oldCompany.getAllBusinessAddresses() : null,
+                b -> Arrays.asList(b.getLanguage(), b.getType(), b.getSource(), b.getVersion()),
+                BusinessAddress::getStatusInfo, BusinessAddress::setStatusInfo, BusinessAddress::getId, BusinessAddress::setId, null);
+        mergeChildren(company.getAllBusinessIdChanges(), oldCompany != null ? oldCompany.getAllBusinessIdChanges() : null,
+                b -> Arrays.asList(b.getLanguage(), b.getSource(), b.getChange(), b.getOldBusinessId(), b.getNewBusinessId()),
+                BusinessIdChange::getStatusInfo, BusinessIdChange::setStatusInfo, BusinessIdChange::getId, BusinessIdChange::setId, null);
+        mergeChildren(company.getAllBusinessLines(), oldCompany != null ? oldCompany.getAllBusinessLines() : null,
+                b -> Arrays.asList(b.getLanguage(), b.getSource(), b.getOrdering(), b.getVersion()),
+                BusinessLine::getStatusInfo, BusinessLine::setStatusInfo, BusinessLine::getId, BusinessLine::setId, null);
+        mergeChildren(company.getAllCompanyForms(), oldCompany != null ? oldCompany.getAllCompanyForms() : null,
+                c -> Arrays.asList(c.getLanguage(), c.getSource(), c.getType(), c.getVersion()),
+                CompanyForm::getStatusInfo, CompanyForm::setStatusInfo, CompanyForm::getId, CompanyForm::setId, null);
+        mergeChildren(company.getAllContactDetails(), oldCompany != null ? oldCompany.getAllContactDetails() : null,
+                c -> Arrays.asList(c.getLanguage(), c.getSource(), c.getType(), c.getVersion()),
+                ContactDetail::getStatusInfo, ContactDetail::setStatusInfo, ContactDetail::getId, ContactDetail::setId, null);
+        mergeChildren(company.getAllLanguages(), oldCompany != null ? oldCompany.getAllLanguages() : null,
+                l -> Arrays.asList(l.getLanguage(), l.getSource(), l.getVersion()),
+                Language::getStatusInfo, Language::setStatusInfo, Language::getId, Language::setId, null);
+        mergeChildren(company.getAllLiquidations(), oldCompany != null ? oldCompany.getAllLiquidations() : null,
+                l -> Arrays.asList(l.getLanguage(), l.getSource(), l.getType(), l.getVersion()),
+                Liquidation::getStatusInfo, Liquidation::setStatusInfo, Liquidation::getId, Liquidation::setId, null);
+        mergeChildren(company.getAllRegisteredEntries(), oldCompany != null ? oldCompany.getAllRegisteredEntries() : null,
+                r -> Arrays.asList(r.getLanguage(), r.getAuthority(), r.getRegister(), r.getStatus(), r.getDescription()),
+                RegisteredEntry::getStatusInfo, RegisteredEntry::setStatusInfo, RegisteredEntry::getId, RegisteredEntry::setId, null);
+        mergeChildren(company.getAllRegisteredOffices(), oldCompany != null ? oldCompany.getAllRegisteredOffices() : null,
+                r -> Arrays.asList(r.getLanguage(), r.getOrdering(), r.getVersion(), r.getSource()),
+                RegisteredOffice::getStatusInfo, RegisteredOffice::setStatusInfo, RegisteredOffice::getId, RegisteredOffice::setId, null);
+        return companyRepository.save(company);
+    }
+
     @Override
     public void saveBusinessName(BusinessName businessName) {
         businessNameRepository.save(updateBusinessNameData(businessName));
@@ -385,4 +434,22 @@ public class CompanyServiceImpl implements CompanyService {
         }
         return registeredOffice;
     }
+
+    /**
+     * Loads the lazy child collections of the company so that they can be read after the transaction
+     * has ended. Collections are fetched in batches (hibernate.default_batch_fetch_size).
+     */
+    private void initializeCompanyTree(Company company) {
+        Hibernate.initialize(company.getAllBusinessNames());
+        Hibernate.initialize(company.getAllBusinessAuxiliaryNames());
+        Hibernate.initialize(company.getAllBusinessAddresses());
+        Hibernate.initialize(company.getAllCompanyForms());
+        Hibernate.initialize(company.getAllLiquidations());
+        Hibernate.initialize(company.getAllBusinessLines());
+        Hibernate.initialize(company.getAllLanguages());
+        Hibernate.initialize(company.getAllRegisteredOffices());
+        Hibernate.initialize(company.getAllContactDetails());
+        Hibernate.initialize(company.getAllRegisteredEntries());
+        Hibernate.initialize(company.getAllBusinessIdChanges());
+    }
 }
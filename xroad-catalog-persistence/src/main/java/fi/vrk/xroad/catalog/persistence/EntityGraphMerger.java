@@ -0,0 +1,69 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.persistence;
+
+import fi.vrk.xroad.catalog.persistence.entity.StatusInfo;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Helpers for saving whole entity graphs. Children of a saved entity are matched against the already
+ * persisted children in memory by their natural keys, and ids and status info of the matched ones are
+ * updated the same way the single entity save methods do.
+ */
+final class EntityGraphMerger {
+
+    private EntityGraphMerger() {
+        // utility class
+    }
+
+    static <T> void mergeChildren(Collection<T> children, Collection<T> oldChildren, Function<T, List<Object>> key,
+                                  Function<T, StatusInfo> statusInfoGetter, BiConsumer<T, StatusInfo> statusInfoSetter,
+                                  ToLongFunction<T> idGetter, ObjLongConsumer<T> idSetter,
+                                  BiConsumer<T, T> childMerger) {
+        Map<List<Object>, T> oldChildrenByKey = new HashMap<>();
+        if (oldChildren != null) {
+            oldChildren.forEach(oldChild -> oldChildrenByKey.putIfAbsent(key.apply(oldChild), oldChild));
+        }
+        for (T child : children) {
+            T oldChild = oldChildrenByKey.get(key.apply(child));
+            updateStatus(child, oldChild, statusInfoGetter, statusInfoSetter, idGetter, idSetter);
+            if (childMerger != null) {
+                childMerger.accept(child, oldChild);
+            }
+        }
+    }
+
+    static <T> void updateStatus(T entity, T oldEntity, Function<T, StatusInfo> statusInfoGetter,
+                                 BiConsumer<T, StatusInfo> statusInfoSetter,
+                                 ToLongFunction<T> idGetter, ObjLongConsumer<T> idSetter) {
+        if (oldEntity != null) {
+            StatusInfo statusInfo = statusInfoGetter.apply(oldEntity);
+            statusInfo.setFetched(LocalDateTime.now());
+            if (!oldEntity.equals(entity)) {
+                statusInfo.setChanged(LocalDateTime.now());
+            }
+            statusInfoSetter.accept(entity, statusInfo);
+            idSetter.accept(entity, idGetter.applyAsLong(oldEntity));
+        } else {
+            statusInfoSetter.accept(entity, new StatusInfo(LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), null));
+        }
+    }
+}
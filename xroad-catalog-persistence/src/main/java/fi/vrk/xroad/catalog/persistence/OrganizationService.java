@@ -15,6 +15,7 @@ package fi.vrk.xroad.catalog.persistence;
 import fi.vrk.xroad.catalog.persistence.dto.LastCollectionData;
 import fi.vrk.xroad.catalog.persistence.dto.LastOrganizationCollectionData;
 import fi.vrk.xroad.catalog.persistence.entity.*;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -51,6 +52,16 @@ public interface OrganizationService {
      */
     Organization saveOrganization(Organization organization);
 
+    /**
+     * Saves a batch of organizations together with all their child entities (names, descriptions, emails,
+     * phone numbers, web pages and addresses with their details). Existing organizations and children are
+     * loaded with set based queries and matched in memory, "changed" and "fetched" fields are updated
+     * like in the single entity save methods.
+     * @param organizations organizations with child collections populated
+     * @return saved organizations
+     */
+    Iterable<Organization> saveOrganizations(Collection<Organization> organizations);
+
     /**
      * Saves given organizationName data.
      * @param organizationName the organizationName
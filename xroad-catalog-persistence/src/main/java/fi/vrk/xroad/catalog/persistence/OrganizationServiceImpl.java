@@ -17,12 +17,16 @@ import fi.vrk.xroad.catalog.persistence.dto.LastOrganizationCollectionData;
 import fi.vrk.xroad.catalog.persistence.entity.*;
 import fi.vrk.xroad.catalog.persistence.repository.*;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static fi.vrk.xroad.catalog.persistence.EntityGraphMerger.mergeChildren;
+import static fi.vrk.xroad.catalog.persistence.EntityGraphMerger.updateStatus;
+
 /**
  * Implementation for organizationservice CRUD
  */
@@ -99,13 +103,19 @@ public class OrganizationServiceImpl implements OrganizationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<Organization> getOrganizations(String businessCode) {
-        return organizationRepository.findAllByBusinessCode(businessCode);
+        Set<Organization> organizations = organizationRepository.findAllByBusinessCode(businessCode);
+        organizations.forEach(this::initializeOrganizationTree);
+        return organizations;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Organization> getOrganization(String guid) {
-        return organizationRepository.findAnyByOrganizationGuid(guid);
+        Optional<Organization> organization = organizationRepository.findAnyByOrganizationGuid(guid);
+        organization.ifPresent(this::initializeOrganizationTree);
+        return organization;
     }
 
     @Override
@@ -127,6 +137,119 @@ public class OrganizationServiceImpl implements OrganizationService {
         return organizationRepository.save(organization);
     }
 
+    @Override
+    public Iterable<Organization> saveOrganizations(Collection<Organization> organizations) {
+        Set<String> guids = new HashSet<>();
+        organizations.forEach(organization -> guids.add(organization.getGuid()));
+        Map<String, Organization> existingOrganizations = new HashMap<>();
+        if (!guids.isEmpty()) {
+            organizationRepository.findAllByGuids(guids)
+                    .forEach(organization -> existingOrganizations.putIfAbsent(organization.getGuid(), organization));
+        }
+        for (Organization organization : organizations) {
+            Organization oldOrganization = existingOrganizations.get(organization.getGuid());
+            updateStatus(organization, oldOrganization, Organization::getStatusInfo, Organization::setStatusInfo,
+                    Organization::getId, Organization::setId);
+            mergeChildren(organization.getAllOrganizationNames(),
+                    oldOrganization != null ? oldOrganization.getAllOrganizationNames() : null,
+                    n -> Arrays.asList(n.getLanguage(), n.getType()),
+                    OrganizationName::getStatusInfo, OrganizationName::setStatusInfo,
+                    OrganizationName::getId, OrganizationName::setId, null);
+            mergeChildren(organization.getAllOrganizationDescriptions(),
+                    oldOrganization != null ? oldOrganization.getAllOrganizationDescriptions() : null,
+                    d -> Arrays.asList(d.getLanguage(), d.getType()),
+                    OrganizationDescription::getStatusInfo, OrganizationDescription::setStatusInfo,
+                    OrganizationDescription::getId, OrganizationDescription::setId, null);
+            mergeChildren(organization.getAllEmails(),
+                    oldOrganization != null ? oldOrganization.getAllEmails() : null,
+                    e -> Arrays.asList(e.getLanguage(), e.getValue(), e.getDescription()),
+                    Email::getStatusInfo, Email::setStatusInfo, Email::getId, Email::setId, null);
+            mergeChildren(organization.getAllPhoneNumbers(),
+                    oldOrganization != null ? oldOrganization.getAllPhoneNumbers() : null,
+                    p -> Arrays.asList(p.getNumber(), p.getAdditionalInformation(), p.getLanguage()),
+                    PhoneNumber::getStatusInfo, PhoneNumber::setStatusInfo, PhoneNumber::getId, PhoneNumber::setId, null);
+            mergeChildren(organization.getAllWebPages(),
+                    oldOrganization != null ? oldOrganization.getAllWebPages() : null,
+                    w -> Arrays.asList(w.getLanguage(), w.getUrl()),
+                    WebPage::getStatusInfo, WebPage::setStatusInfo, WebPage::getId, WebPage::setId, null);
+            mergeChildren(organization.getAllAddresses(),
+                    oldOrganization != null ? oldOrganization.getAllAddresses() : null,
+                    a -> Arrays.asList(a.getType(), a.getSubType()),
+                    Address::getStatusInfo, Address::setStatusInfo, Address::getId, Address::setId,
+                    this::mergeAddressDetails);
+        }
+        return organizationRepository.saveAll(organizations);
+    }
+
+    private void mergeAddressDetails(Address address, Address oldAddress) {
+        mergeChildren(address.getAllStreetAddresses(),
+                oldAddress != null ? oldAddress.getAllStreetAddresses() : null,
+                s -> Collections.emptyList(),
+                StreetAddress::getStatusInfo, StreetAddress::setStatusInfo, StreetAddress::getId, StreetAddress::setId,
+                this::mergeStreetAddressDetails);
+        mergeChildren(address.getAllPostOfficeBoxAddresses(),
+                oldAddress != null ? oldAddress.getAllPostOfficeBoxAddresses() : null,
+                p -> Collections.emptyList(),
+                PostOfficeBoxAddress::getStatusInfo, PostOfficeBoxAddress::setStatusInfo,
+                PostOfficeBoxAddress::getId, PostOfficeBoxAddress::setId,
+                this::mergePostOfficeBoxAddressDetails);
+    }
+
+    private void mergeStreetAddressDetails(StreetAddress streetAddress, StreetAddress oldStreetAddress) {
+        mergeChildren(streetAddress.getAllMunicipalities(),
+                oldStreetAddress != null ? oldStreetAddress.getAllMunicipalities() : null,
+                m -> Collections.emptyList(),
+                StreetAddressMunicipality::getStatusInfo, StreetAddressMunicipality::setStatusInfo,
+                StreetAddressMunicipality::getId, StreetAddressMunicipality::setId,
+                (municipality, oldMunicipality) -> mergeChildren(municipality.getAllMunicipalityNames(),
+                        oldMunicipality != null ? oldMunicipality.getAllMunicipalityNames() : null,
+                        n -> Collections.singletonList(n.getLanguage()),
+                        StreetAddressMunicipalityName::getStatusInfo, StreetAddressMunicipalityName::setStatusInfo,
+                        StreetAddressMunicipalityName::getId, StreetAddressMunicipalityName::setId, null));
+        mergeChildren(streetAddress.getAllAdditionalInformation(),
+                oldStreetAddress != null ? oldStreetAddress.getAllAdditionalInformation() : null,
+                i -> Collections.singletonList(i.getLanguage()),
+                StreetAddressAdditionalInformation::getStatusInfo, StreetAddressAdditionalInformation::setStatusInfo,
+                StreetAddressAdditionalInformation::getId, StreetAddressAdditionalInformation::setId, null);
+        mergeChildren(streetAddress.getAllPostOffices(),
+                oldStreetAddress != null ? oldStreetAddress.getAllPostOffices() : null,
+                o -> Collections.singletonList(o.getLanguage()),
+                StreetAddressPostOffice::getStatusInfo, StreetAddressPostOffice::setStatusInfo,
+                StreetAddressPostOffice::getId, StreetAddressPostOffice::setId, null);
+        mergeChildren(streetAddress.getAllStreets(),
+                oldStreetAddress != null ? oldStreetAddress.getAllStreets() : null,
+                t -> Collections.singletonList(t.getLanguage()),
+                Street::getStatusInfo, Street::setStatusInfo, Street::getId, Street::setId, null);
+    }
+
+    private void mergePostOfficeBoxAddressDetails(PostOfficeBoxAddress postOfficeBoxAddress,
+                                                  PostOfficeBoxAddress oldPostOfficeBoxAddress) {
+        mergeChildren(postOfficeBoxAddress.getAllMunicipalities(),
+                oldPostOfficeBoxAddress != null ? oldPostOfficeBoxAddress.getAllMunicipalities() : null,
+                m -> Collections.emptyList(),
+                PostOfficeBoxAddressMunicipality::getStatusInfo, PostOfficeBoxAddressMunicipality::setStatusInfo,
+                PostOfficeBoxAddressMunicipality::getId, PostOfficeBoxAddressMunicipality::setId,
+                (municipality, oldMunicipality) -> mergeChildren(municipality.getAllMunicipalityNames(),
+                        oldMunicipality != null ? oldMunicipality.getAllMunicipalityNames() : null,
+                        n -> Collections.singletonList(n.getLanguage()),
+                        PostOfficeBoxAddressMunicipalityName::getStatusInfo, PostOfficeBoxAddressMunicipalityName::setStatusInfo,
+                        PostOfficeBoxAddressMunicipalityName::getId, PostOfficeBoxAddressMunicipalityName::setId, null));
+        mergeChildren(postOfficeBoxAddress.getAllAdditionalInformation(),
+                oldPostOfficeBoxAddress != null ? oldPostOfficeBoxAddress.getAllAdditionalInformation() : null,
+                i -> Collections.singletonList(i.getLanguage()),
+                PostOfficeBoxAddressAdditionalInformation::getStatusInfo,
+                PostOfficeBoxAddressAdditionalInformation::setStatusInfo,
+                PostOfficeBoxAddressAdditionalInformation::getId, PostOfficeBoxAddressAdditionalInformation::setId, null);
+        mergeChildren(postOfficeBoxAddress.getAllPostOffices(),
+                oldPostOfficeBoxAddress != null ? oldPostOfficeBoxAddress.getAllPostOffices() : null,
+                o -> Collections.singletonList(o.getLanguage()),
+                PostOffice::getStatusInfo, PostOffice::setStatusInfo, PostOffice::getId, PostOffice::setId, null);
+        mergeChildren(postOfficeBoxAddress.getAllPostOfficeBoxes(),
+                oldPostOfficeBoxAddress != null ? oldPostOfficeBoxAddress.getAllPostOfficeBoxes() : null,
+                b -> Collections.singletonList(b.getLanguage()),
+                PostOfficeBox::getStatusInfo, PostOfficeBox::setStatusInfo, PostOfficeBox::getId, PostOfficeBox::setId, null);
+    }
+
     @Override
     public void saveOrganizationName(OrganizationName organizationName) {
         organizationNameRepository.save(updateOrganizationNameData(organizationName));
@@ -555,4 +678,33 @@ public class OrganizationServiceImpl implements OrganizationService {
         }
         return postOfficeBoxAddressMunicipalityName;
     }
+
+    /**
+     * Loads the lazy child collections of the organization so that the whole tree can be read after
+     * the transaction has ended. Collections of the same level are fetched in batches
+     * (hibernate.default_batch_fetch_size) instead of one query per owner.
+     */
+    private void initializeOrganizationTree(Organization organization) {
+        Hibernate.initialize(organization.getAllOrganizationNames());
+        Hibernate.initialize(organization.getAllOrganizationDescriptions());
+        Hibernate.initialize(organization.getAllEmails());
+        Hibernate.initialize(organization.getAllPhoneNumbers());
+        Hibernate.initialize(organization.getAllWebPages());
+        for (Address address : organization.getAllAddresses()) {
+            for (StreetAddress streetAddress : address.getAllStreetAddresses()) {
+                Hibernate.initialize(streetAddress.getAllStreets());
+                Hibernate.initialize(streetAddress.getAllPostOffices());
+                Hibernate.initialize(streetAddress.getAllAdditionalInformation());
+                streetAddress.getAllMunicipalities()
+                        .forEach(municipality -> Hibernate.initialize(municipality.getAllMunicipalityNames()));
+            }
+            for (PostOfficeBoxAddress postOfficeBoxAddress : address.getAllPostOfficeBoxAddresses()) {
+                Hibernate.initialize(postOfficeBoxAddress.getAllAdditionalInformation());
+                Hibernate.initialize(postOfficeBoxAddress.getAllPostOffices());
+                Hibernate.initialize(postOfficeBoxAddress.getAllPostOfficeBoxes());
+                postOfficeBoxAddress.getAllMunicipalities()
+                        .forEach(municipality -> Hibernate.initialize(municipality.getAllMunicipalityNames()));
+            }
+        }
+    }
 }
@@ -38,5 +38,7 @@ public class ErrorLogResponse implements Serializable {
 
     private Integer numberOfPages;
 
+    private String nextCursor;
+
     private transient List<ErrorLog> errorLogList;
 }
@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One flattened member-subsystem-service row of the list of services report.
+ * Subsystem and service fields are null when the member has no subsystems
+ * or the subsystem has no services.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+public class MemberServiceRow implements Serializable {
+
+    private static final long serialVersionUID = 2375902165482208937L;
+
+    private String xRoadInstance;
+
+    private String memberClass;
+
+    private String memberCode;
+
+    private String name;
+
+    private LocalDateTime memberCreated;
+
+    private String subsystemCode;
+
+    private LocalDateTime subsystemCreated;
+
+    private LocalDateTime subsystemRemoved;
+
+    private String serviceCode;
+
+    private String serviceVersion;
+
+    private LocalDateTime serviceCreated;
+
+    private LocalDateTime serviceRemoved;
+
+    public boolean hasSubsystem() {
+        return subsystemCode != null;
+    }
+
+    public boolean hasService() {
+        return serviceCode != null;
+    }
+
+    public Boolean getSubsystemActive() {
+        return subsystemRemoved == null;
+    }
+
+    public Boolean getServiceActive() {
+        return serviceRemoved == null;
+    }
+}
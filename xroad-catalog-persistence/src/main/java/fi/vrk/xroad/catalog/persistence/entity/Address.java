@@ -46,11 +46,11 @@ public class Address {
     private Organization organization;
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "address", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "address", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<StreetAddress> streetAddresses = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "address", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "address", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<PostOfficeBoxAddress> postOfficeBoxAddresses = new HashSet<>();
 
     public Set<StreetAddress> getAllStreetAddresses() {
@@ -76,47 +76,47 @@ public class Company {
     private StatusInfo statusInfo = new StatusInfo();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<BusinessName> businessNames = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<BusinessAuxiliaryName> businessAuxiliaryNames = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<BusinessAddress> businessAddresses = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<CompanyForm> companyForms = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Liquidation> liquidations = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<BusinessLine> businessLines = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Language> languages = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<RegisteredOffice> registeredOffices = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<ContactDetail> contactDetails = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<RegisteredEntry> registeredEntries = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<BusinessIdChange> businessIdChanges = new HashSet<>();
 
     public Set<BusinessName> getAllBusinessNames() {
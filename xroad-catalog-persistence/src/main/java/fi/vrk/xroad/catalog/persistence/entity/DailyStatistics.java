@@ -0,0 +1,50 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2023- Nordic Institute for Interoperability Solutions (NIIS)
+ * Copyright (c) 2016-2023 Finnish Digital Agency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fi.vrk.xroad.catalog.persistence.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode(exclude = {"id"})
+@Builder
+public class DailyStatistics {
+    @Id
+    @Column(nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "DAILY_STATISTICS_GEN")
+    @SequenceGenerator(name = "DAILY_STATISTICS_GEN", sequenceName = "DAILY_STATISTICS_ID_SEQ", allocationSize = 1)
+    private long id;
+    @Column(nullable = false, unique = true)
+    private LocalDate statisticsDate;
+    @Column(nullable = false)
+    private long numberOfRestServices;
+    @Column(nullable = false)
+    private long numberOfSoapServices;
+    @Column(nullable = false)
+    private long numberOfOpenApiServices;
+    @Column(nullable = false)
+    private long numberOfDistinctServices;
+    @Column(nullable = false)
+    private long numberOfMembers;
+    @Column(nullable = false)
+    private long numberOfSubsystems;
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
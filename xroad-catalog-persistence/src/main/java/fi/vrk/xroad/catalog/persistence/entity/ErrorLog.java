@@ -54,4 +54,7 @@ public class ErrorLog {
     private String securityCategoryCode;
     @Column
     private String serverCode;
+    @Builder.Default
+    @Column(nullable = false)
+    private int occurrences = 1;
 }
@@ -29,21 +29,29 @@ import java.util.stream.Collectors;
 @Getter
 @Setter
 @ToString(exclude = "subsystems")
-// Entity graph defining the full tree member-subsystem-service-wsdl.
-@NamedEntityGraph(
-        name = "member.full-tree.graph",
-        attributeNodes = {
-                @NamedAttributeNode(value = "subsystems", subgraph = "subsystem.services.graph")
-        },
-        subgraphs = {
-                @NamedSubgraph(
-                        name = "subsystem.services.graph",
-                        attributeNodes = @NamedAttributeNode(value = "services", subgraph = "service.wsdl.graph")),
-                @NamedSubgraph(
-                        name = "service.wsdl.graph",
-                        attributeNodes = @NamedAttributeNode(value = "wsdls")),
-        }
-)
+// Entity graphs: the full tree member-subsystem-service-wsdl/openapi used when listing members,
+// and member-subsystem used when saving the member list of the collector.
+@NamedEntityGraphs({
+        @NamedEntityGraph(
+                name = "member.full-tree.graph",
+                attributeNodes = {
+                        @NamedAttributeNode(value = "subsystems", subgraph = "subsystem.services.graph")
+                },
+                subgraphs = {
+                        @NamedSubgraph(
+                                name = "subsystem.services.graph",
+                                attributeNodes = @NamedAttributeNode(value = "services", subgraph = "service.wsdl.graph")),
+                        @NamedSubgraph(
+                                name = "service.wsdl.graph",
+                                attributeNodes = {
+                                        @NamedAttributeNode(value = "wsdls"),
+                                        @NamedAttributeNode(value = "openApis")}),
+                }
+        ),
+        @NamedEntityGraph(
+                name = "member.subsystems.graph",
+                attributeNodes = @NamedAttributeNode(value = "subsystems"))
+})
 @NamedQueries({
         // query fetches all members that have been changed, or have child entities
         // (subsystems, services, wsdls) that have been changed since given date
@@ -55,6 +63,8 @@ import java.util.stream.Collectors;
                 query = Member.FIND_ALL_CHANGED_BETWEEN_QUERY),
         @NamedQuery(name = "Member.findActiveChangedBetween",
                 query = Member.FIND_ACTIVE_CHANGED_BETWEEN_QUERY),
+        @NamedQuery(name = "Member.findIdsChangedBetween",
+                query = Member.FIND_IDS_CHANGED_BETWEEN_QUERY),
 })
 // identity is based on xroad identity (instance, member code...)
 @EqualsAndHashCode(exclude = {"id", "subsystems", "statusInfo"})
@@ -68,6 +78,7 @@ public class Member {
                     "LEFT JOIN FETCH mem.subsystems fetchedSubs " +
                     "LEFT JOIN FETCH fetchedSubs.services fetchedSers " +
                     "LEFT JOIN FETCH fetchedSers.wsdls fetchedWsdls " +
+                    "LEFT JOIN FETCH fetchedSers.openApis fetchedOpenApis " +
                     "WHERE ";
     private static final String FIND_CHANGED_QUERY_PART_2 =
             "mem.statusInfo.changed > :since " +
@@ -107,6 +118,12 @@ public class Member {
             FIND_CHANGED_QUERY_PART_1 + FIND_CHANGED_QUERY_PART_2;
     static final String FIND_ALL_CHANGED_BETWEEN_QUERY =
             FIND_CHANGED_QUERY_PART_1 + FIND_CHANGED_QUERY_PART_3;
+    static final String FIND_IDS_CHANGED_BETWEEN_QUERY =
+            "SELECT mem.id " +
+                    "FROM Member mem " +
+                    "WHERE mem.id > :afterId AND (" +
+                    FIND_CHANGED_QUERY_PART_3 +
+                    ") ORDER BY mem.id";
     static final String FIND_ACTIVE_CHANGED_QUERY =
             FIND_CHANGED_QUERY_PART_1 +
                     "mem.statusInfo.removed IS NULL AND (" +
@@ -134,7 +151,7 @@ public class Member {
     @Embedded
     private StatusInfo statusInfo = new StatusInfo();
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "member", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "member", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Subsystem> subsystems = new HashSet<>();
 
     public Member() {
@@ -12,17 +12,19 @@
  */
 package fi.vrk.xroad.catalog.persistence.entity;
 
+import com.google.common.hash.Hashing;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import javax.persistence.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Getter
 @Setter
-@ToString(exclude = "service")
+@ToString(exclude = {"service", "data"})
 public class OpenApi {
     @Id
     @Column(nullable = false)
@@ -32,12 +34,13 @@ public class OpenApi {
     @ManyToOne
     @JoinColumn(name = "SERVICE_ID")
     private Service service;
-    // this is not lazy loaded since hibernate would need build-time bytecode enhancement
-    // this could be optimized e.g. by not mapping this data to JPA entity, and
-    // fetching it directly with a native query
+    // lazy loaded through the build-time bytecode enhancement configured in build.gradle
     @Basic(fetch = FetchType.LAZY)
     @Column(length = 40000, nullable = false) // big enough so that autogenerated tables can fit test data
     private String data;
+    // SHA-256 of data, used for change detection so that data itself does not need to be compared
+    @Column(length = 64)
+    private String dataHash;
     @Column(nullable = false)
     private String externalId;
     @Embedded
@@ -49,11 +52,16 @@ public class OpenApi {
 
     public OpenApi(Service service, String data, String externalId) {
         this.service = service;
-        this.data = data;
+        setData(data);
         this.externalId = externalId;
         statusInfo.setTimestampsForNew(LocalDateTime.now());
     }
 
+    public void setData(String data) {
+        this.data = data;
+        this.dataHash = data != null ? Hashing.sha256().hashString(data, StandardCharsets.UTF_8).toString() : null;
+    }
+
     public void initializeExternalId() {
         externalId = System.currentTimeMillis() + "_" + UUID.randomUUID().toString();
     }
@@ -41,7 +41,7 @@ public class PostOfficeBoxAddressMunicipality {
     private PostOfficeBoxAddress postOfficeBoxAddress;
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "postOfficeBoxAddressMunicipality", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "postOfficeBoxAddressMunicipality", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<PostOfficeBoxAddressMunicipalityName> postOfficeBoxAddressMunicipalityNames = new HashSet<>();
 
     public Set<PostOfficeBoxAddressMunicipalityName> getAllMunicipalityNames() {
@@ -25,6 +25,17 @@ import java.util.Set;
 @Getter
 @Setter
 @ToString(exclude = {"subsystem","wsdls","openApis", "rests", "endpoints"})
+// Entity graphs for looking up the service type (wsdl/openapi) and the REST endpoints of services
+@NamedEntityGraphs({
+        @NamedEntityGraph(
+                name = "service.descriptors.graph",
+                attributeNodes = {
+                        @NamedAttributeNode(value = "wsdls"),
+                        @NamedAttributeNode(value = "openApis")}),
+        @NamedEntityGraph(
+                name = "service.endpoints.graph",
+                attributeNodes = @NamedAttributeNode(value = "endpoints"))
+})
 public class Service {
     @Id
     @Column(nullable = false)
@@ -44,17 +55,17 @@ public class Service {
     // http://stackoverflow.com/questions/1444227/making-a-onetoone-relation-lazy
     // https://developer.jboss.org/wiki/SomeExplanationsOnLazyLoadingone-to-one
     @Getter(AccessLevel.NONE) // do not create default getter/setter, we provide a wrapper that hides the collection
-    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Wsdl> wsdls = new HashSet<>();
     @Getter(AccessLevel.NONE) // do not create default getter/setter, we provide a wrapper that hides the collection
-    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<OpenApi> openApis = new HashSet<>();
     @Getter(AccessLevel.NONE) // do not create default getter/setter, we provide a wrapper that hides the collection
-    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Rest> rests = new HashSet<>();
 
     @Getter(AccessLevel.NONE) // do not create default getter/setter, we provide a wrapper that hides the collection
-    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Endpoint> endpoints = new HashSet<>();
     public Service() {
         // Empty constructor
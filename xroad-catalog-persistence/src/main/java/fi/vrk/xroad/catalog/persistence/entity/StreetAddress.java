@@ -49,19 +49,19 @@ public class StreetAddress {
     private StatusInfo statusInfo = new StatusInfo();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Street> streets = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<StreetAddressPostOffice> postOffices = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<StreetAddressMunicipality> municipalities = new HashSet<>();
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "streetAddress", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<StreetAddressAdditionalInformation> additionalInformation = new HashSet<>();
 
     public Set<Street> getAllStreets() {
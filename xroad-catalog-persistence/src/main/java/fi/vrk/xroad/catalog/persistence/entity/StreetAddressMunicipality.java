@@ -41,7 +41,7 @@ public class StreetAddressMunicipality {
     private StreetAddress streetAddress;
     @Builder.Default
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "streetAddressMunicipality", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "streetAddressMunicipality", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<StreetAddressMunicipalityName> streetAddressMunicipalityNames = new HashSet<>();
 
     public Set<StreetAddressMunicipalityName> getAllMunicipalityNames() {
@@ -38,7 +38,7 @@ public class Subsystem {
     @JoinColumn(name = "MEMBER_ID")
     private Member member;
     @Getter(AccessLevel.NONE) // do not create default getter, we provide the substitute
-    @OneToMany(mappedBy = "subsystem", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "subsystem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Service> services = new HashSet<>();
     @Embedded
     private StatusInfo statusInfo = new StatusInfo();
@@ -22,6 +22,7 @@ import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 public interface ErrorLogRepository extends CrudRepository<ErrorLog, Long>, PagingAndSortingRepository<ErrorLog, Long> {
@@ -78,6 +79,112 @@ public interface ErrorLogRepository extends CrudRepository<ErrorLog, Long>, Pagi
                                     @Param("endDate") LocalDateTime endDate,
                                     Pageable pageable);
 
+    // the created >= :afterCreated term lets the (created, id) indexes seek to the cursor position
+    String AFTER_CURSOR = "AND e.created >= :afterCreated "
+            + "AND (e.created > :afterCreated OR (e.created = :afterCreated AND e.id > :afterId)) ";
+
+    String CURSOR_ORDER = "ORDER BY e.created, e.id";
+
+    @Query("SELECT e FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + "AND e.memberClass = :memberClass "
+            + "AND e.memberCode = :memberCode "
+            + "AND e.subsystemCode = :subsystemCode "
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<ErrorLog> findAnyByAllParametersAfter(@Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate,
+                                               @Param("xRoadInstance") String xRoadInstance,
+                                               @Param("memberClass") String memberClass,
+                                               @Param("memberCode") String memberCode,
+                                               @Param("subsystemCode") String subsystemCode,
+                                               @Param("afterCreated") LocalDateTime afterCreated,
+                                               @Param("afterId") long afterId,
+                                               Pageable pageable);
+
+    @Query("SELECT e FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + "AND e.memberClass = :memberClass "
+            + "AND e.memberCode = :memberCode "
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<ErrorLog> findAnyByMemberCodeAfter(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate,
+                                            @Param("xRoadInstance") String xRoadInstance,
+                                            @Param("memberClass") String memberClass,
+                                            @Param("memberCode") String memberCode,
+                                            @Param("afterCreated") LocalDateTime afterCreated,
+                                            @Param("afterId") long afterId,
+                                            Pageable pageable);
+
+    @Query("SELECT e FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + "AND e.memberClass = :memberClass "
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<ErrorLog> findAnyByMemberClassAfter(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             @Param("xRoadInstance") String xRoadInstance,
+                                             @Param("memberClass") String memberClass,
+                                             @Param("afterCreated") LocalDateTime afterCreated,
+                                             @Param("afterId") long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT e FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<ErrorLog> findAnyByInstanceAfter(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate,
+                                          @Param("xRoadInstance") String xRoadInstance,
+                                          @Param("afterCreated") LocalDateTime afterCreated,
+                                          @Param("afterId") long afterId,
+                                          Pageable pageable);
+
+    @Query("SELECT e FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<ErrorLog> findAnyByCreatedAfter(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate,
+                                         @Param("afterCreated") LocalDateTime afterCreated,
+                                         @Param("afterId") long afterId,
+                                         Pageable pageable);
+
+    @Query("SELECT COUNT(e) FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + "AND e.memberClass = :memberClass "
+            + "AND e.memberCode = :memberCode "
+            + "AND e.subsystemCode = :subsystemCode")
+    long countByAllParameters(@Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate,
+                              @Param("xRoadInstance") String xRoadInstance,
+                              @Param("memberClass") String memberClass,
+                              @Param("memberCode") String memberCode,
+                              @Param("subsystemCode") String subsystemCode);
+
+    @Query("SELECT COUNT(e) FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + "AND e.memberClass = :memberClass "
+            + "AND e.memberCode = :memberCode")
+    long countByMemberCode(@Param("startDate") LocalDateTime startDate,
+                           @Param("endDate") LocalDateTime endDate,
+                           @Param("xRoadInstance") String xRoadInstance,
+                           @Param("memberClass") String memberClass,
+                           @Param("memberCode") String memberCode);
+
+    @Query("SELECT COUNT(e) FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance "
+            + "AND e.memberClass = :memberClass")
+    long countByMemberClass(@Param("startDate") LocalDateTime startDate,
+                            @Param("endDate") LocalDateTime endDate,
+                            @Param("xRoadInstance") String xRoadInstance,
+                            @Param("memberClass") String memberClass);
+
+    @Query("SELECT COUNT(e) FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate "
+            + "AND e.xRoadInstance = :xRoadInstance")
+    long countByInstance(@Param("startDate") LocalDateTime startDate,
+                         @Param("endDate") LocalDateTime endDate,
+                         @Param("xRoadInstance") String xRoadInstance);
+
+    @Query("SELECT COUNT(e) FROM ErrorLog e WHERE e.created >= :startDate AND e.created <= :endDate")
+    long countByCreated(@Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate);
+
     @Modifying
     @Query("DELETE FROM ErrorLog e WHERE e.created < :oldDate")
     void deleteEntriesOlderThan(@Param("oldDate") LocalDateTime oldDate);
@@ -12,14 +12,21 @@
  */
 package fi.vrk.xroad.catalog.persistence.repository;
 
+import fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow;
 import fi.vrk.xroad.catalog.persistence.entity.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 
 /**
  * Basic CRUD for member
@@ -36,6 +43,11 @@ public interface MemberRepository extends CrudRepository<Member, Long> {
     @Query("SELECT m FROM Member m WHERE m.statusInfo.removed IS NULL")
     Set<Member> findAllActive();
 
+    @EntityGraph(value = "member.subsystems.graph",
+            type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT m FROM Member m")
+    Set<Member> findAllWithSubsystems();
+
     @Query("SELECT m FROM Member m WHERE m.memberClass = :memberClass")
     Set<Member> findAllByClass(@Param("memberClass") String memberClass);
 
@@ -52,6 +64,23 @@ public interface MemberRepository extends CrudRepository<Member, Long> {
     // uses named query Member.findActiveChangedBetween
     Set<Member> findActiveChangedBetween(@Param("startDate") LocalDateTime startDate,
                                          @Param("endDate") LocalDateTime endDate);
+
+    // uses named query Member.findIdsChangedBetween
+    List<Long> findIdsChangedBetween(@Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("afterId") long afterId,
+                                     Pageable pageable);
+
+    /**
+     * Fetches the member-subsystem-service-wsdl/openapi tree of the given members in one query
+     * @param ids member ids
+     * @return Members ordered by id
+     */
+    @EntityGraph(value = "member.full-tree.graph",
+            type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT DISTINCT m FROM Member m WHERE m.id IN :ids ORDER BY m.id")
+    List<Member> findWithFullTreeByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Returns only active items (non-deleted)
      * @param xRoadInstance X-Road instance parameter, for example FI
@@ -67,10 +96,72 @@ public interface MemberRepository extends CrudRepository<Member, Long> {
                                   @Param("memberClass") String memberClass,
                                   @Param("memberCode") String memberCode);
 
+    /**
+     * Same as {@link #findActiveByNaturalKey(String, String, String)} except that fetches the
+     * member-subsystem-service-wsdl/openapi tree in the same query
+     * @param xRoadInstance X-Road instance parameter, for example FI
+     * @param memberClass X-Road member class, for example GOF
+     * @param memberCode X-Road member class, for example Company code
+     * @return Member found
+     */
+    @EntityGraph(value = "member.full-tree.graph",
+            type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT DISTINCT m FROM Member m WHERE m.xRoadInstance = :xRoadInstance "
+            + "AND m.memberClass = :memberClass "
+            + "AND m.memberCode = :memberCode "
+            + "AND m.statusInfo.removed IS NULL")
+    Member findActiveWithFullTreeByNaturalKey(@Param("xRoadInstance") String xRoadInstance,
+                                              @Param("memberClass") String memberClass,
+                                              @Param("memberCode") String memberCode);
+
+    /**
+     * Checks whether an active member provides any SOAP or OpenAPI service, i.e. has a service
+     * with a WSDL or an OpenAPI description, without loading the services or descriptions
+     * @param xRoadInstance X-Road instance parameter, for example FI
+     * @param memberClass X-Road member class, for example GOF
+     * @param memberCode X-Road member class, for example Company code
+     * @return true if the member is a provider, false if not, null if the member was not found
+     */
+    @Query(value = "SELECT CASE WHEN EXISTS ("
+            + "SELECT 1 FROM subsystem sub JOIN service s ON s.subsystem_id = sub.id "
+            + "WHERE sub.member_id = m.id "
+            + "AND (EXISTS (SELECT 1 FROM wsdl w WHERE w.service_id = s.id) "
+            + "OR EXISTS (SELECT 1 FROM open_api o WHERE o.service_id = s.id))) "
+            + "THEN TRUE ELSE FALSE END "
+            + "FROM member m WHERE m.x_road_instance = :xRoadInstance "
+            + "AND m.member_class = :memberClass "
+            + "AND m.member_code = :memberCode "
+            + "AND m.removed IS NULL", nativeQuery = true)
+    Boolean findIsProviderByNaturalKey(@Param("xRoadInstance") String xRoadInstance,
+                                       @Param("memberClass") String memberClass,
+                                       @Param("memberCode") String memberCode);
+
     @Query(value = "SELECT 1", nativeQuery = true)
     Integer checkConnection();
 
     @Query(value = "SELECT MAX(fetched) FROM member", nativeQuery = true)
     LocalDateTime findLatestFetched();
 
+    @Query("SELECT COUNT(m) FROM Member m WHERE m.statusInfo.removed IS NULL")
+    long countActive();
+
+    /**
+     * Streams member-subsystem-service rows of members created before given time, ordered by member,
+     * subsystem and service. Rows are read through a database cursor so the caller must consume
+     * the stream inside a transaction and close it afterwards.
+     * @param endDateTime Only interested in members created before this
+     * @return Stream of flattened rows
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")})
+    @Query("SELECT new fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow("
+            + "m.xRoadInstance, m.memberClass, m.memberCode, m.name, m.statusInfo.created, "
+            + "s.subsystemCode, s.statusInfo.created, s.statusInfo.removed, "
+            + "sv.serviceCode, sv.serviceVersion, sv.statusInfo.created, sv.statusInfo.removed) "
+            + "FROM Member m LEFT JOIN m.subsystems s LEFT JOIN s.services sv "
+            + "WHERE m.statusInfo.created < :endDateTime "
+            + "ORDER BY m.id, s.id, sv.id")
+    Stream<MemberServiceRow> streamMemberServiceRows(@Param("endDateTime") LocalDateTime endDateTime);
+
 }
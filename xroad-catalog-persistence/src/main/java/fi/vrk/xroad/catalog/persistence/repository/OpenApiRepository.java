@@ -13,8 +13,11 @@
 package fi.vrk.xroad.catalog.persistence.repository;
 
 import fi.vrk.xroad.catalog.persistence.entity.OpenApi;
+import fi.vrk.xroad.catalog.persistence.entity.Service;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,4 +30,16 @@ public interface OpenApiRepository extends CrudRepository<OpenApi, Long> {
 
     @Query(value = "SELECT MAX(fetched) FROM open_api", nativeQuery = true)
     LocalDateTime findLatestFetched();
+
+    /**
+     * Marks the OpenAPI description of a service fetched if it is not removed and its data has the given hash.
+     * Unchanged descriptors are detected this way without loading them.
+     * @return number of updated rows, 0 if the OpenAPI description has changed, is removed or does not exist
+     */
+    @Modifying
+    @Query("UPDATE OpenApi d SET d.statusInfo.fetched = :fetched WHERE d.service = :service "
+            + "AND d.dataHash = :dataHash AND d.statusInfo.removed IS NULL")
+    int updateFetchedIfUnchanged(@Param("service") Service service,
+                                 @Param("dataHash") String dataHash,
+                                 @Param("fetched") LocalDateTime fetched);
 }
@@ -18,6 +18,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -30,6 +31,9 @@ public interface OrganizationRepository extends CrudRepository<Organization, Loc
     @Query("SELECT o FROM Organization o WHERE o.guid = :guid")
     Optional<Organization> findAnyByOrganizationGuid(@Param("guid") String guid);
 
+    @Query("SELECT o FROM Organization o WHERE o.guid IN :guids")
+    Set<Organization> findAllByGuids(@Param("guids") Collection<String> guids);
+
     @Query(value = "SELECT MAX(fetched) FROM organization", nativeQuery = true)
     LocalDateTime findLatestFetched();
 }
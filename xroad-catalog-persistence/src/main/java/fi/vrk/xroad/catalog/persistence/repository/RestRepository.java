@@ -14,8 +14,10 @@ package fi.vrk.xroad.catalog.persistence.repository;
 
 import fi.vrk.xroad.catalog.persistence.entity.Rest;
 import fi.vrk.xroad.catalog.persistence.entity.Service;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,4 +32,16 @@ public interface RestRepository extends CrudRepository<Rest, Long> {
 
     @Query(value = "SELECT MAX(fetched) FROM rest", nativeQuery = true)
     LocalDateTime findLatestFetched();
+
+    /**
+     * Marks the REST description of a service fetched if it is not removed and its data has the given hash.
+     * Unchanged descriptors are detected this way without loading them.
+     * @return number of updated rows, 0 if the REST description has changed, is removed or does not exist
+     */
+    @Modifying
+    @Query("UPDATE Rest d SET d.statusInfo.fetched = :fetched WHERE d.service = :service "
+            + "AND d.dataHash = :dataHash AND d.statusInfo.removed IS NULL")
+    int updateFetchedIfUnchanged(@Param("service") Service service,
+                                 @Param("dataHash") String dataHash,
+                                 @Param("fetched") LocalDateTime fetched);
 }
@@ -13,6 +13,7 @@
 package fi.vrk.xroad.catalog.persistence.repository;
 
 import fi.vrk.xroad.catalog.persistence.entity.Service;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +23,20 @@ import java.util.List;
 
 
 public interface ServiceRepository extends CrudRepository<Service, Long> {
+
+    String SERVICE_TYPE_QUERY = "SELECT CASE "
+            + "WHEN EXISTS (SELECT 1 FROM wsdl w WHERE w.service_id = s.id) THEN 'SOAP' "
+            + "WHEN EXISTS (SELECT 1 FROM open_api o WHERE o.service_id = s.id) THEN 'OPENAPI' "
+            + "ELSE 'REST' END "
+            + "FROM service s "
+            + "JOIN subsystem sub ON s.subsystem_id = sub.id "
+            + "JOIN member m ON sub.member_id = m.id "
+            + "WHERE s.service_code = :serviceCode "
+            + "AND sub.subsystem_code = :subsystemCode "
+            + "AND m.member_code = :memberCode "
+            + "AND m.member_class = :memberClass "
+            + "AND m.x_road_instance = :xRoadInstance ";
+
     /**
      * Only returns non-removed services
      */
@@ -89,7 +104,9 @@ public interface ServiceRepository extends CrudRepository<Service, Long> {
                                                   @Param("serviceCode") String serviceCode,
                                                   @Param("subsystemCode") String subsystemCode);
 
-    @Query("SELECT s FROM Service s WHERE s.serviceCode = :serviceCode "
+    @EntityGraph(value = "service.descriptors.graph",
+            type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT DISTINCT s FROM Service s WHERE s.serviceCode = :serviceCode "
             +"AND s.subsystem.subsystemCode = :subsystemCode "
             + "AND s.subsystem.member.memberCode = :memberCode "
             + "AND s.subsystem.member.memberClass = :memberClass "
@@ -101,7 +118,9 @@ public interface ServiceRepository extends CrudRepository<Service, Long> {
                                                           @Param("serviceCode") String serviceCode,
                                                           @Param("subsystemCode") String subsystemCode);
 
-    @Query("SELECT s FROM Service s WHERE s.serviceCode = :serviceCode "
+    @EntityGraph(value = "service.endpoints.graph",
+            type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT DISTINCT s FROM Service s WHERE s.serviceCode = :serviceCode "
             +"AND s.subsystem.subsystemCode = :subsystemCode "
             + "AND s.subsystem.member.memberCode = :memberCode "
             + "AND s.subsystem.member.memberClass = :memberClass "
@@ -112,7 +131,9 @@ public interface ServiceRepository extends CrudRepository<Service, Long> {
                                                           @Param("serviceCode") String serviceCode,
                                                           @Param("subsystemCode") String subsystemCode);
 
-    @Query("SELECT s FROM Service s WHERE s.serviceCode = :serviceCode "
+    @EntityGraph(value = "service.descriptors.graph",
+            type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT DISTINCT s FROM Service s WHERE s.serviceCode = :serviceCode "
             +"AND s.subsystem.subsystemCode = :subsystemCode "
             + "AND s.subsystem.member.memberCode = :memberCode "
             + "AND s.subsystem.member.memberClass = :memberClass "
@@ -125,6 +146,51 @@ public interface ServiceRepository extends CrudRepository<Service, Long> {
                                                          @Param("subsystemCode") String subsystemCode,
                                                          @Param("serviceVersion") String serviceVersion);
 
+    /**
+     * Returns the type of the service without loading its descriptions: SOAP if the service has a WSDL,
+     * otherwise OPENAPI if it has an OpenAPI description, otherwise REST
+     * @return service type, null if the service was not found
+     */
+    @Query(value = SERVICE_TYPE_QUERY + "AND s.service_version = :serviceVersion", nativeQuery = true)
+    String findServiceTypeByMemberServiceAndSubsystemAndVersion(@Param("xRoadInstance") String xRoadInstance,
+                                                                @Param("memberClass") String memberClass,
+                                                                @Param("memberCode") String memberCode,
+                                                                @Param("serviceCode") String serviceCode,
+                                                                @Param("subsystemCode") String subsystemCode,
+                                                                @Param("serviceVersion") String serviceVersion);
+
+    /**
+     * Same as {@link #findServiceTypeByMemberServiceAndSubsystemAndVersion} for a service without version
+     * @return service type, null if the service was not found
+     */
+    @Query(value = SERVICE_TYPE_QUERY + "AND s.service_version IS NULL", nativeQuery = true)
+    String findServiceTypeByMemberServiceAndSubsystemVersionNull(@Param("xRoadInstance") String xRoadInstance,
+                                                                 @Param("memberClass") String memberClass,
+                                                                 @Param("memberCode") String memberCode,
+                                                                 @Param("serviceCode") String serviceCode,
+                                                                 @Param("subsystemCode") String subsystemCode);
+
     @Query(value = "SELECT MAX(fetched) FROM service", nativeQuery = true)
     LocalDateTime findLatestFetched();
+
+    /**
+     * Counts non-removed services created before the given time by service type. A service with an
+     * OpenAPI description is counted as OpenAPI, otherwise one with a WSDL as SOAP and the rest as REST.
+     * @return a single row with the number of REST, SOAP and OpenAPI services
+     */
+    @Query(value = "SELECT "
+            + "COUNT(CASE WHEN NOT EXISTS (SELECT 1 FROM open_api o WHERE o.service_id = s.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM wsdl w WHERE w.service_id = s.id) THEN 1 END), "
+            + "COUNT(CASE WHEN NOT EXISTS (SELECT 1 FROM open_api o WHERE o.service_id = s.id) "
+            + "AND EXISTS (SELECT 1 FROM wsdl w WHERE w.service_id = s.id) THEN 1 END), "
+            + "COUNT(CASE WHEN EXISTS (SELECT 1 FROM open_api o WHERE o.service_id = s.id) THEN 1 END) "
+            + "FROM service s WHERE s.removed IS NULL AND s.created < :endDateTime", nativeQuery = true)
+    List<Object[]> countActiveByTypeCreatedBefore(@Param("endDateTime") LocalDateTime endDateTime);
+
+    /**
+     * Counts distinct service codes of non-removed services created before the given time
+     */
+    @Query("SELECT COUNT(DISTINCT s.serviceCode) FROM Service s "
+            + "WHERE s.statusInfo.removed IS NULL AND s.statusInfo.created < :endDateTime")
+    long countDistinctActiveServiceCodesCreatedBefore(@Param("endDateTime") LocalDateTime endDateTime);
 }
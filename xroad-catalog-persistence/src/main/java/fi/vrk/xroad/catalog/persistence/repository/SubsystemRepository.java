@@ -33,5 +33,8 @@ public interface SubsystemRepository extends CrudRepository<Subsystem, Long> {
 
     @Query(value = "SELECT MAX(fetched) FROM subsystem", nativeQuery = true)
     LocalDateTime findLatestFetched();
+
+    @Query("SELECT COUNT(s) FROM Subsystem s WHERE s.statusInfo.removed IS NULL")
+    long countActive();
 }
 
@@ -12,9 +12,12 @@
  */
 package fi.vrk.xroad.catalog.persistence.repository;
 
+import fi.vrk.xroad.catalog.persistence.entity.Service;
 import fi.vrk.xroad.catalog.persistence.entity.Wsdl;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,4 +30,16 @@ public interface WsdlRepository extends CrudRepository<Wsdl, Long> {
 
     @Query(value = "SELECT MAX(fetched) FROM wsdl", nativeQuery = true)
     LocalDateTime findLatestFetched();
+
+    /**
+     * Marks the WSDL of a service fetched if it is not removed and its data has the given hash.
+     * Unchanged descriptors are detected this way without loading them.
+     * @return number of updated rows, 0 if the WSDL has changed, is removed or does not exist
+     */
+    @Modifying
+    @Query("UPDATE Wsdl d SET d.statusInfo.fetched = :fetched WHERE d.service = :service "
+            + "AND d.dataHash = :dataHash AND d.statusInfo.removed IS NULL")
+    int updateFetchedIfUnchanged(@Param("service") Service service,
+                                 @Param("dataHash") String dataHash,
+                                 @Param("fetched") LocalDateTime fetched);
 }
@@ -73,6 +73,7 @@ CREATE TABLE IF NOT EXISTS wsdl (
     id BIGSERIAL PRIMARY KEY NOT NULL,
     service_id BIGSERIAL NOT NULL REFERENCES service(id),
     data TEXT NOT NULL,
+    data_hash TEXT,
     external_id TEXT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL,
     changed TIMESTAMP WITH TIME ZONE NOT NULL,
@@ -102,6 +103,7 @@ CREATE TABLE IF NOT EXISTS open_api (
     id BIGSERIAL PRIMARY KEY NOT NULL,
     service_id BIGSERIAL NOT NULL REFERENCES service(id),
     data TEXT NOT NULL,
+    data_hash TEXT,
     external_id TEXT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL,
     changed TIMESTAMP WITH TIME ZONE NOT NULL,
@@ -131,6 +133,7 @@ CREATE TABLE IF NOT EXISTS rest (
     id BIGSERIAL PRIMARY KEY NOT NULL,
     service_id BIGSERIAL NOT NULL REFERENCES service(id),
     data TEXT NOT NULL,
+    data_hash TEXT,
     external_id TEXT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL,
     changed TIMESTAMP WITH TIME ZONE NOT NULL,
@@ -189,7 +192,8 @@ CREATE TABLE IF NOT EXISTS error_log (
     service_version TEXT,
     security_category_code TEXT,
     server_code TEXT,
-    created TIMESTAMP WITH TIME ZONE NOT NULL
+    created TIMESTAMP WITH TIME ZONE NOT NULL,
+    occurrences INTEGER NOT NULL DEFAULT 1
 );
 
 CREATE SEQUENCE IF NOT EXISTS error_log_id_seq
@@ -201,12 +205,66 @@ CREATE SEQUENCE IF NOT EXISTS error_log_id_seq
 
 ALTER SEQUENCE error_log_id_seq OWNED BY error_log.id;
 
+CREATE TABLE IF NOT EXISTS collection_run (
+    id BIGSERIAL PRIMARY KEY NOT NULL,
+    started TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished TIMESTAMP WITH TIME ZONE NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    item_count BIGINT NOT NULL,
+    failure_count BIGINT NOT NULL,
+    status TEXT NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS collection_run_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+ALTER SEQUENCE collection_run_id_seq OWNED BY collection_run.id;
+
+CREATE TABLE IF NOT EXISTS daily_statistics (
+    id BIGSERIAL PRIMARY KEY NOT NULL,
+    statistics_date DATE NOT NULL,
+    number_of_rest_services BIGINT NOT NULL,
+    number_of_soap_services BIGINT NOT NULL,
+    number_of_open_api_services BIGINT NOT NULL,
+    number_of_distinct_services BIGINT NOT NULL,
+    number_of_members BIGINT NOT NULL,
+    number_of_subsystems BIGINT NOT NULL,
+    created TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS daily_statistics_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+ALTER SEQUENCE daily_statistics_id_seq OWNED BY daily_statistics.id;
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    name TEXT PRIMARY KEY NOT NULL,
+    version BIGINT NOT NULL,
+    changed TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO catalog_version (name, version, changed) VALUES ('descriptors', 0, now()) ON CONFLICT DO NOTHING;
+
+ALTER TABLE wsdl ADD COLUMN IF NOT EXISTS data_hash TEXT;
+ALTER TABLE open_api ADD COLUMN IF NOT EXISTS data_hash TEXT;
+ALTER TABLE rest ADD COLUMN IF NOT EXISTS data_hash TEXT;
+ALTER TABLE error_log ADD COLUMN IF NOT EXISTS occurrences INTEGER NOT NULL DEFAULT 1;
+
 CREATE UNIQUE INDEX IF NOT EXISTS idx_wsdl_external_id ON wsdl USING btree (external_id);
 CREATE UNIQUE INDEX IF NOT EXISTS idx_open_api_external_id ON open_api USING btree (external_id);
 CREATE UNIQUE INDEX IF NOT EXISTS idx_rest_external_id ON rest USING btree (external_id);
 CREATE UNIQUE INDEX IF NOT EXISTS idx_member_natural_keys ON member(member_code, member_class, x_road_instance);
 CREATE UNIQUE INDEX IF NOT EXISTS idx_service_unique_fields ON service(subsystem_id, service_code, service_version);
 CREATE UNIQUE INDEX IF NOT EXISTS idx_subsystem_unique_fields ON subsystem(member_id, subsystem_code);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_daily_statistics_date ON daily_statistics(statistics_date);
 
 CREATE INDEX IF NOT EXISTS idx_wsdl_changed ON wsdl(changed);
 CREATE INDEX IF NOT EXISTS idx_open_api_changed ON open_api(changed);
@@ -215,6 +273,14 @@ CREATE INDEX IF NOT EXISTS idx_endpoint_changed ON endpoint(changed);
 CREATE INDEX IF NOT EXISTS idx_service_changed ON service(changed);
 CREATE INDEX IF NOT EXISTS idx_subsystem_changed ON subsystem(changed);
 CREATE INDEX IF NOT EXISTS idx_member_changed ON member(changed);
+CREATE INDEX IF NOT EXISTS idx_collection_run_started ON collection_run(started);
+CREATE INDEX IF NOT EXISTS idx_wsdl_service_id ON wsdl(service_id);
+CREATE INDEX IF NOT EXISTS idx_open_api_service_id ON open_api(service_id);
+CREATE INDEX IF NOT EXISTS idx_error_log_created ON error_log(created, id);
+CREATE INDEX IF NOT EXISTS idx_error_log_instance_created ON error_log(x_road_instance, created, id);
+CREATE INDEX IF NOT EXISTS idx_error_log_member_class_created ON error_log(x_road_instance, member_class, created, id);
+CREATE INDEX IF NOT EXISTS idx_error_log_member_code_created ON error_log(x_road_instance, member_class, member_code, created, id);
+CREATE INDEX IF NOT EXISTS idx_error_log_subsystem_created ON error_log(x_road_instance, member_class, member_code, subsystem_code, created, id);
 
 ALTER TABLE member OWNER TO xroad_catalog;
 ALTER TABLE service OWNER TO xroad_catalog;
@@ -223,4 +289,7 @@ ALTER TABLE wsdl OWNER TO xroad_catalog;
 ALTER TABLE open_api OWNER TO xroad_catalog;
 ALTER TABLE rest OWNER TO xroad_catalog;
 ALTER TABLE endpoint OWNER TO xroad_catalog;
-ALTER TABLE error_log OWNER TO xroad_catalog;
\ No newline at end of file
+ALTER TABLE error_log OWNER TO xroad_catalog;
+ALTER TABLE collection_run OWNER TO xroad_catalog;
+ALTER TABLE daily_statistics OWNER TO xroad_catalog;
+ALTER TABLE catalog_version OWNER TO xroad_catalog;
\ No newline at end of file
@@ -14,7 +14,9 @@ package fi.vrk.xroad.catalog.persistence;
 
 import fi.vrk.xroad.catalog.persistence.dto.DistinctServiceStatistics;
 import fi.vrk.xroad.catalog.persistence.dto.LastCollectionData;
+import fi.vrk.xroad.catalog.persistence.dto.MemberData;
 import fi.vrk.xroad.catalog.persistence.dto.MemberDataList;
+import fi.vrk.xroad.catalog.persistence.dto.MemberServiceRow;
 import fi.vrk.xroad.catalog.persistence.dto.ServiceStatistics;
 import fi.vrk.xroad.catalog.persistence.dto.XRoadData;
 import fi.vrk.xroad.catalog.persistence.entity.*;
@@ -23,6 +25,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import fi.vrk.xroad.catalog.persistence.repository.*;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.json.JSONException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +34,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
@@ -42,6 +46,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -210,12 +215,76 @@ public class CatalogServiceTest {
         assertEquals(1, errorLogEntries.getTotalPages());
     }
 
+    @Test
+    public void testGetErrorsAfterCursor() {
+        XRoadData xRoadData = XRoadData.builder().build();
+        LocalDateTime startDate = LocalDateTime.parse("2020-01-01T00:00:00");
+        LocalDateTime endDate = LocalDateTime.now();
+        List<ErrorLog> firstPage = catalogService.getErrors(xRoadData, null, 0L, 4, startDate, endDate);
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L),
+                firstPage.stream().map(ErrorLog::getId).collect(Collectors.toList()));
+
+        // entries 1-6 share the same creation time, the id decides the order
+        ErrorLog last = firstPage.get(firstPage.size() - 1);
+        List<ErrorLog> secondPage = catalogService.getErrors(xRoadData, last.getCreated(), last.getId(), 4,
+                startDate, endDate);
+        assertEquals(Arrays.asList(5L, 6L, 7L),
+                secondPage.stream().map(ErrorLog::getId).collect(Collectors.toList()));
+
+        XRoadData memberClassData = XRoadData.builder().xRoadInstance("DEV").memberClass("GOV").build();
+        List<ErrorLog> memberClassPage = catalogService.getErrors(memberClassData, null, 0L, 2, startDate, endDate);
+        assertEquals(Arrays.asList(2L, 3L),
+                memberClassPage.stream().map(ErrorLog::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGetErrorsWithoutCount() {
+        XRoadData xRoadData = XRoadData.builder().build();
+        LocalDateTime startDate = LocalDateTime.parse("2020-01-01T00:00:00");
+        LocalDateTime endDate = LocalDateTime.now();
+        List<ErrorLog> secondPage = catalogService.getErrorsWithoutCount(xRoadData, 1, 4, startDate, endDate);
+        assertEquals(Arrays.asList(5L, 6L, 7L),
+                secondPage.stream().map(ErrorLog::getId).collect(Collectors.toList()));
+
+        XRoadData instanceData = XRoadData.builder().xRoadInstance("DEV").build();
+        List<ErrorLog> instancePage = catalogService.getErrorsWithoutCount(instanceData, 0, 100, startDate, endDate);
+        assertEquals(4, instancePage.size());
+    }
+
+    @Test
+    public void testCountErrors() {
+        LocalDateTime startDate = LocalDateTime.parse("2020-01-01T00:00:00");
+        LocalDateTime endDate = LocalDateTime.now();
+        assertEquals(7L, catalogService.countErrors(XRoadData.builder().build(), startDate, endDate));
+        assertEquals(4L, catalogService.countErrors(XRoadData.builder().xRoadInstance("DEV").build(),
+                startDate, endDate));
+        assertEquals(1L, catalogService.countErrors(XRoadData.builder().xRoadInstance("DEV").memberClass("GOV")
+                .memberCode("1234").subsystemCode("TestSubsystem").build(), startDate, endDate));
+    }
+
     @Test
     public void testSaveErrorLog() {
         ErrorLog errorLog = ErrorLog.builder().message("Error").code("500")
                 .created(LocalDateTime.now()).build();
         ErrorLog savedErrorLog = catalogService.saveErrorLog(errorLog);
         assertNotNull(savedErrorLog);
+        assertEquals(1, savedErrorLog.getOccurrences());
+    }
+
+    @Test
+    public void testSaveErrorLogs() {
+        LocalDateTime created = LocalDateTime.now().minusMinutes(1);
+        ErrorLog first = ErrorLog.builder().message("Error").code("500").xRoadInstance("BATCH")
+                .created(created).occurrences(3).build();
+        ErrorLog second = ErrorLog.builder().message("Another error").code("500").xRoadInstance("BATCH")
+                .created(created).build();
+        catalogService.saveErrorLogs(Arrays.asList(first, second));
+
+        List<ErrorLog> errorLogs = catalogService.getErrors(XRoadData.builder().xRoadInstance("BATCH").build(),
+                null, 0L, 10, created.minusMinutes(1), LocalDateTime.now());
+        assertEquals(2, errorLogs.size());
+        assertEquals(3, errorLogs.get(0).getOccurrences());
+        assertEquals(1, errorLogs.get(1).getOccurrences());
     }
 
     @Test
@@ -237,8 +306,7 @@ public class CatalogServiceTest {
         testUtil.entityManagerClear();
         // member - subsystem - service should be fetched
         // service - wdsl should also be fetched
-        // wsdl.data should not be fetched but this would require hibernate
-        // bytecode enhancement, and is too much of a pain
+        // wsdl.data should not be fetched
         Member m = (Member) testUtil.getEntity(members, 1L).get();
         assertNotNull(m);
         Subsystem ss = (Subsystem) testUtil.getEntity(m.getAllSubsystems(), 1L).get();
@@ -247,7 +315,7 @@ public class CatalogServiceTest {
         assertNotNull(s);
         Wsdl wsdl = s.getWsdl();
         assertNotNull(wsdl);
-        assertNotNull(wsdl.getData());
+        assertFalse(Hibernate.isPropertyInitialized(wsdl, "data"));
     }
 
     @Test
@@ -341,6 +409,40 @@ public class CatalogServiceTest {
         assertNotNull(foundMember);
     }
 
+    @Test
+    public void testGetMemberFetchesServiceTree() {
+        Member member = catalogService.getMember("dev-cs", "PUB", "14151328");
+        assertNotNull(member);
+        assertTrue(Hibernate.isInitialized(member.getAllSubsystems()));
+        assertFalse(member.getAllSubsystems().isEmpty());
+        member.getAllSubsystems().forEach(subsystem -> assertTrue(Hibernate.isInitialized(subsystem.getAllServices())));
+    }
+
+    @Test
+    public void testIsProvider() {
+        for (Member member : memberRepository.findAllActive()) {
+            boolean expected = member.getAllSubsystems().stream()
+                    .flatMap(subsystem -> subsystem.getAllServices().stream())
+                    .anyMatch(service -> service.hasWsdl() || service.hasOpenApi());
+            assertEquals(expected, catalogService.isProvider(member.getXRoadInstance(),
+                    member.getMemberClass(), member.getMemberCode()));
+        }
+        assertNull(catalogService.isProvider("dev-cs", "PUB", "nonexistent"));
+    }
+
+    @Test
+    public void testGetServiceType() {
+        for (Service service : serviceRepository.findAll()) {
+            Subsystem subsystem = service.getSubsystem();
+            Member member = subsystem.getMember();
+            String expected = service.hasWsdl() ? "SOAP" : service.hasOpenApi() ? "OPENAPI" : "REST";
+            assertEquals(expected, catalogService.getServiceType(member.getXRoadInstance(), member.getMemberClass(),
+                    member.getMemberCode(), service.getServiceCode(), subsystem.getSubsystemCode(),
+                    service.getServiceVersion()));
+        }
+        assertNull(catalogService.getServiceType("dev-cs", "PUB", "14151328", "nonexistent", "TestSubSystem", "v1"));
+    }
+
     @Test
     public void testGetActiveMembersSince() {
         // all non-deleted members that contain parts that were modified since 1.1.2007 (3-7)
@@ -363,6 +465,22 @@ public class CatalogServiceTest {
                 new ArrayList<Long>(testUtil.getIds(members)));
     }
 
+    @Test
+    public void testGetAllMembersPaged() {
+        LocalDateTime startDate = testUtil.createDate(1, 1, 2017);
+        LocalDateTime endDate = testUtil.createDate(1, 1, 2022);
+        List<Long> firstPage = catalogService.getMemberIds(startDate, endDate, 0L, 4);
+        assertEquals(Arrays.asList(3L, 4L, 5L, 6L), firstPage);
+        List<Member> members = catalogService.getMembers(firstPage);
+        assertEquals(firstPage, members.stream().map(Member::getId).collect(Collectors.toList()));
+        assertEntityTreeFetchedCorrectly(catalogService.getMembers(catalogService.getMemberIds(startDate, endDate, 0L, 5)));
+
+        List<Long> secondPage = catalogService.getMemberIds(startDate, endDate, 6L, 4);
+        assertEquals(Arrays.asList(7L, 8L), secondPage);
+        assertTrue(catalogService.getMemberIds(startDate, endDate, 8L, 4).isEmpty());
+        assertTrue(catalogService.getMembers(new ArrayList<>()).isEmpty());
+    }
+
     @Test
     public void testGetAllMembers() {
         Iterable<Member> members = catalogService.getAllMembers();
@@ -633,16 +751,17 @@ public class CatalogServiceTest {
         ServiceId originalServiceId = originalWsdl.getService().createKey();
         SubsystemId originalSubsystemId = originalWsdl.getService().getSubsystem().createKey();
         assertEquals("SubsystemId(subsystemCode=subsystem_7-1)", originalSubsystemId.toString());
+        String originalWsdlData = originalWsdl.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
-        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdl.getData());
+        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdlData);
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
         Wsdl checkedWsdl = wsdlRepository.findById(4L).get();
         assertEquals(originalWsdl.getExternalId(), checkedWsdl.getExternalId());
-        assertEquals(originalWsdl.getData(), checkedWsdl.getData());
+        assertEquals(originalWsdlData, checkedWsdl.getData());
         assertEquals(originalWsdl.getExternalId(), checkedWsdl.getExternalId());
         assertEquals(originalWsdl.getService().createKey(), originalServiceId);
         testUtil.assertFetchedIsOnlyDifferent(originalWsdl.getStatusInfo(), checkedWsdl.getStatusInfo());
@@ -655,16 +774,17 @@ public class CatalogServiceTest {
         Service originalService = originalOpenApi.getService();
         ServiceId originalServiceId = originalOpenApi.getService().createKey();
         SubsystemId originalSubsystemId = originalOpenApi.getService().getSubsystem().createKey();
+        String originalOpenApiData = originalOpenApi.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
-        catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApi.getData());
+        catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApiData);
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
         OpenApi checkedOpenApi = openApiRepository.findById(2L).get();
         assertEquals(originalOpenApi.getExternalId(), checkedOpenApi.getExternalId());
-        assertEquals(originalOpenApi.getData(), checkedOpenApi.getData());
+        assertEquals(originalOpenApiData, checkedOpenApi.getData());
         assertEquals(originalOpenApi.getExternalId(), checkedOpenApi.getExternalId());
         assertEquals(originalOpenApi.getService().createKey(), originalServiceId);
         testUtil.assertFetchedIsOnlyDifferent(originalOpenApi.getStatusInfo(), checkedOpenApi.getStatusInfo());
@@ -677,22 +797,105 @@ public class CatalogServiceTest {
         Service originalService = originalRest.getService();
         ServiceId originalServiceId = originalRest.getService().createKey();
         SubsystemId originalSubsystemId = originalRest.getService().getSubsystem().createKey();
+        String originalRestData = originalRest.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
-        catalogService.saveRest(originalSubsystemId, originalServiceId, originalRest.getData());
+        catalogService.saveRest(originalSubsystemId, originalServiceId, originalRestData);
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
         Rest checkedRest = restRepository.findById(1L).get();
         assertEquals(originalRest.getExternalId(), checkedRest.getExternalId());
-        assertEquals(originalRest.getData(), checkedRest.getData());
+        assertEquals(originalRestData, checkedRest.getData());
         assertEquals(originalRest.getExternalId(), checkedRest.getExternalId());
         assertEquals(originalRest.getService().createKey(), originalServiceId);
         testUtil.assertFetchedIsOnlyDifferent(originalRest.getStatusInfo(), checkedRest.getStatusInfo());
         testUtil.assertAllSame(originalService.getStatusInfo(), checkedRest.getService().getStatusInfo());
     }
 
+    @Test
+    public void testWsdlDataHashIsUsedForChangeDetection() {
+        // test data does not contain hashes, saving an identical wsdl stores the hash
+        // member (7) -> subsystem (8) -> service (6) -> wsdl (4)
+        Wsdl originalWsdl = wsdlRepository.findById(4L).get();
+        ServiceId originalServiceId = originalWsdl.getService().createKey();
+        SubsystemId originalSubsystemId = originalWsdl.getService().getSubsystem().createKey();
+        String originalData = originalWsdl.getData();
+        assertNull(originalWsdl.getDataHash());
+        testUtil.entityManagerClear();
+
+        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalData);
+        testUtil.entityManagerFlush();
+        testUtil.entityManagerClear();
+
+        Wsdl checkedWsdl = wsdlRepository.findById(4L).get();
+        assertEquals(new Wsdl(null, originalData, null).getDataHash(), checkedWsdl.getDataHash());
+        testUtil.assertFetchedIsOnlyDifferent(originalWsdl.getStatusInfo(), checkedWsdl.getStatusInfo());
+        testUtil.entityManagerClear();
+
+        // with the hash stored, an identical wsdl is detected in the database without loading the data
+        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalData);
+        testUtil.entityManagerFlush();
+        testUtil.entityManagerClear();
+
+        Wsdl unchangedWsdl = wsdlRepository.findById(4L).get();
+        assertFalse(Hibernate.isPropertyInitialized(unchangedWsdl, "data"));
+        testUtil.assertFetchedIsOnlyDifferent(checkedWsdl.getStatusInfo(), unchangedWsdl.getStatusInfo());
+        testUtil.entityManagerClear();
+
+        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalData + "-modification");
+        testUtil.entityManagerFlush();
+        testUtil.entityManagerClear();
+
+        Wsdl modifiedWsdl = wsdlRepository.findById(4L).get();
+        assertEquals(new Wsdl(null, originalData + "-modification", null).getDataHash(), modifiedWsdl.getDataHash());
+        assertNotEquals(checkedWsdl.getStatusInfo().getChanged(), modifiedWsdl.getStatusInfo().getChanged());
+    }
+
+    @Test
+    public void testDescriptorVersionIsIncrementedOnChange() {
+        // member (7) -> subsystem (8) -> service (6) -> wsdl (4)
+        Wsdl originalWsdl = wsdlRepository.findById(4L).get();
+        ServiceId wsdlServiceId = originalWsdl.getService().createKey();
+        SubsystemId wsdlSubsystemId = originalWsdl.getService().getSubsystem().createKey();
+        OpenApi originalOpenApi = openApiRepository.findById(2L).get();
+        ServiceId openApiServiceId = originalOpenApi.getService().createKey();
+        SubsystemId openApiSubsystemId = originalOpenApi.getService().getSubsystem().createKey();
+        String originalWsdlData = originalWsdl.getData();
+        String originalOpenApiData = originalOpenApi.getData();
+        testUtil.entityManagerClear();
+        assertEquals(0L, catalogService.getDescriptorVersion());
+
+        catalogService.saveWsdl(wsdlSubsystemId, wsdlServiceId, originalWsdlData);
+        testUtil.entityManagerFlush();
+        assertEquals(0L, catalogService.getDescriptorVersion());
+
+        catalogService.saveWsdl(wsdlSubsystemId, wsdlServiceId, originalWsdlData + "-modification");
+        testUtil.entityManagerFlush();
+        assertEquals(1L, catalogService.getDescriptorVersion());
+
+        catalogService.saveOpenApi(openApiSubsystemId, openApiServiceId, originalOpenApiData + "-modification");
+        testUtil.entityManagerFlush();
+        assertEquals(2L, catalogService.getDescriptorVersion());
+    }
+
+    @Test
+    public void testSaveCollectionRun() {
+        assertNull(catalogService.getLatestCollectionRun());
+        LocalDateTime started = LocalDateTime.of(2022, Month.JANUARY, 10, 12, 0);
+        catalogService.saveCollectionRun(CollectionRun.builder()
+                .started(started.minusDays(1)).finished(started.minusDays(1).plusMinutes(5))
+                .durationMs(300000).itemCount(10).failureCount(0).status("COMPLETED").build());
+        catalogService.saveCollectionRun(CollectionRun.builder()
+                .started(started).finished(started.plusMinutes(10))
+                .durationMs(600000).itemCount(20).failureCount(2).status("COMPLETED").build());
+        CollectionRun latest = catalogService.getLatestCollectionRun();
+        assertEquals(started, latest.getStarted());
+        assertEquals(20, latest.getItemCount());
+        assertEquals(2, latest.getFailureCount());
+    }
+
     @Test
     public void testOverwriteModifiedWsdl() {
         // "changed" is updated
@@ -702,16 +905,17 @@ public class CatalogServiceTest {
         Service originalService = originalWsdl.getService();
         ServiceId originalServiceId = originalWsdl.getService().createKey();
         SubsystemId originalSubsystemId = originalWsdl.getService().getSubsystem().createKey();
+        String originalWsdlData = originalWsdl.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
-        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdl.getData() + "-modification");
+        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdlData + "-modification");
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
         Wsdl checkedWsdl = wsdlRepository.findById(4L).get();
         assertEquals(originalWsdl.getExternalId(), checkedWsdl.getExternalId());
-        assertNotEquals(originalWsdl.getData(), checkedWsdl.getData());
+        assertNotEquals(originalWsdlData, checkedWsdl.getData());
         assertEquals(originalWsdl.getService().createKey(), originalServiceId);
         testUtil.assertEqualities(originalWsdl.getStatusInfo(), checkedWsdl.getStatusInfo(),
                 true, false, true, false);
@@ -724,16 +928,17 @@ public class CatalogServiceTest {
         Service originalService = originalOpenApi.getService();
         ServiceId originalServiceId = originalOpenApi.getService().createKey();
         SubsystemId originalSubsystemId = originalOpenApi.getService().getSubsystem().createKey();
+        String originalOpenApiData = originalOpenApi.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
-        catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApi.getData() + "-modification");
+        catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApiData + "-modification");
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
         OpenApi checkedOpenApi = openApiRepository.findById(2L).get();
         assertEquals(originalOpenApi.getExternalId(), checkedOpenApi.getExternalId());
-        assertNotEquals(originalOpenApi.getData(), checkedOpenApi.getData());
+        assertNotEquals(originalOpenApiData, checkedOpenApi.getData());
         assertEquals(originalOpenApi.getService().createKey(), originalServiceId);
         testUtil.assertEqualities(originalOpenApi.getStatusInfo(), checkedOpenApi.getStatusInfo(),
                 true, false, true, false);
@@ -746,16 +951,17 @@ public class CatalogServiceTest {
         Service originalService = originalRest.getService();
         ServiceId originalServiceId = originalRest.getService().createKey();
         SubsystemId originalSubsystemId = originalRest.getService().getSubsystem().createKey();
+        String originalRestData = originalRest.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
-        catalogService.saveRest(originalSubsystemId, originalServiceId, originalRest.getData() + "-modification");
+        catalogService.saveRest(originalSubsystemId, originalServiceId, originalRestData + "-modification");
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
         Rest checkedRest = restRepository.findById(1L).get();
         assertEquals(originalRest.getExternalId(), checkedRest.getExternalId());
-        assertNotEquals(originalRest.getData(), checkedRest.getData());
+        assertNotEquals(originalRestData, checkedRest.getData());
         assertEquals(originalRest.getService().createKey(), originalServiceId);
         testUtil.assertEqualities(originalRest.getStatusInfo(), checkedRest.getStatusInfo(),
                 true, false, true, false);
@@ -872,9 +1078,10 @@ public class CatalogServiceTest {
         Wsdl originalWsdl = oldService.getWsdl();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerFlush();
+        String originalWsdlData = originalWsdl.getData();
         testUtil.entityManagerClear();
 
-        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdl.getData());
+        catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdlData);
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
@@ -882,7 +1089,7 @@ public class CatalogServiceTest {
         Wsdl checkedWsdl = checkedService.getWsdl();
         assertEquals(originalWsdl.getExternalId(), checkedWsdl.getExternalId());
         assertEquals(7L, checkedWsdl.getId());
-        assertEquals(originalWsdl.getData(), checkedWsdl.getData());
+        assertEquals(originalWsdlData, checkedWsdl.getData());
         assertEquals(checkedWsdl.getService().createKey(), originalServiceId);
         testUtil.assertEqualities(originalWsdl.getStatusInfo(), checkedWsdl.getStatusInfo(),
                 true, false, false, false);
@@ -900,9 +1107,10 @@ public class CatalogServiceTest {
         OpenApi originalOpenApi = oldService.getOpenApi();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerFlush();
+        String originalOpenApiData = originalOpenApi.getData();
         testUtil.entityManagerClear();
 
-        catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApi.getData());
+        catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApiData);
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
@@ -910,7 +1118,7 @@ public class CatalogServiceTest {
         OpenApi checkedOpenApi = checkedService.getOpenApi();
         assertEquals(originalOpenApi.getExternalId(), checkedOpenApi.getExternalId());
         assertEquals(1L, checkedOpenApi.getId());
-        assertEquals(originalOpenApi.getData(), checkedOpenApi.getData());
+        assertEquals(originalOpenApiData, checkedOpenApi.getData());
         assertEquals(checkedOpenApi.getService().createKey(), originalServiceId);
         testUtil.assertEqualities(originalOpenApi.getStatusInfo(), checkedOpenApi.getStatusInfo(),
                 true, false, false, false);
@@ -928,9 +1136,10 @@ public class CatalogServiceTest {
         Rest originalRest = oldService.getRest();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerFlush();
+        String originalRestData = originalRest.getData();
         testUtil.entityManagerClear();
 
-        catalogService.saveRest(originalSubsystemId, originalServiceId, originalRest.getData());
+        catalogService.saveRest(originalSubsystemId, originalServiceId, originalRestData);
         testUtil.entityManagerFlush();
         testUtil.entityManagerClear();
 
@@ -938,7 +1147,7 @@ public class CatalogServiceTest {
         Rest checkedRest = checkedService.getRest();
         assertEquals(originalRest.getExternalId(), checkedRest.getExternalId());
         assertEquals(2L, checkedRest.getId());
-        assertEquals(originalRest.getData(), checkedRest.getData());
+        assertEquals(originalRestData, checkedRest.getData());
         assertEquals(checkedRest.getService().createKey(), originalServiceId);
         testUtil.assertEqualities(originalRest.getStatusInfo(), checkedRest.getStatusInfo(),
                 true, false, false, false);
@@ -952,11 +1161,12 @@ public class CatalogServiceTest {
         ServiceId originalServiceId = oldService.createKey();
         SubsystemId originalSubsystemId = oldService.getSubsystem().createKey();
         Wsdl originalWsdl = oldService.getWsdl();
+        String originalWsdlData = originalWsdl.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
         try {
-            catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdl.getData());
+            catalogService.saveWsdl(originalSubsystemId, originalServiceId, originalWsdlData);
             fail("should have throw exception since service is removed");
         } catch (Exception expected) {
             // Exception is expected }
@@ -970,11 +1180,12 @@ public class CatalogServiceTest {
         ServiceId originalServiceId = oldService.createKey();
         SubsystemId originalSubsystemId = oldService.getSubsystem().createKey();
         OpenApi originalOpenApi = oldService.getOpenApi();
+        String originalOpenApiData = originalOpenApi.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
         try {
-            catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApi.getData());
+            catalogService.saveOpenApi(originalSubsystemId, originalServiceId, originalOpenApiData);
             fail("should have throw exception since service is removed");
         } catch (Exception expected) {
             // Exception is expected }
@@ -988,11 +1199,12 @@ public class CatalogServiceTest {
         ServiceId originalServiceId = oldService.createKey();
         SubsystemId originalSubsystemId = oldService.getSubsystem().createKey();
         Rest originalRest = oldService.getRest();
+        String originalRestData = originalRest.getData();
         // detach, so we dont modify those objects in the next steps
         testUtil.entityManagerClear();
 
         try {
-            catalogService.saveRest(originalSubsystemId, originalServiceId, originalRest.getData());
+            catalogService.saveRest(originalSubsystemId, originalServiceId, originalRestData);
             fail("should have throw exception since service is removed");
         } catch (Exception expected) {
             // Exception is expected }
@@ -1015,6 +1227,44 @@ public class CatalogServiceTest {
         LocalDateTime endDateTime = LocalDateTime.of(2022, 1, 1, 0, 0);
         List<ServiceStatistics> serviceStatistics = catalogService.getServiceStatistics(startDateTime, endDateTime);
         assertEquals(2923, serviceStatistics.size());
+        List<Service> services = serviceRepository.findAllActive().stream()
+                .filter(service -> service.getStatusInfo().getCreated().isBefore(endDateTime))
+                .collect(Collectors.toList());
+        long openApiServices = services.stream().filter(Service::hasOpenApi).count();
+        long soapServices = services.stream().filter(service -> !service.hasOpenApi() && service.hasWsdl()).count();
+        long restServices = services.size() - openApiServices - soapServices;
+        serviceStatistics.forEach(statistics -> {
+            assertEquals(openApiServices, statistics.getNumberOfOpenApiServices());
+            assertEquals(soapServices, statistics.getNumberOfSoapServices());
+            assertEquals(restServices, statistics.getNumberOfRestServices());
+        });
+    }
+
+    @Test
+    public void testGetServiceStatisticsFromDailyStatistics() {
+        LocalDate snapshotDate = LocalDate.of(2020, 1, 2);
+        DailyStatistics dailyStatistics = catalogService.saveDailyStatistics(snapshotDate);
+        assertEquals(snapshotDate, dailyStatistics.getStatisticsDate());
+        assertEquals(memberRepository.countActive(), dailyStatistics.getNumberOfMembers());
+        assertEquals(subsystemRepository.countActive(), dailyStatistics.getNumberOfSubsystems());
+        dailyStatistics.setNumberOfRestServices(100);
+        dailyStatistics.setNumberOfDistinctServices(200);
+
+        LocalDateTime startDateTime = LocalDateTime.of(2020, 1, 1, 0, 0);
+        LocalDateTime endDateTime = LocalDateTime.of(2020, 1, 3, 0, 0);
+        List<ServiceStatistics> serviceStatistics = catalogService.getServiceStatistics(startDateTime, endDateTime);
+        assertEquals(3, serviceStatistics.size());
+        assertNotEquals(100L, serviceStatistics.get(0).getNumberOfRestServices());
+        assertEquals(100L, serviceStatistics.get(1).getNumberOfRestServices());
+        assertNotEquals(100L, serviceStatistics.get(2).getNumberOfRestServices());
+        List<DistinctServiceStatistics> distinctServiceStatistics
+                = catalogService.getDistinctServiceStatistics(startDateTime, endDateTime);
+        assertEquals(1, distinctServiceStatistics.stream()
+                .filter(statistics -> statistics.getCreated().toLocalDate().equals(snapshotDate))
+                .filter(statistics -> statistics.getNumberOfDistinctServices() == 200L).count());
+
+        DailyStatistics updatedDailyStatistics = catalogService.saveDailyStatistics(snapshotDate);
+        assertEquals(dailyStatistics.getId(), updatedDailyStatistics.getId());
     }
 
     @Test
@@ -1023,6 +1273,12 @@ public class CatalogServiceTest {
         LocalDateTime endDateTime = LocalDateTime.of(2022, 1, 1, 0, 0);
         List<DistinctServiceStatistics> distinctServiceStatistics = catalogService.getDistinctServiceStatistics(startDateTime, endDateTime);
         assertEquals(2923, distinctServiceStatistics.size());
+        long distinctServices = serviceRepository.findAllActive().stream()
+                .filter(service -> service.getStatusInfo().getCreated().isBefore(endDateTime))
+                .map(Service::getServiceCode)
+                .distinct().count();
+        distinctServiceStatistics.forEach(statistics ->
+                assertEquals(distinctServices, statistics.getNumberOfDistinctServices()));
     }
 
     @Test
@@ -1031,6 +1287,29 @@ public class CatalogServiceTest {
         LocalDateTime endDateTime = LocalDateTime.of(2022, 1, 1, 0, 0);
         List<MemberDataList> members = catalogService.getMemberData(startDateTime, endDateTime);
         assertEquals(2923, members.size());
+        assertEquals(startDateTime, members.get(0).getDate());
+        assertEquals(endDateTime, members.get(members.size() - 1).getDate());
+        assertFalse(members.get(0).getMemberDataList().isEmpty());
+        assertSame(members.get(0).getMemberDataList(), members.get(members.size() - 1).getMemberDataList());
+    }
+
+    @Test
+    public void testForEachMemberServiceRow() {
+        LocalDateTime startDateTime = LocalDateTime.of(2014, 1, 1, 0, 0);
+        LocalDateTime endDateTime = LocalDateTime.of(2022, 1, 1, 0, 0);
+        List<MemberData> memberDataList = catalogService.getMemberData(startDateTime, endDateTime).get(0).getMemberDataList();
+        long expectedRows = memberDataList.stream()
+                .mapToLong(memberData -> memberData.getSubsystemList().isEmpty() ? 1 : memberData.getSubsystemList().stream()
+                        .mapToLong(subsystemData -> Math.max(1, subsystemData.getServiceList().size())).sum())
+                .sum();
+        List<MemberServiceRow> rows = new ArrayList<>();
+        catalogService.forEachMemberServiceRow(endDateTime, rows::add);
+        assertEquals(expectedRows, rows.size());
+        assertEquals(memberDataList.stream().map(memberData -> memberData.getXRoadInstance() + "/" + memberData.getMemberClass()
+                        + "/" + memberData.getMemberCode()).distinct().count(),
+                rows.stream().map(row -> row.getXRoadInstance() + "/" + row.getMemberClass()
+                        + "/" + row.getMemberCode()).distinct().count());
+        assertTrue(rows.stream().filter(MemberServiceRow::hasService).allMatch(MemberServiceRow::hasSubsystem));
     }
 
     @Test
@@ -99,6 +99,33 @@ public class CompanyServiceTest {
         TestUtil.verifySavedStatusInfo(savedCompany.getStatusInfo());
     }
 
+    @Test
+    public void testSaveCompanyGraph() {
+        Company company = Company.builder()
+                .companyForm("OYJ")
+                .businessId("1710128-9")
+                .detailsUri("123")
+                .registrationDate(LocalDateTime.of(2020, 4, 30, 0, 0 ,0))
+                .name("Gofore Oyj").build();
+        company.getAllBusinessNames().add(BusinessName.builder()
+                .name("Gofore").language("FI").ordering(0).source(0).version(0)
+                .registrationDate(LocalDateTime.of(2020, 4, 30, 0, 0 ,0))
+                .endDate(null).company(company).build());
+        company.getAllBusinessNames().add(BusinessName.builder()
+                .name("Gofore").language("SE").ordering(0).source(0).version(0)
+                .registrationDate(LocalDateTime.of(2020, 4, 30, 0, 0 ,0))
+                .endDate(null).company(company).build());
+        Company savedCompany = companyService.saveCompanyGraph(company);
+        assertNotNull(savedCompany);
+        assertEquals(1L, savedCompany.getId());
+        assertEquals(2, savedCompany.getAllBusinessNames().size());
+        BusinessName updatedBusinessName = savedCompany.getAllBusinessNames().stream()
+                .filter(businessName -> "FI".equals(businessName.getLanguage())).findFirst().get();
+        assertEquals(1L, updatedBusinessName.getId());
+        assertEquals("Gofore", updatedBusinessName.getName());
+        savedCompany.getAllBusinessNames().forEach(businessName -> TestUtil.verifySavedStatusInfo(businessName.getStatusInfo()));
+    }
+
     @Test
     public void testSaveBusinessName() {
         Iterable<Company> companies = companyService.getCompanies("1710128-9");
@@ -15,6 +15,7 @@ package fi.vrk.xroad.catalog.persistence;
 import fi.vrk.xroad.catalog.persistence.dto.LastOrganizationCollectionData;
 import fi.vrk.xroad.catalog.persistence.entity.*;
 import com.google.common.collect.Iterables;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -24,6 +25,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -79,6 +81,20 @@ public class OrganizationServiceTest {
                 .getAllMunicipalityNames().iterator().next().getValue());
     }
 
+    @Test
+    public void testGetOrganizationInitializesChildren() {
+        Organization organization = organizationService.getOrganization("abcdef123456").get();
+        assertTrue(Hibernate.isInitialized(organization.getAllOrganizationNames()));
+        assertTrue(Hibernate.isInitialized(organization.getAllEmails()));
+        assertTrue(Hibernate.isInitialized(organization.getAllAddresses()));
+        Address address = organization.getAllAddresses().iterator().next();
+        assertTrue(Hibernate.isInitialized(address.getAllStreetAddresses()));
+        StreetAddress streetAddress = address.getAllStreetAddresses().iterator().next();
+        assertTrue(Hibernate.isInitialized(streetAddress.getAllStreets()));
+        assertTrue(Hibernate.isInitialized(streetAddress.getAllMunicipalities()));
+        assertTrue(Hibernate.isInitialized(streetAddress.getAllMunicipalities().iterator().next().getAllMunicipalityNames()));
+    }
+
     @Test
     public void testGetOrganization() {
         Optional<Organization> organization = organizationService.getOrganization("abcdef123456");
@@ -147,6 +163,39 @@ public class OrganizationServiceTest {
         TestUtil.verifySavedStatusInfo(savedOrganization.getStatusInfo());
     }
 
+    @Test
+    public void testSaveOrganizations() {
+        Organization existingOrganization = Organization.builder()
+                .organizationType("Municipality")
+                .businessCode("0123456-9")
+                .guid("abcdef123456")
+                .publishingStatus("Published").build();
+        existingOrganization.getAllOrganizationNames().add(OrganizationName.builder()
+                .language("fi").type("Name").value("Vaasa").organization(existingOrganization).build());
+        Organization newOrganization = Organization.builder()
+                .organizationType("Municipality")
+                .businessCode("123456789-0")
+                .guid("abcdef123456789")
+                .publishingStatus("Published").build();
+        newOrganization.getAllOrganizationNames().add(OrganizationName.builder()
+                .language("fi").type("Name").value("Nivala").organization(newOrganization).build());
+        organizationService.saveOrganizations(Arrays.asList(existingOrganization, newOrganization));
+
+        Optional<Organization> foundOrganization = organizationService.getOrganization("abcdef123456");
+        assertEquals(true, foundOrganization.isPresent());
+        assertEquals(1, foundOrganization.get().getAllOrganizationNames().size());
+        assertEquals(1L, foundOrganization.get().getAllOrganizationNames().iterator().next().getId());
+        assertEquals("Vaasa", foundOrganization.get().getAllOrganizationNames().iterator().next().getValue());
+        assertEquals(2016, foundOrganization.get().getStatusInfo().getCreated().getYear());
+        TestUtil.verifySavedStatusInfo(foundOrganization.get().getAllOrganizationNames().iterator().next().getStatusInfo());
+
+        Optional<Organization> foundNewOrganization = organizationService.getOrganization("abcdef123456789");
+        assertEquals(true, foundNewOrganization.isPresent());
+        assertEquals(1, foundNewOrganization.get().getAllOrganizationNames().size());
+        assertEquals("Nivala", foundNewOrganization.get().getAllOrganizationNames().iterator().next().getValue());
+        TestUtil.verifySavedStatusInfo(foundNewOrganization.get().getStatusInfo());
+    }
+
     @Test
     public void testSaveOrganizationName() {
         Optional<Organization> organization = organizationService.getOrganization("abcdef123456");
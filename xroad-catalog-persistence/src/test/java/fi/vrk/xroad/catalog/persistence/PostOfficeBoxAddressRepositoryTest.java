@@ -17,11 +17,13 @@ import fi.vrk.xroad.catalog.persistence.repository.PostOfficeBoxAddressRepositor
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @SpringBootTest
+@Transactional
 public class PostOfficeBoxAddressRepositoryTest {
 
     @Autowired
@@ -36,6 +36,7 @@ CREATE TABLE IF NOT EXISTS wsdl (
     id INT AUTO_INCREMENT PRIMARY KEY NOT NULL,
     service_id INT NOT NULL REFERENCES service(id),
     data TEXT NOT NULL,
+    data_hash TEXT,
     external_id TEXT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL,
     changed TIMESTAMP WITH TIME ZONE NOT NULL,
@@ -47,6 +48,7 @@ CREATE TABLE IF NOT EXISTS open_api (
     id INT AUTO_INCREMENT PRIMARY KEY NOT NULL,
     service_id INT NOT NULL REFERENCES service(id),
     data TEXT NOT NULL,
+    data_hash TEXT,
     external_id TEXT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL,
     changed TIMESTAMP WITH TIME ZONE NOT NULL,
@@ -58,6 +60,7 @@ CREATE TABLE IF NOT EXISTS rest (
     id INT AUTO_INCREMENT PRIMARY KEY NOT NULL,
     service_id INT NOT NULL REFERENCES service(id),
     data TEXT NOT NULL,
+    data_hash TEXT,
     external_id TEXT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL,
     changed TIMESTAMP WITH TIME ZONE NOT NULL,
@@ -502,5 +505,34 @@ CREATE TABLE IF NOT EXISTS error_log (
     service_version TEXT,
     security_category_code TEXT,
     server_code TEXT,
+    created TIMESTAMP WITH TIME ZONE NOT NULL,
+    occurrences INTEGER NOT NULL DEFAULT 1
+);
+
+CREATE TABLE IF NOT EXISTS collection_run (
+    id INT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    started TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished TIMESTAMP WITH TIME ZONE NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    item_count BIGINT NOT NULL,
+    failure_count BIGINT NOT NULL,
+    status TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS daily_statistics (
+    id INT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    statistics_date DATE NOT NULL UNIQUE,
+    number_of_rest_services BIGINT NOT NULL,
+    number_of_soap_services BIGINT NOT NULL,
+    number_of_open_api_services BIGINT NOT NULL,
+    number_of_distinct_services BIGINT NOT NULL,
+    number_of_members BIGINT NOT NULL,
+    number_of_subsystems BIGINT NOT NULL,
     created TIMESTAMP WITH TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    name TEXT PRIMARY KEY NOT NULL,
+    version BIGINT NOT NULL,
+    changed TIMESTAMP WITH TIME ZONE NOT NULL
+);